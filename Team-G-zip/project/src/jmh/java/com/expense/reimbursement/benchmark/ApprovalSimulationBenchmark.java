@@ -0,0 +1,165 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.ExpenseReimbursementApplication;
+import com.expense.reimbursement.dto.DecisionOutcome;
+import com.expense.reimbursement.dto.ExpensePage;
+import com.expense.reimbursement.model.Employee;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.service.ApprovalWorkflowService;
+import com.expense.reimbursement.service.ExpenseCounterService;
+import com.expense.reimbursement.service.ExpenseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Approval inboxes at organisation scale: {@code managers} managers spread over
+ * {@code departments} departments, and {@code pendingItems} pending expenses each queued
+ * for every manager of the submitter's department. Measures opening a manager's queue,
+ * paging into it, and approving from it.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ApprovalSimulationBenchmark {
+    
+    @Param("500")
+    public int managers;
+    
+    @Param("100")
+    public int departments;
+    
+    @Param("1000000")
+    public int pendingItems;
+    
+    private static final int EMPLOYEES_PER_DEPARTMENT = 20;
+    private static final int BATCH_SIZE = 5000;
+    
+    private ConfigurableApplicationContext context;
+    private ExpenseService expenseService;
+    private long[] managerIds;
+    private final Map<Long, String> secondPageCursors = new HashMap<>();
+    // (approver, expense) pairs still waiting to be approved
+    private final ConcurrentLinkedQueue<long[]> assignments = new ConcurrentLinkedQueue<>();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ExpenseReimbursementApplication.class)
+                .profiles("benchmark")
+                .run();
+        expenseService = context.getBean(ExpenseService.class);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Random random = new Random(42);
+        
+        List<Object[]> employeeRows = new ArrayList<>();
+        for (int i = 0; i < managers; i++) {
+            employeeRows.add(new Object[]{"Manager " + i, "manager" + i + "@sim.local", "-",
+                    "Department " + (i % departments), Employee.Role.MANAGER.name()});
+        }
+        for (int i = 0; i < departments * EMPLOYEES_PER_DEPARTMENT; i++) {
+            employeeRows.add(new Object[]{"Employee " + i, "employee" + i + "@sim.local", "-",
+                    "Department " + (i % departments), Employee.Role.EMPLOYEE.name()});
+        }
+        jdbc.batchUpdate("INSERT INTO employees (name, email, password, department, role) VALUES (?, ?, ?, ?, ?)",
+                employeeRows);
+        managerIds = jdbc.queryForList("SELECT id FROM employees WHERE role = 'MANAGER' ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        long[] employeeIds = jdbc.queryForList("SELECT id FROM employees WHERE role = 'EMPLOYEE' ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        
+        String insertExpense = "INSERT INTO expenses (id, description, amount, expense_date, category, status, " +
+                "submitted_at, employee_id, version, thumbnail_status, approval_level, approval_levels) " +
+                "VALUES (?, 'Simulated expense', ?, ?, ?, 'PENDING', ?, ?, 0, 'NONE', 1, 1)";
+        Expense.Category[] categories = Expense.Category.values();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < pendingItems; i++) {
+            LocalDateTime submittedAt = now.minusMinutes(60 + random.nextInt(365 * 24 * 60));
+            batch.add(new Object[]{
+                    i + 1L,
+                    BigDecimal.valueOf(100 + random.nextInt(200_000), 2),
+                    Date.valueOf(submittedAt.toLocalDate()),
+                    categories[random.nextInt(categories.length)].name(),
+                    Timestamp.valueOf(submittedAt),
+                    employeeIds[random.nextInt(employeeIds.length)]});
+            if (batch.size() == BATCH_SIZE) {
+                jdbc.batchUpdate(insertExpense, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(insertExpense, batch);
+        }
+        BenchmarkDataSeeder.restartExpenseIds(jdbc);
+        jdbc.update("INSERT INTO approval_inbox (approver_id, submitted_at, expense_id, approval_level) " +
+                    "SELECT m.id, e.submitted_at, e.id, 1 FROM expenses e " +
+                    "JOIN employees s ON s.id = e.employee_id " +
+                    "JOIN employees m ON m.department = s.department AND m.role = 'MANAGER'");
+        context.getBean(ApprovalWorkflowService.class).reload();
+        context.getBean(ExpenseCounterService.class).rebuildCounters();
+        
+        for (long managerId : managerIds) {
+            secondPageCursors.put(managerId, expenseService.getInboxPage(managerId, null, null).nextCursor());
+        }
+        jdbc.query("SELECT MIN(approver_id), expense_id FROM approval_inbox GROUP BY expense_id",
+                rs -> { assignments.add(new long[]{rs.getLong(1), rs.getLong(2)}); });
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public ExpensePage<Expense> inboxFirstPage() {
+        return expenseService.getInboxPage(randomManagerId(), null, null);
+    }
+    
+    @Benchmark
+    public ExpensePage<Expense> inboxNextPage() {
+        long managerId = randomManagerId();
+        return expenseService.getInboxPage(managerId, secondPageCursors.get(managerId), null);
+    }
+    
+    @Benchmark
+    public DecisionOutcome approve() {
+        long[] assignment = assignments.poll();
+        if (assignment == null) {
+            throw new IllegalStateException("Every seeded expense was approved; raise pendingItems");
+        }
+        return expenseService.approveExpense(assignment[1], assignment[0]);
+    }
+    
+    private long randomManagerId() {
+        return managerIds[ThreadLocalRandom.current().nextInt(managerIds.length)];
+    }
+}
@@ -0,0 +1,174 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.ExpenseReimbursementApplication;
+import com.expense.reimbursement.dto.ExpensePage;
+import com.expense.reimbursement.model.Employee;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.service.ApprovalWorkflowService;
+import com.expense.reimbursement.service.ExpenseArchiveService;
+import com.expense.reimbursement.service.ExpenseCounterService;
+import com.expense.reimbursement.service.ExpenseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The manager queues and the employee dashboard over {@code rows} expenses submitted
+ * across six years, 1% of them still pending, before ({@code archived=false}) and after
+ * ({@code archived=true}) the archive job has moved decided expenses older than
+ * expense.archive.age-days out of the hot table. The history variants read both tables.
+ * The default dataset needs a large heap on H2; pass e.g. {@code -p rows=2000000} on a
+ * smaller machine, or point the benchmark profile at MySQL.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx24g")
+@State(Scope.Benchmark)
+public class ArchivalBenchmark {
+    
+    @Param("20000000")
+    public int rows;
+    
+    @Param({"false", "true"})
+    public boolean archived;
+    
+    private static final int EMPLOYEES = 20_000;
+    private static final int BATCH_SIZE = 5000;
+    private static final int HISTORY_DAYS = 6 * 365;
+    
+    private ConfigurableApplicationContext context;
+    private ExpenseService expenseService;
+    private long managerId;
+    private long[] employeeIds;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ExpenseReimbursementApplication.class)
+                .profiles("benchmark")
+                .properties("expense.archive.batch-size=10000", "expense.archive.pause-ms=0")
+                .run();
+        expenseService = context.getBean(ExpenseService.class);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Random random = new Random(42);
+        
+        jdbc.update("INSERT INTO employees (name, email, password, department, role) VALUES (?, ?, ?, ?, ?)",
+                "Archive Manager", "manager@archive.local", "-", BenchmarkDataSeeder.DEPARTMENTS[0],
+                Employee.Role.MANAGER.name());
+        managerId = jdbc.queryForObject("SELECT id FROM employees WHERE role = 'MANAGER'", Long.class);
+        List<Object[]> employeeRows = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employeeRows.add(new Object[]{"Employee " + i, "employee" + i + "@archive.local", "-",
+                    BenchmarkDataSeeder.DEPARTMENTS[i % BenchmarkDataSeeder.DEPARTMENTS.length],
+                    Employee.Role.EMPLOYEE.name()});
+        }
+        jdbc.batchUpdate("INSERT INTO employees (name, email, password, department, role) VALUES (?, ?, ?, ?, ?)",
+                employeeRows);
+        employeeIds = jdbc.queryForList("SELECT id FROM employees WHERE role = 'EMPLOYEE' ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        
+        // Pending expenses are the recent ones; everything older has been decided
+        String insertExpense = "INSERT INTO expenses (id, description, amount, expense_date, category, status, " +
+                "submitted_at, approved_at, employee_id, approved_by, version, thumbnail_status, " +
+                "approval_level, approval_levels) " +
+                "VALUES (?, 'Archived expense', ?, ?, ?, ?, ?, ?, ?, ?, 0, 'NONE', 1, 1)";
+        Expense.Category[] categories = Expense.Category.values();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            boolean pending = random.nextInt(100) == 0;
+            LocalDateTime submittedAt = now.minusMinutes(60 + random.nextInt((pending ? 30 : HISTORY_DAYS) * 24 * 60));
+            Expense.Status status = pending ? Expense.Status.PENDING
+                    : random.nextInt(5) == 0 ? Expense.Status.REJECTED : Expense.Status.APPROVED;
+            batch.add(new Object[]{
+                    i + 1L,
+                    BigDecimal.valueOf(100 + random.nextInt(200_000), 2),
+                    Date.valueOf(submittedAt.toLocalDate()),
+                    categories[random.nextInt(categories.length)].name(),
+                    status.name(),
+                    Timestamp.valueOf(submittedAt),
+                    pending ? null : Timestamp.valueOf(submittedAt.plusHours(4)),
+                    employeeIds[random.nextInt(employeeIds.length)],
+                    pending ? null : managerId});
+            if (batch.size() == BATCH_SIZE) {
+                jdbc.batchUpdate(insertExpense, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(insertExpense, batch);
+        }
+        BenchmarkDataSeeder.restartExpenseIds(jdbc);
+        jdbc.update("INSERT INTO approval_inbox (approver_id, submitted_at, expense_id, approval_level) " +
+                    "SELECT ?, submitted_at, id, 1 FROM expenses WHERE status = 'PENDING'", managerId);
+        context.getBean(ApprovalWorkflowService.class).reload();
+        context.getBean(ExpenseCounterService.class).rebuildCounters();
+        
+        if (archived) {
+            context.getBean(ExpenseArchiveService.class).archive();
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public ExpensePage<Expense> managerInbox() {
+        return expenseService.getInboxPage(managerId, null, null);
+    }
+    
+    @Benchmark
+    public ExpensePage<Expense> pendingQueue() {
+        return expenseService.getPendingExpensesPage(null, null);
+    }
+    
+    @Benchmark
+    public ExpensePage<Expense> allExpenses() {
+        return expenseService.getExpensesPage(null, null);
+    }
+    
+    @Benchmark
+    public ExpensePage<Expense> allExpensesWithHistory() {
+        return expenseService.getExpensesPage(null, null, true);
+    }
+    
+    @Benchmark
+    public List<Expense> employeeDashboard() {
+        return expenseService.getExpensesByEmployee(randomEmployeeId());
+    }
+    
+    @Benchmark
+    public List<Expense> employeeDashboardWithHistory() {
+        return expenseService.getExpensesByEmployee(randomEmployeeId(), true);
+    }
+    
+    private long randomEmployeeId() {
+        return employeeIds[ThreadLocalRandom.current().nextInt(employeeIds.length)];
+    }
+}
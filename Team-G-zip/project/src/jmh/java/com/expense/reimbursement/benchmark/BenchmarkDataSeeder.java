@@ -0,0 +1,147 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.model.Employee;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.service.ApprovalWorkflowService;
+import com.expense.reimbursement.service.ExpenseCounterService;
+import com.expense.reimbursement.service.FileUploadService;
+import com.expense.reimbursement.service.SpendReportService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic employees, expenses and receipts, written with JDBC batches and a fixed
+ * seed so every run measures the same data.
+ */
+class BenchmarkDataSeeder {
+    
+    static final String PASSWORD = "benchmark";
+    static final String MANAGER_EMAIL = "manager@bench.local";
+    static final String[] DEPARTMENTS = {"Engineering", "Sales", "Marketing", "Finance", "Operations", "Support"};
+    private static final String[] WORDS = {"client", "dinner", "taxi", "hotel", "flight", "conference", "train",
+            "lunch", "laptop", "stationery", "course", "parking", "team", "offsite", "fuel", "books"};
+    private static final int BATCH_SIZE = 1000;
+    
+    record Dataset(long managerId, long[] employeeIds, String employeePasswordHash, LocalDateTime seededAt) {}
+    
+    private final JdbcTemplate jdbc;
+    private final ApplicationContext context;
+    private final Random random = new Random(42);
+    
+    BenchmarkDataSeeder(ApplicationContext context) {
+        this.context = context;
+        this.jdbc = context.getBean(JdbcTemplate.class);
+    }
+    
+    Dataset seed(int employees, int expensesPerEmployee, int receipts) throws Exception {
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        
+        jdbc.update("INSERT INTO employees (name, email, password, department, role) VALUES (?, ?, ?, ?, ?)",
+                "Bench Manager", MANAGER_EMAIL, hash, DEPARTMENTS[0], Employee.Role.MANAGER.name());
+        long managerId = jdbc.queryForObject("SELECT id FROM employees WHERE email = ?", Long.class, MANAGER_EMAIL);
+        
+        List<Object[]> employeeRows = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            employeeRows.add(new Object[]{"Employee " + i, "employee" + i + "@bench.local", hash,
+                    DEPARTMENTS[i % DEPARTMENTS.length], Employee.Role.EMPLOYEE.name()});
+        }
+        jdbc.batchUpdate("INSERT INTO employees (name, email, password, department, role) VALUES (?, ?, ?, ?, ?)",
+                employeeRows);
+        long[] employeeIds = jdbc.queryForList("SELECT id FROM employees WHERE role = 'EMPLOYEE' ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        
+        List<String> receiptKeys = new ArrayList<>(receipts);
+        FileUploadService uploads = context.getBean(FileUploadService.class);
+        for (int i = 0; i < receipts; i++) {
+            byte[] content = new byte[16 * 1024 + random.nextInt(64 * 1024)];
+            random.nextBytes(content);
+            receiptKeys.add(uploads.uploadFile(new MockMultipartFile("receiptFile", "receipt-" + i + ".pdf",
+                    "application/pdf", content)));
+        }
+        
+        // Expense ids come from a pooled sequence, so rows written here carry their own
+        String insertExpense = "INSERT INTO expenses (id, description, amount, expense_date, category, status, " +
+                "receipt_file_name, receipt_file_path, comments, submitted_at, approved_at, employee_id, approved_by, " +
+                "version, thumbnail_status, approval_level, approval_levels) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 'NONE', 1, 1)";
+        Expense.Category[] categories = Expense.Category.values();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        int receiptIndex = 0;
+        long nextId = 1;
+        for (long employeeId : employeeIds) {
+            for (int i = 0; i < expensesPerEmployee; i++) {
+                // Seeded decisions all lie before now, so anything approved later came from a benchmark
+                LocalDateTime submittedAt = now.minusMinutes(60 + random.nextInt(2 * 365 * 24 * 60));
+                LocalDate expenseDate = submittedAt.toLocalDate().minusDays(random.nextInt(14));
+                int roll = random.nextInt(100);
+                Expense.Status status = roll < 60 ? Expense.Status.PENDING
+                        : roll < 85 ? Expense.Status.APPROVED : Expense.Status.REJECTED;
+                boolean decided = status != Expense.Status.PENDING;
+                String receiptKey = receiptIndex < receiptKeys.size() && random.nextInt(4) == 0
+                        ? receiptKeys.get(receiptIndex++) : null;
+                batch.add(new Object[]{
+                        nextId++,
+                        sentence(3 + random.nextInt(5)),
+                        BigDecimal.valueOf(100 + random.nextInt(200_000), 2),
+                        Date.valueOf(expenseDate),
+                        categories[random.nextInt(categories.length)].name(),
+                        status.name(),
+                        receiptKey == null ? null : "receipt.pdf",
+                        receiptKey,
+                        random.nextInt(3) == 0 ? sentence(8) : null,
+                        Timestamp.valueOf(submittedAt),
+                        decided ? Timestamp.valueOf(submittedAt.plusHours(1)) : null,
+                        employeeId,
+                        decided ? managerId : null});
+                if (batch.size() == BATCH_SIZE) {
+                    jdbc.batchUpdate(insertExpense, batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(insertExpense, batch);
+        }
+        restartExpenseIds(jdbc);
+        
+        // Every pending expense waits in the bench manager's queue
+        jdbc.update("INSERT INTO approval_inbox (approver_id, submitted_at, expense_id, approval_level) " +
+                    "SELECT ?, submitted_at, id, 1 FROM expenses WHERE status = 'PENDING'", managerId);
+        context.getBean(ApprovalWorkflowService.class).reload();
+        context.getBean(ExpenseCounterService.class).rebuildCounters();
+        context.getBean(SpendReportService.class).rebuildRollups();
+        return new Dataset(managerId, employeeIds, hash, now);
+    }
+    
+    /**
+     * Moves the expense id sequence past rows inserted with explicit ids, the way the
+     * V11 migration seeds it on MySQL.
+     */
+    static void restartExpenseIds(JdbcTemplate jdbc) {
+        long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM expenses", Long.class);
+        jdbc.execute("ALTER SEQUENCE expense_id_seq RESTART WITH " + (maxId + 1001));
+    }
+    
+    private String sentence(int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
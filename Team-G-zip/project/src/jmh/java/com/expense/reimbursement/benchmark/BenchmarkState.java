@@ -0,0 +1,55 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.ExpenseReimbursementApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The application under the "benchmark" profile, seeded once per fork. Dataset size is
+ * set with JMH params, e.g. {@code -p employees=1000 -p expensesPerEmployee=500}.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkState {
+    
+    @Param("100")
+    public int employees;
+    
+    @Param("100")
+    public int expensesPerEmployee;
+    
+    @Param("200")
+    public int receipts;
+    
+    ConfigurableApplicationContext context;
+    BenchmarkDataSeeder.Dataset dataset;
+    
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        context = new SpringApplicationBuilder(ExpenseReimbursementApplication.class)
+                .profiles("benchmark")
+                .run();
+        dataset = new BenchmarkDataSeeder(context).seed(employees, expensesPerEmployee, receipts);
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+    
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+    
+    long randomEmployeeId() {
+        long[] ids = dataset.employeeIds();
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,80 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.dto.BulkDecisionResult;
+import com.expense.reimbursement.dto.DecisionOutcome;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.service.ExpenseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clearing {@code batch} expenses from the manager's inbox one approval at a time (one
+ * transaction each, as the single-approve button does) against one bulk call. Each
+ * invocation starts from the same queue: earlier approvals are put back beforehand.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkApprovalBenchmark {
+    
+    @Param("1000")
+    public int batch;
+    
+    private ExpenseService expenseService;
+    private JdbcTemplate jdbc;
+    private long managerId;
+    private Timestamp seededAt;
+    private List<Long> ids;
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkState state) {
+        expenseService = state.bean(ExpenseService.class);
+        jdbc = state.bean(JdbcTemplate.class);
+        managerId = state.dataset.managerId();
+        seededAt = Timestamp.valueOf(state.dataset.seededAt());
+    }
+    
+    @Setup(Level.Invocation)
+    public void refillPending() {
+        jdbc.update("INSERT INTO approval_inbox (approver_id, submitted_at, expense_id, approval_level) " +
+                    "SELECT ?, submitted_at, id, 1 FROM expenses WHERE approved_at > ?", managerId, seededAt);
+        jdbc.update("UPDATE expenses SET status = 'PENDING', approved_by = NULL, approved_at = NULL " +
+                    "WHERE approved_at > ?", seededAt);
+        ids = jdbc.queryForList("SELECT expense_id FROM approval_inbox WHERE approver_id = ? " +
+                "ORDER BY submitted_at DESC, expense_id DESC LIMIT ?", Long.class, managerId, batch);
+    }
+    
+    @Benchmark
+    public int singleApprovals() {
+        int decided = 0;
+        for (Long id : ids) {
+            if (expenseService.approveExpense(id, managerId) == DecisionOutcome.DECIDED) {
+                decided++;
+            }
+        }
+        return decided;
+    }
+    
+    @Benchmark
+    public BulkDecisionResult bulkApproval() {
+        return expenseService.decideExpenses(ids, Expense.Status.APPROVED, managerId);
+    }
+}
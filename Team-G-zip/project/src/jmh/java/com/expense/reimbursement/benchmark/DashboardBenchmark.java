@@ -0,0 +1,89 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.model.Employee;
+import com.expense.reimbursement.security.EmployeePrincipal;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Full request through the security filter chain, controller and Thymeleaf render of
+ * both dashboards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardBenchmark {
+    
+    private MockMvc mockMvc;
+    private MockHttpSession managerSession;
+    private MockHttpSession employeeSession;
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkState state) throws Exception {
+        WebApplicationContext context = (WebApplicationContext) state.context;
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+        managerSession = sessionFor(new EmployeePrincipal(state.dataset.managerId(), "Bench Manager",
+                Employee.Role.MANAGER, BenchmarkDataSeeder.DEPARTMENTS[0]));
+        employeeSession = sessionFor(new EmployeePrincipal(state.dataset.employeeIds()[0], "Employee 0",
+                Employee.Role.EMPLOYEE, BenchmarkDataSeeder.DEPARTMENTS[0]));
+        
+        // Fail fast rather than timing redirects
+        requireOk(managerDashboard());
+        requireOk(employeeDashboard());
+    }
+    
+    @Benchmark
+    public MockHttpServletResponse managerDashboard() throws Exception {
+        return mockMvc.perform(get("/manager/dashboard").session(managerSession)).andReturn().getResponse();
+    }
+    
+    @Benchmark
+    public MockHttpServletResponse employeeDashboard() throws Exception {
+        return mockMvc.perform(get("/employee/dashboard").session(employeeSession)).andReturn().getResponse();
+    }
+    
+    private static MockHttpSession sessionFor(EmployeePrincipal principal) {
+        UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole().name())));
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                new SecurityContextImpl(authentication));
+        return session;
+    }
+    
+    private static void requireOk(MockHttpServletResponse response) {
+        if (response.getStatus() != 200) {
+            throw new IllegalStateException("Dashboard returned " + response.getStatus()
+                    + (response.getRedirectedUrl() != null ? " -> " + response.getRedirectedUrl() : ""));
+        }
+    }
+}
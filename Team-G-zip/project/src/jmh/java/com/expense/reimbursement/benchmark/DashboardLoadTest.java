@@ -0,0 +1,142 @@
+package com.expense.reimbursement.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load against a running instance: {@code users} virtual-thread clients
+ * share one signed-in session and request {@code path} back to back for
+ * {@code duration} seconds. Prints throughput and latency percentiles as one JSON line
+ * (appended to {@code out} when given). Run it once against the app started with
+ * {@code spring.threads.virtual.enabled=false} and once with {@code true}:
+ * <pre>
+ * mvn -P benchmarks package exec:exec@load-test \
+ *     -Dload.args="--email manager@example.com --password secret --users 5000 --label virtual"
+ * </pre>
+ * The login rate limit applies to the single sign-in only.
+ */
+public class DashboardLoadTest {
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080");
+        String path = options.getOrDefault("path", "/manager/dashboard");
+        int users = Integer.parseInt(options.getOrDefault("users", "5000"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        String label = options.getOrDefault("label", "run");
+        
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        String cookie = login(client, baseUrl, options.get("email"), options.get("password"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Cookie", cookie)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        
+        long deadline = System.nanoTime() + Duration.ofSeconds(durationSeconds).toNanos();
+        List<Future<long[]>> clients = new ArrayList<>(users);
+        LongAdder errors = new LongAdder();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[256];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                        } catch (IOException e) {
+                            ok = false;
+                        }
+                        if (!ok) {
+                            errors.increment();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        
+        long[] all = clients.stream().map(DashboardLoadTest::join).flatMapToLong(Arrays::stream).sorted().toArray();
+        String json = String.format(
+                "{\"label\":\"%s\",\"path\":\"%s\",\"users\":%d,\"durationSeconds\":%d,\"requests\":%d,\"errors\":%d,"
+                        + "\"throughputPerSecond\":%.1f,\"p50Ms\":%.2f,\"p95Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}",
+                label, path, users, durationSeconds, all.length, errors.sum(), all.length / (double) durationSeconds,
+                percentileMs(all, 0.50), percentileMs(all, 0.95), percentileMs(all, 0.99), percentileMs(all, 1.0));
+        System.out.println(json);
+        if (options.containsKey("out")) {
+            Files.writeString(Path.of(options.get("out")), json + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+    
+    static String login(HttpClient client, String baseUrl, String email, String password) throws Exception {
+        if (email == null || password == null) {
+            throw new IllegalArgumentException("--email and --password are required");
+        }
+        String form = "email=" + URLEncoder.encode(email, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID=") || c.startsWith("SESSION="))
+                .map(c -> c.substring(0, c.indexOf(';') > 0 ? c.indexOf(';') : c.length()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Login failed with status " + response.statusCode()));
+    }
+    
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static double percentileMs(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+    
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
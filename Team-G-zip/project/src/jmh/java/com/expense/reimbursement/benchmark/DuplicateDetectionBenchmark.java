@@ -0,0 +1,93 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.model.Employee;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.service.DuplicateDetectionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The submission-time duplicate check against a warm index: a miss (the common case,
+ * memory only) and a hit (confirmed with one primary-key read). Also times a full
+ * rescan. Size the index with BenchmarkState params, e.g.
+ * {@code -p employees=2000 -p expensesPerEmployee=500} for 1M expenses.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DuplicateDetectionBenchmark {
+    
+    private static final int SAMPLES = 10_000;
+    
+    private DuplicateDetectionService duplicateDetectionService;
+    private Expense[] seeded;
+    private Expense[] fresh;
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkState state) {
+        duplicateDetectionService = state.bean(DuplicateDetectionService.class);
+        duplicateDetectionService.rescan();
+        
+        // Claims that repeat seeded expenses inside the window, and ones that repeat nothing
+        JdbcTemplate jdbc = state.bean(JdbcTemplate.class);
+        List<Expense> rows = jdbc.query("SELECT employee_id, amount, expense_date, category FROM expenses " +
+                "WHERE expense_date >= ? ORDER BY id LIMIT " + SAMPLES,
+                (rs, i) -> claim(rs.getLong(1), rs.getBigDecimal(2), rs.getDate(3).toLocalDate(),
+                        Expense.Category.valueOf(rs.getString(4))),
+                Date.valueOf(LocalDate.now().minusDays(365)));
+        seeded = rows.toArray(Expense[]::new);
+        fresh = rows.stream()
+                .map(e -> claim(e.getEmployee().getId(), e.getAmount(), e.getExpenseDate().plusYears(5),
+                        e.getCategory()))
+                .toArray(Expense[]::new);
+    }
+    
+    @Benchmark
+    public Expense.FlagReason checkMiss() {
+        Expense expense = fresh[ThreadLocalRandom.current().nextInt(fresh.length)];
+        expense.setFlagReason(null);
+        duplicateDetectionService.check(expense);
+        return expense.getFlagReason();
+    }
+    
+    @Benchmark
+    public Expense.FlagReason checkHit() {
+        Expense expense = seeded[ThreadLocalRandom.current().nextInt(seeded.length)];
+        expense.setFlagReason(null);
+        duplicateDetectionService.check(expense);
+        return expense.getFlagReason();
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int rescan() {
+        return duplicateDetectionService.rescan();
+    }
+    
+    private static Expense claim(long employeeId, BigDecimal amount, LocalDate date, Expense.Category category) {
+        Employee employee = new Employee();
+        employee.setId(employeeId);
+        return new Expense("Benchmark claim", amount, date, category, employee);
+    }
+}
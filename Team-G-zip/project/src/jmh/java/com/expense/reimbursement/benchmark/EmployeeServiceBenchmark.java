@@ -0,0 +1,44 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeServiceBenchmark {
+    
+    private EmployeeService employeeService;
+    private String encodedPassword;
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkState state) {
+        employeeService = state.bean(EmployeeService.class);
+        encodedPassword = state.dataset.employeePasswordHash();
+    }
+    
+    @Benchmark
+    public boolean validateCorrectPassword() {
+        return employeeService.validatePassword(BenchmarkDataSeeder.PASSWORD, encodedPassword);
+    }
+    
+    @Benchmark
+    public boolean validateWrongPassword() {
+        return employeeService.validatePassword("not-the-password", encodedPassword);
+    }
+}
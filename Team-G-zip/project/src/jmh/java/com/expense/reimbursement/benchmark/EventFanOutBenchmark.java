@@ -0,0 +1,103 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.dto.ExpenseEvent;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.service.ExpenseEventService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publish-to-delivered time for one pending-queue event with {@code subscribers} dashboard
+ * streams open over real HTTP connections to the embedded server.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventFanOutBenchmark {
+    
+    @Param({"100", "1000", "5000"})
+    public int subscribers;
+    
+    private ExpenseEventService expenseEventService;
+    private ExecutorService readers;
+    private HttpClient client;
+    private volatile CountDownLatch delivered;
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkState state) throws Exception {
+        expenseEventService = state.bean(ExpenseEventService.class);
+        String baseUrl = "http://localhost:" + state.context.getEnvironment().getProperty("local.server.port");
+        readers = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(readers)
+                .build();
+        String cookie = DashboardLoadTest.login(client, baseUrl, BenchmarkDataSeeder.MANAGER_EMAIL, BenchmarkDataSeeder.PASSWORD);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/manager/expenses/events"))
+                .header("Cookie", cookie)
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        
+        for (int i = 0; i < subscribers; i++) {
+            readers.submit(() -> {
+                client.send(request, HttpResponse.BodyHandlers.ofLines()).body().forEach(line -> {
+                    CountDownLatch latch = delivered;
+                    if (latch != null && line.equals("event:decided")) {
+                        latch.countDown();
+                    }
+                });
+                return null;
+            });
+        }
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (expenseEventService.getSubscriberCount() < subscribers) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Only " + expenseEventService.getSubscriberCount()
+                        + " of " + subscribers + " streams connected");
+            }
+            Thread.sleep(50);
+        }
+    }
+    
+    @Benchmark
+    public void publishToAll() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(subscribers);
+        delivered = latch;
+        expenseEventService.publishAfterCommit(ExpenseEvent.decided(List.of(0L), Expense.Status.APPROVED, List.of()));
+        if (!latch.await(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException(latch.getCount() + " streams did not receive the event");
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.shutdownNow();
+        readers.shutdownNow();
+    }
+}
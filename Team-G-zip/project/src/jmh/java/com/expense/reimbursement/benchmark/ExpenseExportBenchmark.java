@@ -0,0 +1,119 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.dto.ExpenseExportFilter;
+import com.expense.reimbursement.service.ExpenseExportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV and XLSX exports of every expense, written to a sink that only counts bytes. The
+ * full variants measure the whole download; the first-byte variants stop at the first
+ * write to the response, i.e. the time to first byte a client sees. Run with
+ * {@code -prof gc} for the heap side (allocation per export, GC count) and a bigger
+ * dataset, e.g. {@code -p expensesPerEmployee=2000}: the fork's heap is kept small so an
+ * export that buffers its rows fails instead of just getting slower.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class ExpenseExportBenchmark {
+    
+    private static final ExpenseExportFilter ALL = new ExpenseExportFilter(null, null, null, null, null, false);
+    
+    private ExpenseExportService exportService;
+    private ExpenseExportFilter oneDepartmentLastQuarter;
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkState state) {
+        exportService = state.bean(ExpenseExportService.class);
+        oneDepartmentLastQuarter = new ExpenseExportFilter(null, state.dataset.seededAt().toLocalDate().minusMonths(3),
+                null, null, BenchmarkDataSeeder.DEPARTMENTS[0], false);
+    }
+    
+    @Benchmark
+    public long csv() throws IOException {
+        CountingSink sink = new CountingSink(false);
+        exportService.exportCsv(ALL, sink);
+        return sink.bytes;
+    }
+    
+    @Benchmark
+    public long xlsx() throws IOException {
+        CountingSink sink = new CountingSink(false);
+        exportService.exportXlsx(ALL, sink);
+        return sink.bytes;
+    }
+    
+    @Benchmark
+    public long csvFiltered() throws IOException {
+        CountingSink sink = new CountingSink(false);
+        exportService.exportCsv(oneDepartmentLastQuarter, sink);
+        return sink.bytes;
+    }
+    
+    @Benchmark
+    public long csvFirstByte() throws IOException {
+        CountingSink sink = new CountingSink(true);
+        try {
+            exportService.exportCsv(ALL, sink);
+        } catch (FirstByte e) {
+            // The export is abandoned at its first write, as on a dropped connection
+        }
+        return sink.bytes;
+    }
+    
+    @Benchmark
+    public long xlsxFirstByte() throws IOException {
+        CountingSink sink = new CountingSink(true);
+        try {
+            exportService.exportXlsx(ALL, sink);
+        } catch (FirstByte e) {
+            // The export is abandoned at its first write, as on a dropped connection
+        }
+        return sink.bytes;
+    }
+    
+    private static class FirstByte extends IOException {
+        FirstByte() {
+            super("first byte written");
+        }
+    }
+    
+    private static class CountingSink extends OutputStream {
+        private final boolean stopAtFirstByte;
+        long bytes;
+        
+        CountingSink(boolean stopAtFirstByte) {
+            this.stopAtFirstByte = stopAtFirstByte;
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            bytes += len;
+            if (stopAtFirstByte && len > 0) {
+                throw new FirstByte();
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.ExpenseReimbursementApplication;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.model.ExpenseImport;
+import com.expense.reimbursement.service.ExpenseImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports a {@code rows}-line CSV statement end to end: parsing and validation, employee
+ * lookups, batched inserts and the per-chunk counter, rollup and inbox writes (no
+ * notification sinks are configured). Each iteration imports a fresh file (its hash
+ * differs) into a table that keeps growing; one line in fifty is invalid and goes to the
+ * error report.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ExpenseImportBenchmark {
+    
+    @Param("1000000")
+    public int rows;
+    
+    @Param("5000")
+    public int chunkSize;
+    
+    private static final int EMPLOYEES = 2000;
+    
+    private ConfigurableApplicationContext context;
+    private ExpenseImportService importService;
+    private Path file;
+    private int iteration;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(ExpenseReimbursementApplication.class)
+                .profiles("benchmark")
+                .properties("expense.imports.chunk-size=" + chunkSize)
+                .run();
+        new BenchmarkDataSeeder(context).seed(EMPLOYEES, 0, 0);
+        importService = context.getBean(ExpenseImportService.class);
+    }
+    
+    @Setup(Level.Iteration)
+    public void writeStatement() throws Exception {
+        file = Files.createTempFile("statement-" + iteration++ + "-", ".csv");
+        Random random = new Random(iteration);
+        Expense.Category[] categories = Expense.Category.values();
+        LocalDate today = LocalDate.now();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("employee_email,expense_date,description,amount,category,comments\n");
+            for (int i = 0; i < rows; i++) {
+                boolean invalid = i % 50 == 49;
+                writer.write("employee" + random.nextInt(EMPLOYEES) + "@bench.local,");
+                writer.write(today.minusDays(random.nextInt(60)) + ",");
+                writer.write("\"Card transaction " + iteration + "-" + i + ", merchant " + random.nextInt(5000) + "\",");
+                writer.write(invalid ? "-1" : BigDecimal.valueOf(100 + random.nextInt(200_000), 2).toPlainString());
+                writer.write("," + categories[random.nextInt(categories.length)].name() + ",\n");
+            }
+        }
+    }
+    
+    @TearDown(Level.Iteration)
+    public void deleteStatement() throws Exception {
+        Files.deleteIfExists(file);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public ExpenseImport importStatement() throws Exception {
+        ExpenseImport job = importService.importFile(file, null);
+        if (job.getStatus() != ExpenseImport.Status.COMPLETED) {
+            throw new IllegalStateException("Import failed: " + job.getErrorMessage());
+        }
+        return job;
+    }
+}
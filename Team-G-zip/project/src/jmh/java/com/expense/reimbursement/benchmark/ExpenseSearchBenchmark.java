@@ -0,0 +1,83 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.dto.ExpenseSearchQuery;
+import com.expense.reimbursement.dto.ExpenseSearchResult;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.service.ExpenseSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency with eight concurrent users; read p0.95 from the SampleTime output.
+ * Covers free text alone, free text with facet filters and a deep page, and filters
+ * with no text. The seeder writes expenses with JDBC, so setup rebuilds the index
+ * before measuring.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpenseSearchBenchmark {
+    
+    private static final String[] TERMS = {"client dinner", "taxi", "hotel conference", "flight", "team offsite",
+            "laptop", "train fuel", "books course"};
+    
+    private ExpenseSearchService expenseSearchService;
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkState state) throws Exception {
+        expenseSearchService = state.bean(ExpenseSearchService.class);
+        if (!expenseSearchService.reindexAsync()) {
+            throw new IllegalStateException("A reindex is already running");
+        }
+        while (expenseSearchService.isReindexing()) {
+            Thread.sleep(100);
+        }
+        expenseSearchService.refreshSearchers();
+    }
+    
+    @Benchmark
+    public ExpenseSearchResult text() throws IOException {
+        return expenseSearchService.search(new ExpenseSearchQuery(randomTerm(), null, null, null, null,
+                null, null, 0));
+    }
+    
+    @Benchmark
+    public ExpenseSearchResult textWithFilters() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Expense.Category[] categories = Expense.Category.values();
+        return expenseSearchService.search(new ExpenseSearchQuery(randomTerm(),
+                categories[random.nextInt(categories.length)], Expense.Status.APPROVED,
+                BigDecimal.valueOf(50), BigDecimal.valueOf(1500), LocalDate.now().minusYears(1), null,
+                random.nextInt(5)));
+    }
+    
+    @Benchmark
+    public ExpenseSearchResult filtersOnly() throws IOException {
+        return expenseSearchService.search(new ExpenseSearchQuery(null, null, Expense.Status.PENDING,
+                BigDecimal.valueOf(1000), null, LocalDate.now().minusDays(90), null, 0));
+    }
+    
+    private static String randomTerm() {
+        return TERMS[ThreadLocalRandom.current().nextInt(TERMS.length)];
+    }
+}
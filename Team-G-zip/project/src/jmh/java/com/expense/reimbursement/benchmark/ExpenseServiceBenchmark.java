@@ -0,0 +1,94 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.dto.DecisionOutcome;
+import com.expense.reimbursement.dto.ExpensePage;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.service.ExpenseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpenseServiceBenchmark {
+    
+    private ExpenseService expenseService;
+    private JdbcTemplate jdbc;
+    private long managerId;
+    private Timestamp seededAt;
+    private final ConcurrentLinkedQueue<Long> pendingIds = new ConcurrentLinkedQueue<>();
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkState state) {
+        expenseService = state.bean(ExpenseService.class);
+        jdbc = state.bean(JdbcTemplate.class);
+        managerId = state.dataset.managerId();
+        seededAt = Timestamp.valueOf(state.dataset.seededAt());
+    }
+    
+    // Puts back what earlier iterations approved, so every iteration draws from the same pool
+    @Setup(Level.Iteration)
+    public synchronized void refillPending() {
+        jdbc.update("INSERT INTO approval_inbox (approver_id, submitted_at, expense_id, approval_level) " +
+                    "SELECT ?, submitted_at, id, 1 FROM expenses WHERE approved_at > ?", managerId, seededAt);
+        jdbc.update("UPDATE expenses SET status = 'PENDING', approved_by = NULL, approved_at = NULL " +
+                    "WHERE approved_at > ?", seededAt);
+        pendingIds.clear();
+        pendingIds.addAll(jdbc.queryForList("SELECT expense_id FROM approval_inbox WHERE approver_id = ?",
+                Long.class, managerId));
+    }
+    
+    @Benchmark
+    public ExpensePage<Expense> allExpensesFirstPage() {
+        return expenseService.getExpensesPage(null, null);
+    }
+    
+    @Benchmark
+    public ExpensePage<Expense> pendingExpensesFirstPage() {
+        return expenseService.getPendingExpensesPage(null, null);
+    }
+    
+    @Benchmark
+    public ExpensePage<Expense> inboxFirstPage() {
+        return expenseService.getInboxPage(managerId, null, null);
+    }
+    
+    @Benchmark
+    public List<Expense> employeeExpenses(BenchmarkState state) {
+        return expenseService.getExpensesByEmployee(state.randomEmployeeId());
+    }
+    
+    @Benchmark
+    public Map<Expense.Status, Long> statusCounts() {
+        return expenseService.getStatusCounts();
+    }
+    
+    @Benchmark
+    public DecisionOutcome approve() {
+        Long id = pendingIds.poll();
+        if (id == null) {
+            refillPending();
+            id = pendingIds.poll();
+        }
+        return expenseService.approveExpense(id, managerId);
+    }
+}
@@ -0,0 +1,60 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.service.FileUploadService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileUploadServiceBenchmark {
+    
+    @Param({"65536", "1048576"})
+    public int fileSize;
+    
+    private FileUploadService fileUploadService;
+    private byte[] duplicateContent;
+    private final AtomicLong counter = new AtomicLong();
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkState state) {
+        fileUploadService = state.bean(FileUploadService.class);
+        duplicateContent = new byte[fileSize];
+        ThreadLocalRandom.current().nextBytes(duplicateContent);
+    }
+    
+    /** New content every call: hash, write and store. */
+    @Benchmark
+    public String uploadNewReceipt() throws IOException {
+        byte[] content = duplicateContent.clone();
+        ByteBuffer.wrap(content).putLong(counter.incrementAndGet());
+        return fileUploadService.uploadFile(new MockMultipartFile("receiptFile", "receipt.pdf", "application/pdf", content));
+    }
+    
+    /** Content already stored: hash and bump the reference count only. */
+    @Benchmark
+    public String uploadDuplicateReceipt() throws IOException {
+        return fileUploadService.uploadFile(new MockMultipartFile("receiptFile", "receipt.pdf", "application/pdf",
+                duplicateContent));
+    }
+}
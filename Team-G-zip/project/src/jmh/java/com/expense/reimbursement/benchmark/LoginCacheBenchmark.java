@@ -0,0 +1,90 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.ExpenseReimbursementApplication;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Successful logins (POST /login through the security filter chain) with the employee
+ * caches on ({@code cacheType=caffeine}) and off ({@code none}); the sample-time mode
+ * reports p99. BCrypt runs at the lowest cost by default so the lookup is not lost in
+ * the hash; pass {@code -p bcryptStrength=10} for the production cost.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoginCacheBenchmark {
+    
+    @Param({"caffeine", "none"})
+    public String cacheType;
+    
+    @Param("4")
+    public int bcryptStrength;
+    
+    @Param("1000")
+    public int employees;
+    
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(ExpenseReimbursementApplication.class)
+                .profiles("benchmark")
+                .properties("spring.cache.type=" + cacheType, "expense.security.bcrypt-strength=" + bcryptStrength)
+                .run();
+        new BenchmarkDataSeeder(context).seed(employees, 1, 0);
+        WebApplicationContext web = (WebApplicationContext) context;
+        mockMvc = MockMvcBuilders.webAppContextSetup(web)
+                .addFilters(web.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+        
+        // Fail fast rather than timing the login page re-rendered with an error
+        String location = login().getRedirectedUrl();
+        if (location == null || !location.endsWith("/dashboard")) {
+            throw new IllegalStateException("Benchmark login failed: " + location);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public MockHttpServletResponse login() throws Exception {
+        String email = "employee" + ThreadLocalRandom.current().nextInt(employees) + "@bench.local";
+        return mockMvc.perform(post("/login")
+                        .param("email", email)
+                        .param("password", BenchmarkDataSeeder.PASSWORD))
+                .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,110 @@
+package com.expense.reimbursement.benchmark;
+
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Legitimate logins alone ({@code baseline}) and alongside ten times as many
+ * wrong-password attempts ({@code underAttack}), at the configured BCrypt cost. Compare
+ * the p99 of the {@code legitimateLogin} rows. The benchmark profile lifts the rate
+ * limits, so what keeps that p99 bounded is the password verification pool: attempts
+ * beyond its queue get a fast 429. The legitimate thread counts its successful and
+ * throttled logins.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginUnderAttackBenchmark {
+    
+    private MockMvc mockMvc;
+    private int employees;
+    
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Outcomes {
+        public long loggedIn;
+        public long throttled;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            loggedIn = 0;
+            throttled = 0;
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkState state) {
+        WebApplicationContext context = (WebApplicationContext) state.context;
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+        employees = state.employees;
+    }
+    
+    @Benchmark
+    @Group("baseline")
+    @GroupThreads(2)
+    public MockHttpServletResponse legitimateLoginAlone(Outcomes outcomes) throws Exception {
+        return legitimateLogin(outcomes);
+    }
+    
+    @Benchmark
+    @Group("underAttack")
+    @GroupThreads(2)
+    public MockHttpServletResponse legitimateLogin(Outcomes outcomes) throws Exception {
+        MockHttpServletResponse response = login(BenchmarkDataSeeder.PASSWORD);
+        if (response.getStatus() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            outcomes.throttled++;
+        } else if (response.getRedirectedUrl() != null) {
+            outcomes.loggedIn++;
+        }
+        return response;
+    }
+    
+    @Benchmark
+    @Group("underAttack")
+    @GroupThreads(20)
+    public MockHttpServletResponse wrongPassword() throws Exception {
+        return login("wrong-" + ThreadLocalRandom.current().nextInt());
+    }
+    
+    private MockHttpServletResponse login(String password) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String email = "employee" + random.nextInt(employees) + "@bench.local";
+        String remoteAddr = "10.0." + random.nextInt(256) + "." + random.nextInt(256);
+        return mockMvc.perform(post("/login")
+                        .param("email", email)
+                        .param("password", password)
+                        .with(request -> {
+                            request.setRemoteAddr(remoteAddr);
+                            return request;
+                        }))
+                .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,112 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.ExpenseReimbursementApplication;
+import com.expense.reimbursement.dto.DecisionOutcome;
+import com.expense.reimbursement.dto.ExpenseNotification;
+import com.expense.reimbursement.notification.NotificationSink;
+import com.expense.reimbursement.service.ExpenseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Approval latency with no notification sink, a fast one and one that takes
+ * {@code slowSinkMs} per notification. Delivery runs off the request, so the three
+ * should differ only by the outbox INSERT.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationLatencyBenchmark {
+    
+    @Param({"none", "fast", "slow"})
+    public String sink;
+    
+    @Param("500")
+    public long slowSinkMs;
+    
+    private ConfigurableApplicationContext context;
+    private ExpenseService expenseService;
+    private JdbcTemplate jdbc;
+    private long managerId;
+    private Timestamp seededAt;
+    private final ConcurrentLinkedQueue<Long> pendingIds = new ConcurrentLinkedQueue<>();
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        long delayMs = "slow".equals(sink) ? slowSinkMs : 0;
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ExpenseReimbursementApplication.class)
+                .profiles("benchmark");
+        if (!"none".equals(sink)) {
+            builder.initializers(ctx -> ctx.getBeanFactory().registerSingleton("benchmarkSink", new DelayedSink(delayMs)));
+        }
+        context = builder.run();
+        BenchmarkDataSeeder.Dataset dataset = new BenchmarkDataSeeder(context).seed(100, 100, 0);
+        expenseService = context.getBean(ExpenseService.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+        managerId = dataset.managerId();
+        seededAt = Timestamp.valueOf(dataset.seededAt());
+    }
+    
+    // Puts back what earlier iterations approved, as in ExpenseServiceBenchmark
+    @Setup(Level.Iteration)
+    public synchronized void refillPending() {
+        jdbc.update("INSERT INTO approval_inbox (approver_id, submitted_at, expense_id, approval_level) " +
+                    "SELECT ?, submitted_at, id, 1 FROM expenses WHERE approved_at > ?", managerId, seededAt);
+        jdbc.update("UPDATE expenses SET status = 'PENDING', approved_by = NULL, approved_at = NULL " +
+                    "WHERE approved_at > ?", seededAt);
+        pendingIds.clear();
+        pendingIds.addAll(jdbc.queryForList("SELECT expense_id FROM approval_inbox WHERE approver_id = ?",
+                Long.class, managerId));
+    }
+    
+    @Benchmark
+    public DecisionOutcome approve() {
+        Long id = pendingIds.poll();
+        if (id == null) {
+            refillPending();
+            id = pendingIds.poll();
+        }
+        return expenseService.approveExpense(id, managerId);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    private record DelayedSink(long delayMs) implements NotificationSink {
+        
+        @Override
+        public String name() {
+            return "benchmark";
+        }
+        
+        @Override
+        public void deliver(ExpenseNotification notification) throws InterruptedException {
+            if (delayMs > 0) {
+                Thread.sleep(delayMs);
+            }
+        }
+    }
+}
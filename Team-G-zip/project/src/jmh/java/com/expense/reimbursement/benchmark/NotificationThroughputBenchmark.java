@@ -0,0 +1,95 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.ExpenseReimbursementApplication;
+import com.expense.reimbursement.notification.NotificationSink;
+import com.expense.reimbursement.service.NotificationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains 100k queued notifications through the file sink: the dispatcher's own cost
+ * (claim, load, delete per batch) plus a cheap sink. Reported per notification.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(NotificationThroughputBenchmark.EVENTS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationThroughputBenchmark {
+    
+    static final int EVENTS = 100_000;
+    
+    @Param({"100", "500"})
+    public int batchSize;
+    
+    private ConfigurableApplicationContext context;
+    private NotificationService notificationService;
+    private NotificationSink fileSink;
+    private JdbcTemplate jdbc;
+    private Path output;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        output = Files.createTempFile("notifications-", ".jsonl");
+        context = new SpringApplicationBuilder(ExpenseReimbursementApplication.class)
+                .profiles("benchmark")
+                .properties("expense.notifications.file.path=" + output,
+                        "expense.notifications.batch-size=" + batchSize,
+                        // Drained by the benchmark only
+                        "expense.notifications.poll-ms=86400000")
+                .run();
+        new BenchmarkDataSeeder(context).seed(EVENTS / 100, 100, 0);
+        notificationService = context.getBean(NotificationService.class);
+        fileSink = notificationService.getSinks().stream()
+                .filter(sink -> sink.name().equals("file"))
+                .findFirst().orElseThrow();
+        jdbc = context.getBean(JdbcTemplate.class);
+    }
+    
+    @Setup(Level.Iteration)
+    public void queueEvents() throws Exception {
+        Files.write(output, new byte[0]);
+        jdbc.update("INSERT INTO notification_outbox (sink, event_type, expense_id, employee_id, employee_name, " +
+                    "employee_email, description, category, amount, actor_id, occurred_at, status, attempts, " +
+                    "next_attempt_at) " +
+                    "SELECT 'file', 'SUBMITTED', e.id, s.id, s.name, s.email, e.description, e.category, e.amount, " +
+                    "s.id, e.submitted_at, 'PENDING', 0, e.submitted_at " +
+                    "FROM expenses e JOIN employees s ON s.id = e.employee_id ORDER BY e.id LIMIT " + EVENTS);
+    }
+    
+    @Benchmark
+    public int drain() {
+        int delivered = notificationService.drain(fileSink);
+        if (delivered != EVENTS) {
+            throw new IllegalStateException("Delivered " + delivered + " of " + EVENTS);
+        }
+        return delivered;
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+        Files.deleteIfExists(output);
+    }
+}
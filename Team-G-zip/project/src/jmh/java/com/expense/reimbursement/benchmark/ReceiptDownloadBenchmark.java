@@ -0,0 +1,116 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.service.FileUploadService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent downloads of one large PDF receipt over real HTTP from the embedded server,
+ * as a signed-in manager: whole files, and 1 MB range requests as a viewer paging through
+ * it does. The bytes counter over the time gives the transfer rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class ReceiptDownloadBenchmark {
+    
+    private static final long RANGE = 1L << 20;
+    
+    @Param("20971520")
+    public int fileSize;
+    
+    private HttpClient client;
+    private HttpRequest whole;
+    private String receiptUrl;
+    private String cookie;
+    
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Transferred {
+        public long bytes;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkState state) throws Exception {
+        byte[] content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+        String key = state.bean(FileUploadService.class).uploadFile(
+                new MockMultipartFile("receiptFile", "large.pdf", "application/pdf", content));
+        JdbcTemplate jdbc = state.bean(JdbcTemplate.class);
+        long expenseId = jdbc.queryForObject("SELECT MIN(id) FROM expenses", Long.class);
+        jdbc.update("UPDATE expenses SET receipt_file_path = ?, receipt_file_name = 'large.pdf' WHERE id = ?",
+                key, expenseId);
+        
+        String baseUrl = "http://localhost:" + state.context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        cookie = DashboardLoadTest.login(client, baseUrl, BenchmarkDataSeeder.MANAGER_EMAIL, BenchmarkDataSeeder.PASSWORD);
+        receiptUrl = baseUrl + "/manager/expense/" + expenseId + "/receipt";
+        whole = request().build();
+        
+        // Fail fast rather than timing redirects or errors
+        HttpResponse<Void> response = client.send(whole, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Receipt download returned " + response.statusCode());
+        }
+    }
+    
+    @Benchmark
+    public int wholeFile(Transferred transferred) throws Exception {
+        return send(whole, transferred);
+    }
+    
+    @Benchmark
+    public int rangePage(Transferred transferred) throws Exception {
+        long start = ThreadLocalRandom.current().nextLong(fileSize / RANGE) * RANGE;
+        return send(request().header("Range", "bytes=" + start + "-" + (start + RANGE - 1)).build(), transferred);
+    }
+    
+    private HttpRequest.Builder request() {
+        return HttpRequest.newBuilder(URI.create(receiptUrl))
+                .header("Cookie", cookie)
+                .timeout(Duration.ofSeconds(60))
+                .GET();
+    }
+    
+    private int send(HttpRequest request, Transferred transferred) throws Exception {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        transferred.bytes += response.body().length;
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,134 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.service.FileUploadService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * {@code uploads} receipt uploads from {@code threads} threads, {@code duplicatePercent}
+ * of them re-uploads of content sent earlier in the same run. The time is for the whole
+ * run (divide {@code uploads} by it for throughput); the counters give the bytes
+ * uploaded and the bytes the upload directory grew by, per run. Every run uses fresh
+ * content, so its duplicates only match within the run.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReceiptIngestBenchmark {
+    
+    @Param("10000")
+    public int uploads;
+    
+    @Param("30")
+    public int duplicatePercent;
+    
+    @Param("65536")
+    public int fileSize;
+    
+    @Param("8")
+    public int threads;
+    
+    private FileUploadService fileUploadService;
+    private Path uploadDir;
+    private final AtomicLong runs = new AtomicLong();
+    
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class DiskUsage {
+        public long uploadedBytes;
+        public long storedBytes;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            uploadedBytes = 0;
+            storedBytes = 0;
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkState state) {
+        fileUploadService = state.bean(FileUploadService.class);
+        uploadDir = Paths.get(state.context.getEnvironment().getProperty("file.upload-dir")).toAbsolutePath();
+    }
+    
+    @Benchmark
+    public int uploadAll(DiskUsage usage) throws Exception {
+        // Content i is unique for the run; a duplicate repeats one of the uniques before it
+        long run = runs.incrementAndGet();
+        Random random = new Random(run);
+        long[] contentIds = new long[uploads];
+        int unique = 0;
+        for (int i = 0; i < uploads; i++) {
+            boolean duplicate = unique > 0 && random.nextInt(100) < duplicatePercent;
+            contentIds[i] = duplicate ? random.nextInt(unique) : unique++;
+        }
+        
+        long before = directorySize();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>(uploads);
+            for (long contentId : contentIds) {
+                byte[] content = content(run, contentId);
+                results.add(pool.submit(() -> fileUploadService.uploadFile(
+                        new MockMultipartFile("receiptFile", "receipt.pdf", "application/pdf", content))));
+            }
+            for (Future<String> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        usage.uploadedBytes = (long) uploads * fileSize;
+        usage.storedBytes = directorySize() - before;
+        return uploads;
+    }
+    
+    private byte[] content(long run, long contentId) {
+        byte[] content = new byte[fileSize];
+        new Random(run * 1_000_003L + contentId).nextBytes(content);
+        ByteBuffer.wrap(content).putLong(run).putLong(contentId);
+        return content;
+    }
+    
+    private long directorySize() throws IOException {
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> {
+                try {
+                    return Files.size(file);
+                } catch (IOException e) {
+                    return 0;
+                }
+            }).sum();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.model.Employee;
+import com.expense.reimbursement.repository.EmployeeRepository;
+import com.expense.reimbursement.security.EmployeePrincipal;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bytes per session for what login stores: the security context holding an
+ * EmployeePrincipal, against the Employee entity the session used to hold as
+ * "loggedInUser". Each invocation keeps {@code sessions} sessions alive and reports the
+ * heap they retain (used heap after GC, before and after) as the heapBytesPerSession
+ * counter, plus the serialized size the JDBC session store writes for the principal.
+ * The entity is not Serializable, so it has no serialized size. The time reported is
+ * only the cost of building the sessions.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseSerialGC")
+@State(Scope.Benchmark)
+public class SessionSizeBenchmark {
+    
+    @Param("5000")
+    public int sessions;
+    
+    private EmployeeRepository employeeRepository;
+    private long[] employeeIds;
+    
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class SessionBytes {
+        public long heapBytesPerSession;
+        public long serializedBytesPerSession;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            heapBytesPerSession = 0;
+            serializedBytesPerSession = 0;
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkState state) {
+        employeeRepository = state.bean(EmployeeRepository.class);
+        employeeIds = state.dataset.employeeIds();
+    }
+    
+    @Benchmark
+    public int principalSession(SessionBytes bytes) throws IOException {
+        long before = usedHeapAfterGc();
+        List<MockHttpSession> held = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            EmployeePrincipal principal = EmployeePrincipal.of(loadEmployee(i));
+            UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                    principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole().name())));
+            MockHttpSession session = new MockHttpSession();
+            session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                    new SecurityContextImpl(authentication));
+            held.add(session);
+        }
+        bytes.heapBytesPerSession = (usedHeapAfterGc() - before) / sessions;
+        bytes.serializedBytesPerSession = serializedSize(
+                held.get(0).getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY));
+        Reference.reachabilityFence(held);
+        return held.size();
+    }
+    
+    @Benchmark
+    public int entitySession(SessionBytes bytes) {
+        long before = usedHeapAfterGc();
+        List<MockHttpSession> held = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            MockHttpSession session = new MockHttpSession();
+            session.setAttribute("loggedInUser", loadEmployee(i));
+            held.add(session);
+        }
+        bytes.heapBytesPerSession = (usedHeapAfterGc() - before) / sessions;
+        Reference.reachabilityFence(held);
+        return held.size();
+    }
+    
+    // A fresh instance per session, as each login loaded its own
+    private Employee loadEmployee(int i) {
+        return employeeRepository.findById(employeeIds[i % employeeIds.length]).orElseThrow();
+    }
+    
+    private static long serializedSize(Object attribute) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+            out.writeObject(attribute);
+        }
+        return buffer.size();
+    }
+    
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,71 @@
+package com.expense.reimbursement.benchmark;
+
+import com.expense.reimbursement.dto.SpendTotal;
+import com.expense.reimbursement.service.SpendReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The spend report read from the monthly rollup against the same report computed with
+ * a GROUP BY over expenses, for the last {@code months} months across all departments
+ * and for one department. The seeder rebuilds the rollup, so both sides see the same
+ * totals. Grow the dataset with BenchmarkState params to see the gap widen.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpendReportBenchmark {
+    
+    @Param({"3", "12"})
+    public int months;
+    
+    private SpendReportService spendReportService;
+    private YearMonth from;
+    private YearMonth to;
+    private String department;
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkState state) {
+        spendReportService = state.bean(SpendReportService.class);
+        to = YearMonth.now();
+        from = to.minusMonths(months - 1);
+        department = BenchmarkDataSeeder.DEPARTMENTS[0];
+    }
+    
+    @Benchmark
+    public List<SpendTotal> rollup() {
+        return spendReportService.getReport(from, to, null, null, null);
+    }
+    
+    @Benchmark
+    public List<SpendTotal> liveGroupBy() {
+        return spendReportService.getLiveReport(from, to, null, null, null);
+    }
+    
+    @Benchmark
+    public List<SpendTotal> rollupDepartment() {
+        return spendReportService.getReport(from, to, department, null, null);
+    }
+    
+    @Benchmark
+    public List<SpendTotal> liveGroupByDepartment() {
+        return spendReportService.getLiveReport(from, to, department, null, null);
+    }
+}
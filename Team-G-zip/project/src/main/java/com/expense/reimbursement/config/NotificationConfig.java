@@ -0,0 +1,47 @@
+package com.expense.reimbursement.config;
+
+import com.expense.reimbursement.notification.EmailNotificationSink;
+import com.expense.reimbursement.notification.FileNotificationSink;
+import com.expense.reimbursement.notification.NotificationSink;
+import com.expense.reimbursement.notification.WebhookNotificationSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Notification sinks, each switched on by its own property. With none configured,
+ * nothing is written to the outbox.
+ */
+@Configuration
+public class NotificationConfig {
+    
+    @Bean
+    @ConditionalOnProperty(name = "expense.notifications.email.enabled", havingValue = "true")
+    public NotificationSink emailNotificationSink(JavaMailSender mailSender,
+                                                  @Value("${expense.notifications.email.from}") String from) {
+        return new EmailNotificationSink(mailSender, from);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "expense.notifications.webhook.url")
+    public NotificationSink webhookNotificationSink(@Value("${expense.notifications.webhook.url}") String url,
+                                                    @Value("${expense.notifications.webhook.timeout-ms:5000}") long timeoutMs,
+                                                    ObjectMapper objectMapper) {
+        return new WebhookNotificationSink(URI.create(url), Duration.ofMillis(timeoutMs), objectMapper);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "expense.notifications.file.path")
+    public NotificationSink fileNotificationSink(@Value("${expense.notifications.file.path}") String path,
+                                                 ObjectMapper objectMapper) throws IOException {
+        return new FileNotificationSink(Paths.get(path), objectMapper);
+    }
+}
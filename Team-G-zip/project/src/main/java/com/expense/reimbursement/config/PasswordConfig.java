@@ -0,0 +1,27 @@
+package com.expense.reimbursement.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+@Configuration
+public class PasswordConfig {
+
+    /**
+     * New hashes are written as {bcrypt} at the configured strength. Hashes stored before
+     * the prefix existed are plain BCrypt and still match; EmployeeService re-encodes them
+     * (and any hash below the current strength) on the next successful login.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${expense.security.bcrypt-strength:10}") int strength) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(strength)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(strength));
+        return encoder;
+    }
+}
@@ -0,0 +1,68 @@
+package com.expense.reimbursement.config;
+
+import com.expense.reimbursement.storage.DiskLruCache;
+import com.expense.reimbursement.storage.LocalReceiptStore;
+import com.expense.reimbursement.storage.ReceiptStore;
+import com.expense.reimbursement.storage.S3ReceiptStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+
+/**
+ * Picks the receipt store from {@code expense.receipts.store}: {@code local} (default)
+ * keeps files under file.upload-dir, {@code s3} uses a bucket on any S3-compatible
+ * endpoint with a local LRU cache in front.
+ */
+@Configuration
+public class ReceiptStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "expense.receipts.store", havingValue = "local", matchIfMissing = true)
+    public ReceiptStore localReceiptStore(@Value("${file.upload-dir}") String uploadDir) {
+        return new LocalReceiptStore(Paths.get(uploadDir));
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "expense.receipts.store", havingValue = "s3")
+    public S3Client receiptS3Client(@Value("${expense.receipts.s3.endpoint:}") String endpoint,
+                                    @Value("${expense.receipts.s3.region:us-east-1}") String region,
+                                    @Value("${expense.receipts.s3.access-key:}") String accessKey,
+                                    @Value("${expense.receipts.s3.secret-key:}") String secretKey,
+                                    @Value("${expense.receipts.s3.path-style:false}") boolean pathStyle) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .forcePathStyle(pathStyle);
+        if (StringUtils.hasText(endpoint)) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        builder.credentialsProvider(StringUtils.hasText(accessKey)
+                ? StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey))
+                : DefaultCredentialsProvider.create());
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "expense.receipts.store", havingValue = "s3")
+    public ReceiptStore s3ReceiptStore(S3Client receiptS3Client,
+                                       @Value("${expense.receipts.s3.bucket}") String bucket,
+                                       @Value("${expense.receipts.s3.prefix:}") String prefix,
+                                       @Value("${expense.receipts.s3.part-size-mb:8}") long partSizeMb,
+                                       @Value("${expense.receipts.cache.dir:cache/receipts}") String cacheDir,
+                                       @Value("${expense.receipts.cache.max-size-mb:1024}") long cacheMaxMb)
+            throws IOException {
+        DiskLruCache cache = new DiskLruCache(Paths.get(cacheDir), cacheMaxMb * 1024 * 1024);
+        return new S3ReceiptStore(receiptS3Client, bucket, prefix, partSizeMb * 1024 * 1024, cache);
+    }
+}
@@ -0,0 +1,16 @@
+package com.expense.reimbursement.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHttpSession;
+
+/**
+ * Session storage is the servlet container's in-memory store unless
+ * expense.session.store=jdbc, which keeps sessions in the SPRING_SESSION tables
+ * so any node can serve any request.
+ */
+@Configuration
+@ConditionalOnProperty(name = "expense.session.store", havingValue = "jdbc")
+@EnableJdbcHttpSession
+public class SessionConfig {
+}
@@ -0,0 +1,26 @@
+package com.expense.reimbursement.config;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named daemon threads for the app's own pools: virtual when
+ * {@code spring.threads.virtual.enabled} is on, platform otherwise. Pools keep their
+ * size limits either way; those bound work on the database or the CPU, not threads.
+ */
+public final class ThreadFactories {
+    
+    private ThreadFactories() {}
+    
+    public static ThreadFactory named(String prefix, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(prefix + "-", 1).factory();
+        }
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
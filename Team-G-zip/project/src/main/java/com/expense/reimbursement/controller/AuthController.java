@@ -1,15 +1,28 @@
 package com.expense.reimbursement.controller;
 
 import com.expense.reimbursement.model.Employee;
+import com.expense.reimbursement.security.EmployeePrincipal;
+import com.expense.reimbursement.security.LoginRateLimiter;
+import com.expense.reimbursement.security.LoginThrottledException;
 import com.expense.reimbursement.service.EmployeeService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Optional;
 
 @Controller
@@ -18,6 +31,12 @@ public class AuthController {
     @Autowired
     private EmployeeService employeeService;
     
+    @Autowired
+    private SecurityContextRepository securityContextRepository;
+    
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+    
     @GetMapping("/")
     public String index() {
         return "redirect:/login";
@@ -31,22 +50,32 @@ public class AuthController {
     
     @PostMapping("/login")
     public String login(@RequestParam String email, @RequestParam String password, 
-                       HttpSession session, Model model) {
-        Optional<Employee> employeeOpt = employeeService.getEmployeeByEmail(email);
-        
-        if (employeeOpt.isPresent()) {
-            Employee employee = employeeOpt.get();
-            if (employeeService.validatePassword(password, employee.getPassword())) {
-                session.setAttribute("loggedInUser", employee);
-                if (employee.getRole() == Employee.Role.MANAGER) {
-                    return "redirect:/manager/dashboard";
-                } else {
-                    return "redirect:/employee/dashboard";
+                       HttpServletRequest request, HttpServletResponse response, Model model) {
+        try {
+            loginRateLimiter.acquire(email, request.getRemoteAddr());
+            Optional<Employee> employeeOpt = employeeService.getEmployeeByEmail(email);
+            
+            if (employeeOpt.isPresent()) {
+                Employee employee = employeeOpt.get();
+                if (employeeService.validatePassword(password, employee.getPassword())) {
+                    employeeService.upgradePasswordHashIfNeeded(employee, password);
+                    EmployeePrincipal principal = EmployeePrincipal.of(employee);
+                    signIn(principal, request, response);
+                    if (principal.isApprover()) {
+                        return "redirect:/manager/dashboard";
+                    } else {
+                        return "redirect:/employee/dashboard";
+                    }
                 }
             }
+            
+            model.addAttribute("error", "Invalid email or password");
+        } catch (LoginThrottledException e) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "60");
+            model.addAttribute("error", "Too many login attempts. Please wait a minute and try again.");
         }
         
-        model.addAttribute("error", "Invalid email or password");
         model.addAttribute("employee", new Employee());
         return "login";
     }
@@ -76,7 +105,20 @@ public class AuthController {
     
     @GetMapping("/logout")
     public String logout(HttpSession session) {
+        SecurityContextHolder.clearContext();
         session.invalidate();
         return "redirect:/login";
     }
+    
+    private void signIn(EmployeePrincipal principal, HttpServletRequest request, HttpServletResponse response) {
+        UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole().name())));
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+        
+        request.getSession();
+        request.changeSessionId();
+        securityContextRepository.saveContext(context, request, response);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.expense.reimbursement.controller;
+
+import com.expense.reimbursement.security.EmployeePrincipal;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ModelAttribute;
+
+@ControllerAdvice
+public class CurrentUserAdvice {
+    
+    // Exposes the logged-in principal to every template as ${currentUser}
+    @ModelAttribute("currentUser")
+    public EmployeePrincipal currentUser(@AuthenticationPrincipal EmployeePrincipal principal) {
+        return principal;
+    }
+}
@@ -1,12 +1,15 @@
 package com.expense.reimbursement.controller;
 
-import com.expense.reimbursement.model.Employee;
 import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.security.EmployeePrincipal;
 import com.expense.reimbursement.service.ExpenseService;
 import com.expense.reimbursement.service.FileUploadService;
-import jakarta.servlet.http.HttpSession;
+import com.expense.reimbursement.service.ReceiptDownloadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -15,6 +18,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/employee")
@@ -23,43 +27,36 @@ public class EmployeeController {
     @Autowired
     private ExpenseService expenseService;
     
+    @Autowired
+    private ReceiptDownloadService receiptDownloadService;
+    
     @Autowired
     private FileUploadService fileUploadService;
     
     @GetMapping("/dashboard")
-    public String dashboard(HttpSession session, Model model) {
-        Employee employee = (Employee) session.getAttribute("loggedInUser");
+    public String dashboard(@RequestParam(defaultValue = "false") boolean history,
+                            @AuthenticationPrincipal EmployeePrincipal employee, Model model) {
         if (employee == null) {
             return "redirect:/login";
         }
 
-        List<Expense> expenses = expenseService.getExpensesByEmployee(employee);
-
-        long approvedCount = expenses.stream()
-                .filter(e -> e.getStatus() == Expense.Status.APPROVED)
-                .count();
-
-        long rejectedCount = expenses.stream()
-                .filter(e -> e.getStatus() == Expense.Status.REJECTED)
-                .count();
-
-        long pendingCount = expenses.stream()
-                .filter(e -> e.getStatus() == Expense.Status.PENDING)
-                .count();
+        List<Expense> expenses = expenseService.getExpensesByEmployee(employee.getId(), history);
+        Map<Expense.Status, Long> counts = expenseService.getStatusCountsByEmployee(employee.getId());
 
         model.addAttribute("employee", employee);
         model.addAttribute("expenses", expenses);
-        model.addAttribute("approvedCount", approvedCount);
-        model.addAttribute("rejectedCount", rejectedCount);
-        model.addAttribute("pendingCount", pendingCount);
+        model.addAttribute("history", history);
+        model.addAttribute("totalCount", counts.values().stream().mapToLong(Long::longValue).sum());
+        model.addAttribute("approvedCount", counts.get(Expense.Status.APPROVED));
+        model.addAttribute("rejectedCount", counts.get(Expense.Status.REJECTED));
+        model.addAttribute("pendingCount", counts.get(Expense.Status.PENDING));
 
         return "employee/dashboard";
     }
 
     
     @GetMapping("/expense/new")
-    public String newExpenseForm(HttpSession session, Model model) {
-        Employee employee = (Employee) session.getAttribute("loggedInUser");
+    public String newExpenseForm(@AuthenticationPrincipal EmployeePrincipal employee, Model model) {
         if (employee == null) {
             return "redirect:/login";
         }
@@ -72,8 +69,7 @@ public class EmployeeController {
     @PostMapping("/expense/new")
     public String submitExpense(@Valid @ModelAttribute Expense expense, BindingResult result,
                                @RequestParam("receiptFile") MultipartFile receiptFile,
-                               HttpSession session, Model model) {
-        Employee employee = (Employee) session.getAttribute("loggedInUser");
+                               @AuthenticationPrincipal EmployeePrincipal employee, Model model) {
         if (employee == null) {
             return "redirect:/login";
         }
@@ -85,14 +81,22 @@ public class EmployeeController {
         
         try {
             // Handle file upload
+            String filename = null;
             if (!receiptFile.isEmpty()) {
-                String filename = fileUploadService.uploadFile(receiptFile);
+                filename = fileUploadService.uploadFile(receiptFile);
                 expense.setReceiptFileName(receiptFile.getOriginalFilename());
                 expense.setReceiptFilePath(filename);
             }
             
-            expense.setEmployee(employee);
-            expenseService.saveExpense(expense);
+            try {
+                expenseService.submitExpense(expense, employee.getId());
+            } catch (RuntimeException e) {
+                // The upload committed its receipt reference; no expense holds it now
+                if (filename != null) {
+                    fileUploadService.deleteFile(filename);
+                }
+                throw e;
+            }
             
             return "redirect:/employee/dashboard?success=true";
         } catch (IOException e) {
@@ -103,8 +107,7 @@ public class EmployeeController {
     }
     
     @GetMapping("/expense/{id}")
-    public String viewExpense(@PathVariable Long id, HttpSession session, Model model) {
-        Employee employee = (Employee) session.getAttribute("loggedInUser");
+    public String viewExpense(@PathVariable Long id, @AuthenticationPrincipal EmployeePrincipal employee, Model model) {
         if (employee == null) {
             return "redirect:/login";
         }
@@ -117,4 +120,40 @@ public class EmployeeController {
         model.addAttribute("expense", expense);
         return "employee/expense-detail";
     }
+    
+    @GetMapping("/expense/{id}/receipt")
+    public void downloadReceipt(@PathVariable Long id, @AuthenticationPrincipal EmployeePrincipal employee,
+                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (employee == null) {
+            response.sendRedirect("/login");
+            return;
+        }
+        
+        Expense expense = expenseService.getExpenseById(id).orElse(null);
+        if (expense == null || !expense.getEmployee().getId().equals(employee.getId())
+                || expense.getReceiptFilePath() == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        
+        receiptDownloadService.serve(expense.getReceiptFilePath(), expense.getReceiptFileName(), request, response);
+    }
+    
+    @GetMapping("/expense/{id}/thumbnail")
+    public void downloadThumbnail(@PathVariable Long id, @AuthenticationPrincipal EmployeePrincipal employee,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (employee == null) {
+            response.sendRedirect("/login");
+            return;
+        }
+        
+        Expense expense = expenseService.getExpenseById(id).orElse(null);
+        if (expense == null || !expense.getEmployee().getId().equals(employee.getId())
+                || expense.getThumbnailStatus() != Expense.ThumbnailStatus.READY) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        
+        receiptDownloadService.serve(expense.getThumbnailPath(), "thumbnail.jpg", request, response);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.expense.reimbursement.controller;
+
+import com.expense.reimbursement.model.Employee;
+import com.expense.reimbursement.model.ExpenseImport;
+import com.expense.reimbursement.security.EmployeePrincipal;
+import com.expense.reimbursement.service.ExpenseImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Bulk import of card-statement files, for admins. The file is the raw request body
+ * (text/csv or application/x-ndjson, told apart by {@code fileName}), so large statements
+ * stream to disk without the multipart size limit.
+ */
+@Controller
+@RequestMapping("/manager/expenses/imports")
+public class ImportController {
+    
+    @Autowired
+    private ExpenseImportService expenseImportService;
+    
+    @PostMapping
+    @ResponseBody
+    public ResponseEntity<ExpenseImport> submit(@RequestParam(defaultValue = "statement.csv") String fileName,
+                                                HttpServletRequest request,
+                                                @AuthenticationPrincipal EmployeePrincipal employee) throws IOException {
+        if (employee == null || employee.getRole() != Employee.Role.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
+        try {
+            ExpenseImport job = expenseImportService.submit(request.getInputStream(), fileName, employee.getId());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/manager/expenses/imports/" + job.getId()))
+                    .body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "60")
+                    .build();
+        }
+    }
+    
+    @GetMapping("/{id}")
+    @ResponseBody
+    public ResponseEntity<ExpenseImport> status(@PathVariable Long id,
+                                                @AuthenticationPrincipal EmployeePrincipal employee) {
+        if (employee == null || employee.getRole() != Employee.Role.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.of(expenseImportService.getImport(id));
+    }
+    
+    @GetMapping("/{id}/errors")
+    public ResponseEntity<Resource> errors(@PathVariable Long id,
+                                           @AuthenticationPrincipal EmployeePrincipal employee) {
+        if (employee == null || employee.getRole() != Employee.Role.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return expenseImportService.getImport(id)
+                .flatMap(expenseImportService::getErrorReport)
+                .map(report -> ResponseEntity.ok()
+                        .contentType(new MediaType("text", "csv"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-" + id + "-errors.csv\"")
+                        .<Resource>body(new FileSystemResource(report)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
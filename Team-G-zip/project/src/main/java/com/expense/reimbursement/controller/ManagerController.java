@@ -1,15 +1,35 @@
 package com.expense.reimbursement.controller;
 
-import com.expense.reimbursement.model.Employee;
+import com.expense.reimbursement.dto.BulkDecisionResult;
+import com.expense.reimbursement.dto.DecisionOutcome;
+import com.expense.reimbursement.dto.ExpenseExportFilter;
+import com.expense.reimbursement.dto.ExpensePage;
 import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.security.EmployeePrincipal;
+import com.expense.reimbursement.service.ApprovalWorkflowService;
+import com.expense.reimbursement.service.ExpenseEventService;
+import com.expense.reimbursement.service.ExpenseExportService;
 import com.expense.reimbursement.service.ExpenseService;
-import jakarta.servlet.http.HttpSession;
+import com.expense.reimbursement.service.ReceiptDownloadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/manager")
@@ -18,38 +38,123 @@ public class ManagerController {
     @Autowired
     private ExpenseService expenseService;
     
+    @Autowired
+    private ReceiptDownloadService receiptDownloadService;
+    
+    @Autowired
+    private ExpenseExportService expenseExportService;
+    
+    @Autowired
+    private ExpenseEventService expenseEventService;
+    
+    @Autowired
+    private ApprovalWorkflowService approvalWorkflowService;
+    
     @GetMapping("/dashboard")
-    public String dashboard(HttpSession session, Model model) {
-        Employee employee = (Employee) session.getAttribute("loggedInUser");
-        if (employee == null || employee.getRole() != Employee.Role.MANAGER) {
+    public String dashboard(@RequestParam(required = false) String pendingAfter,
+                            @RequestParam(required = false) String pendingBefore,
+                            @RequestParam(required = false) String after,
+                            @RequestParam(required = false) String before,
+                            @RequestParam(defaultValue = "pending") String tab,
+                            @RequestParam(defaultValue = "false") boolean history,
+                            @AuthenticationPrincipal EmployeePrincipal employee, Model model) {
+        if (employee == null || !employee.isApprover()) {
             return "redirect:/login";
         }
 
-        List<Expense> pendingExpenses = expenseService.getPendingExpenses();
-        List<Expense> allExpenses = expenseService.getAllExpenses();
-
-        long approvedCount = allExpenses.stream()
-                .filter(e -> e.getStatus() == Expense.Status.APPROVED)
-                .count();
+        // Taken before the reads; the page's event stream starts from here
+        long eventsSince = expenseEventService.getLastEventId();
+        ExpensePage<Expense> pendingExpenses = expenseService.getInboxPage(employee.getId(), pendingAfter, pendingBefore);
+        ExpensePage<Expense> allExpenses = expenseService.getExpensesPage(after, before, history);
 
-        long rejectedCount = allExpenses.stream()
-                .filter(e -> e.getStatus() == Expense.Status.REJECTED)
-                .count();
+        Map<Expense.Status, Long> counts = expenseService.getStatusCounts();
 
         model.addAttribute("employee", employee);
+        model.addAttribute("activeTab", "all".equals(tab) ? "all" : "pending");
         model.addAttribute("pendingExpenses", pendingExpenses);
         model.addAttribute("allExpenses", allExpenses);
-        model.addAttribute("approvedCount", approvedCount);
-        model.addAttribute("rejectedCount", rejectedCount);
+        model.addAttribute("history", history);
+        model.addAttribute("totalCount", counts.values().stream().mapToLong(Long::longValue).sum());
+        model.addAttribute("pendingCount", counts.get(Expense.Status.PENDING));
+        model.addAttribute("approvedCount", counts.get(Expense.Status.APPROVED));
+        model.addAttribute("rejectedCount", counts.get(Expense.Status.REJECTED));
+        model.addAttribute("inboxCount", approvalWorkflowService.countInbox(employee.getId()));
+        model.addAttribute("eventsSince", eventsSince);
+        model.addAttribute("livePending", pendingAfter == null && pendingBefore == null);
 
         return "manager/dashboard";
     }
-
+    
+    /**
+     * Live inbox changes for the dashboard. Browsers resume with the
+     * Last-Event-ID header on reconnect; the first connect passes {@code since}.
+     */
+    @GetMapping(value = "/expenses/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> expenseEvents(@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+                                                    @RequestParam(required = false) Long since,
+                                                    @AuthenticationPrincipal EmployeePrincipal employee) {
+        if (employee == null || !employee.isApprover()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
+        return expenseEventService.subscribe(employee.getId(), lastEventId != null ? lastEventId : since)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "30")
+                        .build());
+    }
+    
+    /**
+     * JSON form of the approve/reject actions, used by the dashboard so a decision does
+     * not reload the page; the row and counts then update from the event stream.
+     */
+    @PostMapping("/expenses/decide")
+    @ResponseBody
+    public ResponseEntity<BulkDecisionResult> decide(@RequestParam(name = "ids", required = false) List<Long> ids,
+                                                     @RequestParam String decision,
+                                                     @AuthenticationPrincipal EmployeePrincipal employee) {
+        if (employee == null || !employee.isApprover()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (ids == null || ids.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        Expense.Status status = "reject".equals(decision) ? Expense.Status.REJECTED : Expense.Status.APPROVED;
+        return ResponseEntity.ok(expenseService.decideExpenses(ids, status, employee.getId()));
+    }
+    
+    @GetMapping("/expenses/export")
+    public void exportExpenses(@RequestParam(defaultValue = "csv") String format,
+                               @RequestParam(required = false) Expense.Status status,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                               @RequestParam(required = false) Expense.Category category,
+                               @RequestParam(required = false) String department,
+                               @RequestParam(defaultValue = "false") boolean history,
+                               @AuthenticationPrincipal EmployeePrincipal employee, HttpServletResponse response) throws IOException {
+        if (employee == null || !employee.isApprover()) {
+            response.sendRedirect("/login");
+            return;
+        }
+        
+        ExpenseExportFilter filter = new ExpenseExportFilter(status, from, to, category,
+                department == null || department.isBlank() ? null : department, history);
+        if ("xlsx".equalsIgnoreCase(format)) {
+            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"expenses.xlsx\"");
+            expenseExportService.exportXlsx(filter, response.getOutputStream());
+        } else {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"expenses.csv\"");
+            expenseExportService.exportCsv(filter, response.getOutputStream());
+        }
+    }
     
     @GetMapping("/expense/{id}")
-    public String viewExpense(@PathVariable Long id, HttpSession session, Model model) {
-        Employee employee = (Employee) session.getAttribute("loggedInUser");
-        if (employee == null || employee.getRole() != Employee.Role.MANAGER) {
+    public String viewExpense(@PathVariable Long id, @AuthenticationPrincipal EmployeePrincipal employee, Model model) {
+        if (employee == null || !employee.isApprover()) {
             return "redirect:/login";
         }
         
@@ -63,24 +168,82 @@ public class ManagerController {
     }
     
     @PostMapping("/expense/{id}/approve")
-    public String approveExpense(@PathVariable Long id, HttpSession session) {
-        Employee employee = (Employee) session.getAttribute("loggedInUser");
-        if (employee == null || employee.getRole() != Employee.Role.MANAGER) {
+    public String approveExpense(@PathVariable Long id, @AuthenticationPrincipal EmployeePrincipal employee) {
+        if (employee == null || !employee.isApprover()) {
             return "redirect:/login";
         }
         
-        expenseService.approveExpense(id, employee);
+        DecisionOutcome outcome = expenseService.approveExpense(id, employee.getId());
+        if (outcome == DecisionOutcome.FORWARDED) {
+            return "redirect:/manager/dashboard?forwarded=true";
+        }
+        if (outcome != DecisionOutcome.DECIDED) {
+            return "redirect:/manager/dashboard?conflict=" + outcome.name();
+        }
         return "redirect:/manager/dashboard?approved=true";
     }
     
     @PostMapping("/expense/{id}/reject")
-    public String rejectExpense(@PathVariable Long id, HttpSession session) {
-        Employee employee = (Employee) session.getAttribute("loggedInUser");
-        if (employee == null || employee.getRole() != Employee.Role.MANAGER) {
+    public String rejectExpense(@PathVariable Long id, @AuthenticationPrincipal EmployeePrincipal employee) {
+        if (employee == null || !employee.isApprover()) {
             return "redirect:/login";
         }
         
-        expenseService.rejectExpense(id, employee);
+        DecisionOutcome outcome = expenseService.rejectExpense(id, employee.getId());
+        if (outcome != DecisionOutcome.DECIDED) {
+            return "redirect:/manager/dashboard?conflict=" + outcome.name();
+        }
         return "redirect:/manager/dashboard?rejected=true";
     }
+    
+    @PostMapping("/expenses/bulk")
+    public String decideExpenses(@RequestParam(name = "ids", required = false) List<Long> ids,
+                                 @RequestParam String decision,
+                                 @AuthenticationPrincipal EmployeePrincipal employee, RedirectAttributes redirectAttributes) {
+        if (employee == null || !employee.isApprover()) {
+            return "redirect:/login";
+        }
+        if (ids == null || ids.isEmpty()) {
+            return "redirect:/manager/dashboard";
+        }
+        
+        Expense.Status status = "reject".equals(decision) ? Expense.Status.REJECTED : Expense.Status.APPROVED;
+        BulkDecisionResult result = expenseService.decideExpenses(ids, status, employee.getId());
+        redirectAttributes.addFlashAttribute("bulkResult", result);
+        return "redirect:/manager/dashboard";
+    }
+    
+    @GetMapping("/expense/{id}/receipt")
+    public void downloadReceipt(@PathVariable Long id, @AuthenticationPrincipal EmployeePrincipal employee,
+                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (employee == null || !employee.isApprover()) {
+            response.sendRedirect("/login");
+            return;
+        }
+        
+        Expense expense = expenseService.getExpenseById(id).orElse(null);
+        if (expense == null || expense.getReceiptFilePath() == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        
+        receiptDownloadService.serve(expense.getReceiptFilePath(), expense.getReceiptFileName(), request, response);
+    }
+    
+    @GetMapping("/expense/{id}/thumbnail")
+    public void downloadThumbnail(@PathVariable Long id, @AuthenticationPrincipal EmployeePrincipal employee,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (employee == null || !employee.isApprover()) {
+            response.sendRedirect("/login");
+            return;
+        }
+        
+        Expense expense = expenseService.getExpenseById(id).orElse(null);
+        if (expense == null || expense.getThumbnailStatus() != Expense.ThumbnailStatus.READY) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        
+        receiptDownloadService.serve(expense.getThumbnailPath(), "thumbnail.jpg", request, response);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.expense.reimbursement.controller;
+
+import com.expense.reimbursement.dto.SpendTotal;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.security.EmployeePrincipal;
+import com.expense.reimbursement.service.SpendReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@Controller
+@RequestMapping("/manager/reports")
+public class ReportController {
+    
+    @Autowired
+    private SpendReportService spendReportService;
+    
+    @GetMapping
+    public String spendReport(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+                              @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+                              @RequestParam(required = false) String department,
+                              @RequestParam(required = false) Expense.Category category,
+                              @RequestParam(required = false) Expense.Status status,
+                              @AuthenticationPrincipal EmployeePrincipal employee, Model model) {
+        if (employee == null || !employee.isApprover()) {
+            return "redirect:/login";
+        }
+        
+        String departmentFilter = StringUtils.hasText(department) ? department : null;
+        List<SpendTotal> rows = spendReportService.getReport(from, to, departmentFilter, category, status);
+        
+        model.addAttribute("employee", employee);
+        model.addAttribute("rows", rows);
+        model.addAttribute("departmentTotals", SpendReportService.totalsByDepartment(rows));
+        model.addAttribute("totalCents", rows.stream().mapToLong(SpendTotal::amountCents).sum());
+        model.addAttribute("from", from);
+        model.addAttribute("to", to);
+        model.addAttribute("department", departmentFilter);
+        model.addAttribute("category", category);
+        model.addAttribute("status", status);
+        model.addAttribute("categories", Expense.Category.values());
+        model.addAttribute("statuses", Expense.Status.values());
+        return "manager/reports";
+    }
+    
+    /**
+     * JSON form of the report. {@code source=live} computes it from the expenses table
+     * instead of the rollup, for checking and timing the two against each other.
+     */
+    @GetMapping("/spend")
+    @ResponseBody
+    public ResponseEntity<List<SpendTotal>> spendTotals(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+                                                        @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+                                                        @RequestParam(required = false) String department,
+                                                        @RequestParam(required = false) Expense.Category category,
+                                                        @RequestParam(required = false) Expense.Status status,
+                                                        @RequestParam(defaultValue = "rollup") String source,
+                                                        @AuthenticationPrincipal EmployeePrincipal employee) {
+        if (employee == null || !employee.isApprover()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
+        String departmentFilter = StringUtils.hasText(department) ? department : null;
+        List<SpendTotal> rows = "live".equals(source)
+                ? spendReportService.getLiveReport(from, to, departmentFilter, category, status)
+                : spendReportService.getReport(from, to, departmentFilter, category, status);
+        return ResponseEntity.ok(rows);
+    }
+}
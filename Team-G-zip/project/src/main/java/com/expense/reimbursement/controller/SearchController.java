@@ -0,0 +1,59 @@
+package com.expense.reimbursement.controller;
+
+import com.expense.reimbursement.dto.ExpenseSearchQuery;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.security.EmployeePrincipal;
+import com.expense.reimbursement.service.ExpenseSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Controller
+@RequestMapping("/manager/search")
+public class SearchController {
+    
+    @Autowired
+    private ExpenseSearchService expenseSearchService;
+    
+    @GetMapping
+    public String search(@RequestParam(required = false) String q,
+                         @RequestParam(required = false) Expense.Category category,
+                         @RequestParam(required = false) Expense.Status status,
+                         @RequestParam(required = false) BigDecimal minAmount,
+                         @RequestParam(required = false) BigDecimal maxAmount,
+                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                         @RequestParam(defaultValue = "0") int page,
+                         @AuthenticationPrincipal EmployeePrincipal employee, Model model) throws IOException {
+        if (employee == null || !employee.isApprover()) {
+            return "redirect:/login";
+        }
+        
+        ExpenseSearchQuery query = new ExpenseSearchQuery(q, category, status, minAmount, maxAmount, from, to, page);
+        model.addAttribute("employee", employee);
+        model.addAttribute("query", query);
+        model.addAttribute("result", expenseSearchService.search(query));
+        model.addAttribute("reindexing", expenseSearchService.isReindexing());
+        model.addAttribute("categories", Expense.Category.values());
+        model.addAttribute("statuses", Expense.Status.values());
+        return "manager/search";
+    }
+    
+    @PostMapping("/reindex")
+    public String reindex(@AuthenticationPrincipal EmployeePrincipal employee, RedirectAttributes redirectAttributes) {
+        if (employee == null || !employee.isApprover()) {
+            return "redirect:/login";
+        }
+        
+        redirectAttributes.addFlashAttribute("reindexStarted", expenseSearchService.reindexAsync());
+        return "redirect:/manager/search";
+    }
+}
@@ -0,0 +1,9 @@
+package com.expense.reimbursement.dto;
+
+/**
+ * Row of a GROUP BY approver count over the approval inbox.
+ */
+public interface ApproverCount {
+    Long getApproverId();
+    long getTotal();
+}
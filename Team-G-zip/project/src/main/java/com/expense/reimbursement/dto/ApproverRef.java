@@ -0,0 +1,12 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Employee;
+
+/**
+ * Employee who can be routed approvals (manager or admin).
+ */
+public interface ApproverRef {
+    Long getId();
+    Employee.Role getRole();
+    String getDepartment();
+}
@@ -0,0 +1,27 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+
+import java.util.Map;
+
+/**
+ * Per-expense outcomes of a bulk approve/reject, in request order.
+ */
+public record BulkDecisionResult(Expense.Status decision, Map<Long, DecisionOutcome> outcomes) {
+    
+    public long count(DecisionOutcome outcome) {
+        return outcomes.values().stream().filter(o -> o == outcome).count();
+    }
+    
+    public long getDecidedCount() {
+        return count(DecisionOutcome.DECIDED);
+    }
+    
+    public long getForwardedCount() {
+        return count(DecisionOutcome.FORWARDED);
+    }
+    
+    public long getSkippedCount() {
+        return outcomes.size() - getDecidedCount() - getForwardedCount();
+    }
+}
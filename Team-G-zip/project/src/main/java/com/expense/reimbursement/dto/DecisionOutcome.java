@@ -0,0 +1,13 @@
+package com.expense.reimbursement.dto;
+
+/**
+ * What happened to one expense when an approver tried to approve or reject it.
+ * FORWARDED means approved at the approver's level and sent on to the next one.
+ */
+public enum DecisionOutcome {
+    DECIDED,
+    FORWARDED,
+    ALREADY_DECIDED,
+    NOT_ASSIGNED,
+    NOT_FOUND
+}
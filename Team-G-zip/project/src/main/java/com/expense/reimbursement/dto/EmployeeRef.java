@@ -0,0 +1,10 @@
+package com.expense.reimbursement.dto;
+
+/**
+ * Employee identity and department, for resolving imported rows by email.
+ */
+public interface EmployeeRef {
+    Long getId();
+    String getEmail();
+    String getDepartment();
+}
@@ -0,0 +1,42 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position of a row in the (submittedAt DESC, id DESC) ordering used by the
+ * paged expense lists. Encoded as "submittedAt_id" so it can travel in a URL.
+ */
+public record ExpenseCursor(LocalDateTime submittedAt, Long id) {
+    
+    private static final char SEPARATOR = '_';
+    
+    public static ExpenseCursor of(Expense expense) {
+        return new ExpenseCursor(expense.getSubmittedAt(), expense.getId());
+    }
+    
+    /**
+     * Returns null for a missing or malformed token so callers fall back to the first page.
+     */
+    public static ExpenseCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        int split = token.lastIndexOf(SEPARATOR);
+        if (split <= 0) {
+            return null;
+        }
+        try {
+            return new ExpenseCursor(LocalDateTime.parse(token.substring(0, split)),
+                    Long.valueOf(token.substring(split + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    public String encode() {
+        return submittedAt.toString() + SEPARATOR + id;
+    }
+}
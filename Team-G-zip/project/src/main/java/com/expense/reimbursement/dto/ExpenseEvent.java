@@ -0,0 +1,67 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A change to the approval inboxes, pushed to connected dashboards. QUEUED carries rows
+ * that entered the inboxes of {@code approverIds} and only reaches those approvers;
+ * FORWARDED (approved at a lower level) and DECIDED carry the ids that left them. Every
+ * event carries the status totals and the affected approvers' inbox sizes after the
+ * change, so a client that sees an event twice stays correct.
+ */
+public record ExpenseEvent(Type type, List<PendingExpense> expenses, List<Long> ids, Expense.Status decision,
+                           Set<Long> approverIds, Map<Expense.Status, Long> counts, Map<Long, Long> inboxCounts) {
+    
+    public enum Type {
+        QUEUED, FORWARDED, DECIDED
+    }
+    
+    public record PendingExpense(Long id, String employeeName, LocalDate expenseDate, String description,
+                                 Expense.Category category, BigDecimal amount, boolean thumbnailPending,
+                                 int approvalLevel, int approvalLevels, List<Long> approverIds) {
+        
+        public static PendingExpense of(Expense expense, List<Long> approverIds) {
+            return new PendingExpense(expense.getId(), expense.getEmployee().getName(), expense.getExpenseDate(),
+                    expense.getDescription(), expense.getCategory(), expense.getAmount(),
+                    expense.getThumbnailStatus() == Expense.ThumbnailStatus.PENDING,
+                    expense.getApprovalLevel(), expense.getApprovalLevels(), List.copyOf(approverIds));
+        }
+    }
+    
+    public static ExpenseEvent queued(List<PendingExpense> expenses) {
+        Set<Long> approverIds = new LinkedHashSet<>();
+        expenses.forEach(e -> approverIds.addAll(e.approverIds()));
+        return new ExpenseEvent(Type.QUEUED, List.copyOf(expenses), expenses.stream().map(PendingExpense::id).toList(),
+                null, approverIds, null, null);
+    }
+    
+    public static ExpenseEvent forwarded(List<Long> ids, Collection<Long> approverIds) {
+        return new ExpenseEvent(Type.FORWARDED, List.of(), List.copyOf(ids), null, new LinkedHashSet<>(approverIds),
+                null, null);
+    }
+    
+    public static ExpenseEvent decided(List<Long> ids, Expense.Status decision, Collection<Long> approverIds) {
+        return new ExpenseEvent(Type.DECIDED, List.of(), List.copyOf(ids), decision, new LinkedHashSet<>(approverIds),
+                null, null);
+    }
+    
+    /**
+     * Only QUEUED rows are addressed; removals go to everyone, whose dashboards may show
+     * the expense in the all-expenses list.
+     */
+    public boolean isFor(Long approverId) {
+        return type != Type.QUEUED || approverIds.contains(approverId);
+    }
+    
+    public ExpenseEvent withCounts(Map<Expense.Status, Long> counts, Map<Long, Long> inboxCounts) {
+        return new ExpenseEvent(type, expenses, ids, decision, approverIds, counts, inboxCounts);
+    }
+}
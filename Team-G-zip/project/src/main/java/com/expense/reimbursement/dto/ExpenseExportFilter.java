@@ -0,0 +1,18 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filters for an expense export; {@code from} and {@code to} bound the expense
+ * date, both inclusive. Null fields do not filter. With {@code history} archived
+ * expenses are exported too.
+ */
+public record ExpenseExportFilter(Expense.Status status,
+                                  LocalDate from,
+                                  LocalDate to,
+                                  Expense.Category category,
+                                  String department,
+                                  boolean history) {
+}
@@ -0,0 +1,25 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, unmanaged row for exports. Selected with a constructor expression so streamed
+ * results never accumulate in the persistence context.
+ */
+public record ExpenseExportRow(Long id,
+                               String employeeName,
+                               String employeeEmail,
+                               String department,
+                               String description,
+                               BigDecimal amount,
+                               LocalDate expenseDate,
+                               Expense.Category category,
+                               Expense.Status status,
+                               LocalDateTime submittedAt,
+                               LocalDateTime approvedAt,
+                               String approvedByName) {
+}
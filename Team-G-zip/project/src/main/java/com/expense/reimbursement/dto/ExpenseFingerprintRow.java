@@ -0,0 +1,17 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The fields duplicate detection compares: the claim itself and its receipt.
+ */
+public record ExpenseFingerprintRow(Long id,
+                                    Long employeeId,
+                                    BigDecimal amount,
+                                    LocalDate expenseDate,
+                                    Expense.Category category,
+                                    String receiptFilePath) {
+}
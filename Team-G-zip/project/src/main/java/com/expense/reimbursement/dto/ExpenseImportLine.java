@@ -0,0 +1,14 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One parsed line of an import file: a CSV row (employee_email, expense_date,
+ * description, amount, category[, comments]) or a JSON-lines object with these fields.
+ */
+public record ExpenseImportLine(String employeeEmail, LocalDate expenseDate, String description, BigDecimal amount,
+                                Expense.Category category, String comments) {
+}
@@ -0,0 +1,22 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The fields of an expense that go into the search index.
+ */
+public record ExpenseIndexRow(Long id,
+                              String description,
+                              String comments,
+                              String employeeName,
+                              String department,
+                              Expense.Category category,
+                              Expense.Status status,
+                              BigDecimal amount,
+                              LocalDate expenseDate,
+                              LocalDateTime submittedAt) {
+}
@@ -0,0 +1,26 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.model.OutboxMessage;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * What a notification sink receives. Delivery is at least once: (expenseId, type)
+ * identifies the event, so receivers can drop repeats.
+ */
+public record ExpenseNotification(OutboxMessage.EventType type, Long expenseId, Long employeeId, String employeeName,
+                                  String employeeEmail, String description, Expense.Category category,
+                                  BigDecimal amount, Long actorId, LocalDateTime occurredAt) {
+    
+    public static ExpenseNotification of(OutboxMessage message) {
+        return new ExpenseNotification(message.getEventType(), message.getExpenseId(), message.getEmployeeId(),
+                message.getEmployeeName(), message.getEmployeeEmail(), message.getDescription(),
+                message.getCategory(), message.getAmount(), message.getActorId(), message.getOccurredAt());
+    }
+    
+    public String key() {
+        return type.name().toLowerCase() + "-" + expenseId;
+    }
+}
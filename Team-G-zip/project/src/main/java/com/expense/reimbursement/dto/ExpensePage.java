@@ -0,0 +1,22 @@
+package com.expense.reimbursement.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of a list. The cursors are null when there is nothing further
+ * in that direction.
+ */
+public record ExpensePage<T>(List<T> content, String nextCursor, String previousCursor) {
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+    
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+    
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+}
@@ -0,0 +1,19 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * What approval routing needs to know about an expense and its submitter.
+ */
+public interface ExpenseRoutingRef {
+    Long getId();
+    Long getEmployeeId();
+    String getDepartment();
+    Expense.Category getCategory();
+    BigDecimal getAmount();
+    LocalDateTime getSubmittedAt();
+    int getApprovalLevel();
+}
@@ -0,0 +1,22 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One search result. The highlight fields are HTML-escaped snippets with matches
+ * wrapped in &lt;mark&gt;; they are null when the field did not match.
+ */
+public record ExpenseSearchHit(long id,
+                               String description,
+                               String descriptionHighlight,
+                               String commentsHighlight,
+                               String employeeName,
+                               String department,
+                               Expense.Category category,
+                               Expense.Status status,
+                               BigDecimal amount,
+                               LocalDate expenseDate) {
+}
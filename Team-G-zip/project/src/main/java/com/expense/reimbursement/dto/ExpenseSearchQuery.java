@@ -0,0 +1,19 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Free text plus optional facet filters. Null fields do not filter.
+ */
+public record ExpenseSearchQuery(String text,
+                                 Expense.Category category,
+                                 Expense.Status status,
+                                 BigDecimal minAmount,
+                                 BigDecimal maxAmount,
+                                 LocalDate from,
+                                 LocalDate to,
+                                 int page) {
+}
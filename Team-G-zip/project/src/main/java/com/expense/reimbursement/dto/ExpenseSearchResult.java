@@ -0,0 +1,29 @@
+package com.expense.reimbursement.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of search hits with facet counts over the whole match set.
+ */
+public record ExpenseSearchResult(List<ExpenseSearchHit> hits,
+                                  long totalHits,
+                                  int page,
+                                  int pageSize,
+                                  Map<String, Long> categoryCounts,
+                                  Map<String, Long> statusCounts,
+                                  Map<String, Long> amountCounts,
+                                  Map<String, Long> dateCounts) {
+    
+    public boolean hasNext() {
+        return (long) (page + 1) * pageSize < totalHits;
+    }
+    
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+    
+    public boolean isEmpty() {
+        return hits.isEmpty();
+    }
+}
@@ -0,0 +1,17 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+
+import java.time.LocalDateTime;
+
+/**
+ * Minimal view of an expense used when deciding expenses.
+ */
+public interface ExpenseStatusRef {
+    Long getId();
+    Long getEmployeeId();
+    Expense.Status getStatus();
+    LocalDateTime getSubmittedAt();
+    int getApprovalLevel();
+    int getApprovalLevels();
+}
@@ -0,0 +1,9 @@
+package com.expense.reimbursement.dto;
+
+/**
+ * Stored receipt key plus the original file name (used to tell images from PDFs).
+ */
+public interface ReceiptRef {
+    String getReceiptFilePath();
+    String getReceiptFileName();
+}
@@ -0,0 +1,17 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * One cell of the spend report. Amounts stay in whole cents until display.
+ */
+public record SpendTotal(YearMonth month, String department, Expense.Category category,
+                         Expense.Status status, long amountCents, long expenseCount) {
+    
+    public BigDecimal getAmount() {
+        return BigDecimal.valueOf(amountCents, 2);
+    }
+}
@@ -0,0 +1,11 @@
+package com.expense.reimbursement.dto;
+
+import com.expense.reimbursement.model.Expense;
+
+/**
+ * Row of a GROUP BY status aggregate.
+ */
+public interface StatusCount {
+    Expense.Status getStatus();
+    long getTotal();
+}
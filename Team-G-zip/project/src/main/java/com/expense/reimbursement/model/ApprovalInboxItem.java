@@ -0,0 +1,84 @@
+package com.expense.reimbursement.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * An expense waiting in one approver's queue. Keyed approver first, so a queue page is
+ * a range scan of the primary key; written and cleared by ApprovalWorkflowService.
+ */
+@Entity
+@Table(name = "approval_inbox", indexes = {
+    @Index(name = "idx_approval_inbox_expense", columnList = "expense_id")
+})
+@IdClass(ApprovalInboxItem.Key.class)
+public class ApprovalInboxItem {
+    
+    @Id
+    @Column(name = "approver_id")
+    private Long approverId;
+    
+    @Id
+    @Column(name = "submitted_at")
+    private LocalDateTime submittedAt;
+    
+    @Id
+    @Column(name = "expense_id")
+    private Long expenseId;
+    
+    @Column(name = "approval_level", nullable = false)
+    private int level;
+    
+    // Constructors
+    public ApprovalInboxItem() {}
+    
+    public ApprovalInboxItem(Long approverId, LocalDateTime submittedAt, Long expenseId, int level) {
+        this.approverId = approverId;
+        this.submittedAt = submittedAt;
+        this.expenseId = expenseId;
+        this.level = level;
+    }
+    
+    // Getters and Setters
+    public Long getApproverId() { return approverId; }
+    public void setApproverId(Long approverId) { this.approverId = approverId; }
+    
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+    
+    public Long getExpenseId() { return expenseId; }
+    public void setExpenseId(Long expenseId) { this.expenseId = expenseId; }
+    
+    public int getLevel() { return level; }
+    public void setLevel(int level) { this.level = level; }
+    
+    public static class Key implements Serializable {
+        private Long approverId;
+        private LocalDateTime submittedAt;
+        private Long expenseId;
+        
+        public Key() {}
+        
+        public Key(Long approverId, LocalDateTime submittedAt, Long expenseId) {
+            this.approverId = approverId;
+            this.submittedAt = submittedAt;
+            this.expenseId = expenseId;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(approverId, key.approverId) && Objects.equals(submittedAt, key.submittedAt)
+                    && Objects.equals(expenseId, key.expenseId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(approverId, submittedAt, expenseId);
+        }
+    }
+}
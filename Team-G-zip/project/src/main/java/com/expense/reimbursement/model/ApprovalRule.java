@@ -0,0 +1,76 @@
+package com.expense.reimbursement.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * One routing rule of the approval workflow. Rules for a level are tried in priority
+ * order and the first whose criteria all match (null matches anything) picks the
+ * approvers: a named employee, or a role (MANAGER: the submitter's department managers,
+ * ADMIN: every admin).
+ */
+@Entity
+@Table(name = "approval_rules")
+public class ApprovalRule {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "approval_level", nullable = false)
+    private int level;
+    
+    @Column(nullable = false)
+    private int priority;
+    
+    @Column
+    private String department;
+    
+    @Enumerated(EnumType.STRING)
+    @Column
+    private Expense.Category category;
+    
+    @Column(precision = 10, scale = 2)
+    private BigDecimal minAmount;
+    
+    @Enumerated(EnumType.STRING)
+    @Column
+    private Employee.Role approverRole;
+    
+    @Column(name = "approver_id")
+    private Long approverId;
+    
+    // Constructors
+    public ApprovalRule() {}
+    
+    public boolean matches(String department, Expense.Category category, BigDecimal amount) {
+        return (this.department == null || this.department.equals(department))
+                && (this.category == null || this.category == category)
+                && (this.minAmount == null || amount.compareTo(this.minAmount) >= 0);
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public int getLevel() { return level; }
+    public void setLevel(int level) { this.level = level; }
+    
+    public int getPriority() { return priority; }
+    public void setPriority(int priority) { this.priority = priority; }
+    
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+    
+    public Expense.Category getCategory() { return category; }
+    public void setCategory(Expense.Category category) { this.category = category; }
+    
+    public BigDecimal getMinAmount() { return minAmount; }
+    public void setMinAmount(BigDecimal minAmount) { this.minAmount = minAmount; }
+    
+    public Employee.Role getApproverRole() { return approverRole; }
+    public void setApproverRole(Employee.Role approverRole) { this.approverRole = approverRole; }
+    
+    public Long getApproverId() { return approverId; }
+    public void setApproverId(Long approverId) { this.approverId = approverId; }
+}
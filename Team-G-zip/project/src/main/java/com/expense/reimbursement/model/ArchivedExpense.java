@@ -0,0 +1,157 @@
+package com.expense.reimbursement.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A decided expense moved to cold storage by ExpenseArchiveService. Rows are written
+ * with INSERT ... SELECT from expenses and never change afterwards; read paths turn
+ * them back into detached Expense instances with {@link #toExpense()}.
+ */
+@Entity
+@Immutable
+@Table(name = "expenses_archive", indexes = {
+    @Index(name = "idx_expenses_archive_employee_submitted", columnList = "employee_id, submitted_at, id"),
+    @Index(name = "idx_expenses_archive_submitted", columnList = "submitted_at, id"),
+    @Index(name = "idx_expenses_archive_expense_date", columnList = "expense_date")
+})
+public class ArchivedExpense {
+    
+    // Keeps the id the expense had in the hot table
+    @Id
+    private Long id;
+    
+    @Column(nullable = false)
+    private String description;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+    
+    @Column(nullable = false)
+    private LocalDate expenseDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Expense.Category category;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Expense.Status status;
+    
+    @Column
+    private String receiptFileName;
+    
+    @Column
+    private String receiptFilePath;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Expense.ThumbnailStatus thumbnailStatus;
+    
+    @Column
+    private String thumbnailPath;
+    
+    @Column(columnDefinition = "TEXT")
+    private String comments;
+    
+    @Column(nullable = false)
+    private LocalDateTime submittedAt;
+    
+    @Column
+    private LocalDateTime approvedAt;
+    
+    @Column(nullable = false)
+    private int approvalLevel;
+    
+    @Column(nullable = false)
+    private int approvalLevels;
+    
+    @Enumerated(EnumType.STRING)
+    @Column
+    private Expense.FlagReason flagReason;
+    
+    @Column(name = "duplicate_of")
+    private Long duplicateOf;
+    
+    @Column(nullable = false)
+    private Long version;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "employee_id", nullable = false)
+    private Employee employee;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "approved_by")
+    private Employee approvedBy;
+    
+    public ArchivedExpense() {}
+    
+    /**
+     * A detached copy for the views, which only know Expense. Nothing saves it back:
+     * archived expenses are decided and no write path accepts them.
+     */
+    public Expense toExpense() {
+        Expense expense = new Expense(description, amount, expenseDate, category, employee);
+        expense.setId(id);
+        expense.setStatus(status);
+        expense.setReceiptFileName(receiptFileName);
+        expense.setReceiptFilePath(receiptFilePath);
+        expense.setThumbnailStatus(thumbnailStatus);
+        expense.setThumbnailPath(thumbnailPath);
+        expense.setComments(comments);
+        expense.setSubmittedAt(submittedAt);
+        expense.setApprovedAt(approvedAt);
+        expense.setApprovalLevel(approvalLevel);
+        expense.setApprovalLevels(approvalLevels);
+        expense.setFlagReason(flagReason);
+        expense.setDuplicateOf(duplicateOf);
+        expense.setVersion(version);
+        expense.setApprovedBy(approvedBy);
+        return expense;
+    }
+    
+    // Getters
+    public Long getId() { return id; }
+    
+    public String getDescription() { return description; }
+    
+    public BigDecimal getAmount() { return amount; }
+    
+    public LocalDate getExpenseDate() { return expenseDate; }
+    
+    public Expense.Category getCategory() { return category; }
+    
+    public Expense.Status getStatus() { return status; }
+    
+    public String getReceiptFileName() { return receiptFileName; }
+    
+    public String getReceiptFilePath() { return receiptFilePath; }
+    
+    public Expense.ThumbnailStatus getThumbnailStatus() { return thumbnailStatus; }
+    
+    public String getThumbnailPath() { return thumbnailPath; }
+    
+    public String getComments() { return comments; }
+    
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    
+    public LocalDateTime getApprovedAt() { return approvedAt; }
+    
+    public int getApprovalLevel() { return approvalLevel; }
+    
+    public int getApprovalLevels() { return approvalLevels; }
+    
+    public Expense.FlagReason getFlagReason() { return flagReason; }
+    
+    public Long getDuplicateOf() { return duplicateOf; }
+    
+    public Long getVersion() { return version; }
+    
+    public Employee getEmployee() { return employee; }
+    
+    public Employee getApprovedBy() { return approvedBy; }
+}
@@ -6,7 +6,10 @@ import jakarta.validation.constraints.NotBlank;
 import java.util.List;
 
 @Entity
-@Table(name = "employees")
+@Table(name = "employees", indexes = {
+    @Index(name = "idx_employees_role", columnList = "role"),
+    @Index(name = "idx_employees_role_department", columnList = "role, department")
+})
 public class Employee {
     
     @Id
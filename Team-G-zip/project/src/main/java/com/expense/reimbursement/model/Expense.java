@@ -9,11 +9,18 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+    @Index(name = "idx_expenses_employee_submitted", columnList = "employee_id, submitted_at, id"),
+    @Index(name = "idx_expenses_status_submitted", columnList = "status, submitted_at, id"),
+    @Index(name = "idx_expenses_submitted", columnList = "submitted_at, id"),
+    @Index(name = "idx_expenses_expense_date", columnList = "expense_date")
+})
 public class Expense {
     
+    // Pooled ids (one sequence round trip per 1000 rows) keep Hibernate's insert batching on
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_id")
+    @SequenceGenerator(name = "expense_id", sequenceName = "expense_id_seq", allocationSize = 1000)
     private Long id;
     
     @NotBlank(message = "Description is required")
@@ -43,6 +50,13 @@ public class Expense {
     @Column
     private String receiptFilePath;
     
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ThumbnailStatus thumbnailStatus = ThumbnailStatus.NONE;
+    
+    @Column
+    private String thumbnailPath;
+    
     @Column(columnDefinition = "TEXT")
     private String comments;
     
@@ -52,6 +66,25 @@ public class Expense {
     @Column
     private LocalDateTime approvedAt;
     
+    // Approval level the expense waits on while PENDING, and the number it needs
+    @Column(nullable = false)
+    private int approvalLevel = 1;
+    
+    @Column(nullable = false)
+    private int approvalLevels = 1;
+    
+    // Set when the claim matches an earlier expense (duplicateOf); see DuplicateDetectionService
+    @Enumerated(EnumType.STRING)
+    @Column
+    private FlagReason flagReason;
+    
+    @Column(name = "duplicate_of")
+    private Long duplicateOf;
+    
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id", nullable = false)
     private Employee employee;
@@ -96,6 +129,12 @@ public class Expense {
     public String getReceiptFilePath() { return receiptFilePath; }
     public void setReceiptFilePath(String receiptFilePath) { this.receiptFilePath = receiptFilePath; }
     
+    public ThumbnailStatus getThumbnailStatus() { return thumbnailStatus; }
+    public void setThumbnailStatus(ThumbnailStatus thumbnailStatus) { this.thumbnailStatus = thumbnailStatus; }
+    
+    public String getThumbnailPath() { return thumbnailPath; }
+    public void setThumbnailPath(String thumbnailPath) { this.thumbnailPath = thumbnailPath; }
+    
     public String getComments() { return comments; }
     public void setComments(String comments) { this.comments = comments; }
     
@@ -105,6 +144,21 @@ public class Expense {
     public LocalDateTime getApprovedAt() { return approvedAt; }
     public void setApprovedAt(LocalDateTime approvedAt) { this.approvedAt = approvedAt; }
     
+    public int getApprovalLevel() { return approvalLevel; }
+    public void setApprovalLevel(int approvalLevel) { this.approvalLevel = approvalLevel; }
+    
+    public int getApprovalLevels() { return approvalLevels; }
+    public void setApprovalLevels(int approvalLevels) { this.approvalLevels = approvalLevels; }
+    
+    public FlagReason getFlagReason() { return flagReason; }
+    public void setFlagReason(FlagReason flagReason) { this.flagReason = flagReason; }
+    
+    public Long getDuplicateOf() { return duplicateOf; }
+    public void setDuplicateOf(Long duplicateOf) { this.duplicateOf = duplicateOf; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
     public Employee getEmployee() { return employee; }
     public void setEmployee(Employee employee) { this.employee = employee; }
     
@@ -118,4 +172,12 @@ public class Expense {
     public enum Status {
         PENDING, APPROVED, REJECTED
     }
+    
+    public enum ThumbnailStatus {
+        NONE, PENDING, READY, FAILED
+    }
+    
+    public enum FlagReason {
+        DUPLICATE_CLAIM, DUPLICATE_RECEIPT
+    }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.expense.reimbursement.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One bulk import of a statement file, and its checkpoint. Written by
+ * ExpenseImportService; the counters and checkpoint advance in the same transaction as
+ * each chunk of inserted expenses.
+ */
+@Entity
+@Table(name = "expense_imports", indexes = {
+    @Index(name = "idx_expense_imports_file_hash", columnList = "file_hash")
+})
+public class ExpenseImport {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String fileName;
+    
+    @Column(name = "file_hash", nullable = false, length = 64)
+    private String fileHash;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Format format;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.RUNNING;
+    
+    @Column(nullable = false)
+    private long checkpointLine;
+    
+    @Column(nullable = false)
+    private long importedCount;
+    
+    @Column(nullable = false)
+    private long failedCount;
+    
+    @Column
+    private Long createdBy;
+    
+    @Column(length = 500)
+    private String errorMessage;
+    
+    @Column(nullable = false)
+    private LocalDateTime startedAt = LocalDateTime.now();
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+    
+    @Column
+    private LocalDateTime finishedAt;
+    
+    // Constructors
+    public ExpenseImport() {}
+    
+    public ExpenseImport(String fileName, String fileHash, Format format, Long createdBy) {
+        this.fileName = fileName;
+        this.fileHash = fileHash;
+        this.format = format;
+        this.createdBy = createdBy;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    
+    public String getFileHash() { return fileHash; }
+    public void setFileHash(String fileHash) { this.fileHash = fileHash; }
+    
+    public Format getFormat() { return format; }
+    public void setFormat(Format format) { this.format = format; }
+    
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    
+    public long getCheckpointLine() { return checkpointLine; }
+    public void setCheckpointLine(long checkpointLine) { this.checkpointLine = checkpointLine; }
+    
+    public long getImportedCount() { return importedCount; }
+    public void setImportedCount(long importedCount) { this.importedCount = importedCount; }
+    
+    public long getFailedCount() { return failedCount; }
+    public void setFailedCount(long failedCount) { this.failedCount = failedCount; }
+    
+    public Long getCreatedBy() { return createdBy; }
+    public void setCreatedBy(Long createdBy) { this.createdBy = createdBy; }
+    
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+    
+    public enum Format {
+        CSV, JSONL
+    }
+    
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
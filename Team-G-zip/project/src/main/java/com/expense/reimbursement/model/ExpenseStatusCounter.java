@@ -0,0 +1,65 @@
+package com.expense.reimbursement.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Running number of expenses per employee and status, maintained alongside every
+ * write in ExpenseService so dashboards never have to count the expenses table.
+ */
+@Entity
+@Table(name = "expense_status_counters")
+@IdClass(ExpenseStatusCounter.Key.class)
+public class ExpenseStatusCounter {
+    
+    @Id
+    @Column(name = "employee_id")
+    private Long employeeId;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Expense.Status status;
+    
+    @Column(name = "expense_count", nullable = false)
+    private long count;
+    
+    // Constructors
+    public ExpenseStatusCounter() {}
+    
+    // Getters and Setters
+    public Long getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Long employeeId) { this.employeeId = employeeId; }
+    
+    public Expense.Status getStatus() { return status; }
+    public void setStatus(Expense.Status status) { this.status = status; }
+    
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+    
+    public static class Key implements Serializable {
+        private Long employeeId;
+        private Expense.Status status;
+        
+        public Key() {}
+        
+        public Key(Long employeeId, Expense.Status status) {
+            this.employeeId = employeeId;
+            this.status = status;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(employeeId, key.employeeId) && status == key.status;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(employeeId, status);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.expense.reimbursement.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A stored receipt file, keyed by the SHA-256 of its content. Identical uploads share
+ * one file; refCount tracks how many expenses point at it.
+ */
+@Entity
+@Table(name = "receipts")
+public class Receipt {
+    
+    @Id
+    @Column(length = 64)
+    private String sha256;
+    
+    @Column(nullable = false)
+    private String storagePath;
+    
+    @Column(nullable = false)
+    private long sizeBytes;
+    
+    @Column(nullable = false)
+    private long refCount;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    // Constructors
+    public Receipt() {}
+    
+    // Getters and Setters
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+    
+    public String getStoragePath() { return storagePath; }
+    public void setStoragePath(String storagePath) { this.storagePath = storagePath; }
+    
+    public long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+    
+    public long getRefCount() { return refCount; }
+    public void setRefCount(long refCount) { this.refCount = refCount; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,92 @@
+package com.expense.reimbursement.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Spend per department, category, expense month and status, in whole cents. Kept in
+ * step with every expense write by SpendReportService so reports never aggregate the
+ * expenses table.
+ */
+@Entity
+@Table(name = "spend_rollups")
+@IdClass(SpendRollup.Key.class)
+public class SpendRollup {
+    
+    @Id
+    @Column(name = "month_start")
+    private LocalDate monthStart;
+    
+    @Id
+    private String department;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Expense.Category category;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Expense.Status status;
+    
+    @Column(name = "amount_cents", nullable = false)
+    private long amountCents;
+    
+    @Column(name = "expense_count", nullable = false)
+    private long count;
+    
+    // Constructors
+    public SpendRollup() {}
+    
+    // Getters and Setters
+    public LocalDate getMonthStart() { return monthStart; }
+    public void setMonthStart(LocalDate monthStart) { this.monthStart = monthStart; }
+    
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+    
+    public Expense.Category getCategory() { return category; }
+    public void setCategory(Expense.Category category) { this.category = category; }
+    
+    public Expense.Status getStatus() { return status; }
+    public void setStatus(Expense.Status status) { this.status = status; }
+    
+    public long getAmountCents() { return amountCents; }
+    public void setAmountCents(long amountCents) { this.amountCents = amountCents; }
+    
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+    
+    public static class Key implements Serializable {
+        private LocalDate monthStart;
+        private String department;
+        private Expense.Category category;
+        private Expense.Status status;
+        
+        public Key() {}
+        
+        public Key(LocalDate monthStart, String department, Expense.Category category, Expense.Status status) {
+            this.monthStart = monthStart;
+            this.department = department;
+            this.category = category;
+            this.status = status;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(monthStart, key.monthStart) && Objects.equals(department, key.department)
+                    && category == key.category && status == key.status;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(monthStart, department, category, status);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.expense.reimbursement.notification;
+
+import com.expense.reimbursement.dto.ExpenseNotification;
+import com.expense.reimbursement.model.OutboxMessage;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.math.RoundingMode;
+
+/**
+ * Tells employees by email that their expense was approved or rejected.
+ */
+public class EmailNotificationSink implements NotificationSink {
+    
+    private final JavaMailSender mailSender;
+    private final String from;
+    
+    public EmailNotificationSink(JavaMailSender mailSender, String from) {
+        this.mailSender = mailSender;
+        this.from = from;
+    }
+    
+    @Override
+    public String name() {
+        return "email";
+    }
+    
+    @Override
+    public boolean accepts(OutboxMessage.EventType type) {
+        return type != OutboxMessage.EventType.SUBMITTED;
+    }
+    
+    @Override
+    public void deliver(ExpenseNotification notification) {
+        String decision = notification.type().name().toLowerCase();
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(notification.employeeEmail());
+        message.setSubject("Expense #" + notification.expenseId() + " " + decision);
+        message.setText("Hello " + notification.employeeName() + ",\n\n"
+                + "Your expense \"" + notification.description() + "\" for $"
+                + notification.amount().setScale(2, RoundingMode.HALF_UP) + " was " + decision + ".\n");
+        mailSender.send(message);
+    }
+}
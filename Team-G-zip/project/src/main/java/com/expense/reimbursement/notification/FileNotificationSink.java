@@ -0,0 +1,57 @@
+package com.expense.reimbursement.notification;
+
+import com.expense.reimbursement.dto.ExpenseNotification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends each notification as one JSON line to a file. Meant for development, tests
+ * and tools that tail a file.
+ */
+public class FileNotificationSink implements NotificationSink, Closeable {
+    
+    private final BufferedWriter writer;
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    public FileNotificationSink(Path path, ObjectMapper objectMapper) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public String name() {
+        return "file";
+    }
+    
+    @Override
+    public void deliver(ExpenseNotification notification) throws IOException {
+        String line = objectMapper.writeValueAsString(notification);
+        lock.lock();
+        try {
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
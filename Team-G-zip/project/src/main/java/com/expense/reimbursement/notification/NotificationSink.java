@@ -0,0 +1,26 @@
+package com.expense.reimbursement.notification;
+
+import com.expense.reimbursement.dto.ExpenseNotification;
+import com.expense.reimbursement.model.OutboxMessage;
+
+/**
+ * A destination for expense notifications. Every sink bean gets its own outbox rows and
+ * its own dispatcher thread, so a slow or failing sink only delays itself.
+ */
+public interface NotificationSink {
+    
+    /**
+     * Stored on the sink's outbox rows; keep it stable across releases.
+     */
+    String name();
+    
+    default boolean accepts(OutboxMessage.EventType type) {
+        return true;
+    }
+    
+    /**
+     * Delivers one notification. Throwing schedules a retry with backoff, and a delivery
+     * that succeeded may still be repeated after a crash, so sinks must tolerate repeats.
+     */
+    void deliver(ExpenseNotification notification) throws Exception;
+}
@@ -0,0 +1,49 @@
+package com.expense.reimbursement.notification;
+
+import com.expense.reimbursement.dto.ExpenseNotification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * POSTs each notification as JSON to a fixed URL. Any 2xx answer counts as delivered;
+ * the Idempotency-Key header lets the receiver drop repeats.
+ */
+public class WebhookNotificationSink implements NotificationSink {
+    
+    private final HttpClient client;
+    private final URI url;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+    
+    public WebhookNotificationSink(URI url, Duration timeout, ObjectMapper objectMapper) {
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.url = url;
+        this.timeout = timeout;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public String name() {
+        return "webhook";
+    }
+    
+    @Override
+    public void deliver(ExpenseNotification notification) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", notification.key())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(notification)))
+                .build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status < 200 || status >= 300) {
+            throw new IOException("Webhook answered " + status);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.expense.reimbursement.repository;
+
+import com.expense.reimbursement.dto.ApproverCount;
+import com.expense.reimbursement.model.ApprovalInboxItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ApprovalInboxRepository extends JpaRepository<ApprovalInboxItem, ApprovalInboxItem.Key> {
+    
+    // Keyset pages of one approver's queue over (submittedAt DESC, expenseId DESC): each
+    // is a range scan of the primary key returning expense ids only
+    
+    @Query("SELECT i.expenseId FROM ApprovalInboxItem i WHERE i.approverId = :approverId " +
+           "ORDER BY i.submittedAt DESC, i.expenseId DESC")
+    List<Long> findFirstPage(@Param("approverId") Long approverId, Pageable limit);
+    
+    @Query("SELECT i.expenseId FROM ApprovalInboxItem i WHERE i.approverId = :approverId " +
+           "AND (i.submittedAt < :submittedAt OR (i.submittedAt = :submittedAt AND i.expenseId < :id)) " +
+           "ORDER BY i.submittedAt DESC, i.expenseId DESC")
+    List<Long> findPageAfter(@Param("approverId") Long approverId, @Param("submittedAt") LocalDateTime submittedAt,
+                             @Param("id") Long id, Pageable limit);
+    
+    @Query("SELECT i.expenseId FROM ApprovalInboxItem i WHERE i.approverId = :approverId " +
+           "AND (i.submittedAt > :submittedAt OR (i.submittedAt = :submittedAt AND i.expenseId > :id)) " +
+           "ORDER BY i.submittedAt ASC, i.expenseId ASC")
+    List<Long> findPageBefore(@Param("approverId") Long approverId, @Param("submittedAt") LocalDateTime submittedAt,
+                              @Param("id") Long id, Pageable limit);
+    
+    long countByApproverId(Long approverId);
+    
+    @Query("SELECT i.approverId AS approverId, COUNT(i) AS total FROM ApprovalInboxItem i " +
+           "WHERE i.approverId IN :approverIds GROUP BY i.approverId")
+    List<ApproverCount> countByApproverIds(@Param("approverIds") Collection<Long> approverIds);
+    
+    @Query("SELECT i.expenseId FROM ApprovalInboxItem i WHERE i.expenseId IN :expenseIds AND i.approverId = :approverId")
+    List<Long> findAssignedExpenseIds(@Param("approverId") Long approverId,
+                                      @Param("expenseIds") Collection<Long> expenseIds);
+    
+    @Query("SELECT DISTINCT i.approverId FROM ApprovalInboxItem i WHERE i.expenseId IN :expenseIds")
+    List<Long> findApproverIds(@Param("expenseIds") Collection<Long> expenseIds);
+    
+    @Modifying
+    @Query("DELETE FROM ApprovalInboxItem i WHERE i.expenseId IN :expenseIds")
+    int deleteByExpenseIds(@Param("expenseIds") Collection<Long> expenseIds);
+    
+    // One statement per expense however many approvers share it
+    @Modifying
+    @Query(value = "INSERT INTO approval_inbox (approver_id, submitted_at, expense_id, approval_level) " +
+                   "SELECT a.id, :submittedAt, :expenseId, :level FROM employees a WHERE a.id IN :approverIds",
+           nativeQuery = true)
+    int enqueue(@Param("expenseId") Long expenseId, @Param("submittedAt") LocalDateTime submittedAt,
+                @Param("level") int level, @Param("approverIds") Collection<Long> approverIds);
+}
@@ -0,0 +1,12 @@
+package com.expense.reimbursement.repository;
+
+import com.expense.reimbursement.model.ApprovalRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ApprovalRuleRepository extends JpaRepository<ApprovalRule, Long> {
+    List<ApprovalRule> findAllByOrderByLevelAscPriorityAscIdAsc();
+}
@@ -0,0 +1,105 @@
+package com.expense.reimbursement.repository;
+
+import com.expense.reimbursement.dto.ExpenseExportRow;
+import com.expense.reimbursement.dto.ExpenseIndexRow;
+import com.expense.reimbursement.model.ArchivedExpense;
+import com.expense.reimbursement.model.Expense;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface ArchivedExpenseRepository extends JpaRepository<ArchivedExpense, Long> {
+    
+    // Listed rather than SELECT * so the copy does not depend on column order
+    String COLUMNS = "id, description, amount, expense_date, category, status, receipt_file_name, " +
+            "receipt_file_path, thumbnail_status, thumbnail_path, comments, submitted_at, approved_at, " +
+            "approval_level, approval_levels, flag_reason, duplicate_of, version, employee_id, approved_by";
+    
+    @Modifying
+    @Query(value = "INSERT INTO expenses_archive (" + COLUMNS + ") " +
+                   "SELECT " + COLUMNS + " FROM expenses WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromExpenses(@Param("ids") Collection<Long> ids);
+    
+    // History reads, mirroring the hot-table queries in ExpenseRepository
+    
+    @EntityGraph(attributePaths = {"employee", "approvedBy"})
+    List<ArchivedExpense> findByEmployeeIdOrderBySubmittedAtDesc(Long employeeId);
+    
+    @EntityGraph(attributePaths = {"employee", "approvedBy"})
+    @Query("SELECT e FROM ArchivedExpense e WHERE e.id = :id")
+    Optional<ArchivedExpense> findDetailById(@Param("id") Long id);
+    
+    @EntityGraph(attributePaths = {"employee", "approvedBy"})
+    @Query("SELECT e FROM ArchivedExpense e ORDER BY e.submittedAt DESC, e.id DESC")
+    List<ArchivedExpense> findFirstPage(Pageable limit);
+    
+    @EntityGraph(attributePaths = {"employee", "approvedBy"})
+    @Query("SELECT e FROM ArchivedExpense e WHERE e.submittedAt < :submittedAt " +
+           "OR (e.submittedAt = :submittedAt AND e.id < :id) " +
+           "ORDER BY e.submittedAt DESC, e.id DESC")
+    List<ArchivedExpense> findPageAfter(@Param("submittedAt") LocalDateTime submittedAt,
+                                        @Param("id") Long id, Pageable limit);
+    
+    @EntityGraph(attributePaths = {"employee", "approvedBy"})
+    @Query("SELECT e FROM ArchivedExpense e WHERE e.submittedAt > :submittedAt " +
+           "OR (e.submittedAt = :submittedAt AND e.id > :id) " +
+           "ORDER BY e.submittedAt ASC, e.id ASC")
+    List<ArchivedExpense> findPageBefore(@Param("submittedAt") LocalDateTime submittedAt,
+                                         @Param("id") Long id, Pageable limit);
+    
+    // Export cursor with the same projection, filters and order as ExpenseRepository.streamForExport
+    
+    String EXPORT_SELECT = "SELECT new com.expense.reimbursement.dto.ExpenseExportRow(" +
+            "e.id, emp.name, emp.email, emp.department, e.description, e.amount, e.expenseDate, " +
+            "e.category, e.status, e.submittedAt, e.approvedAt, ap.name) " +
+            "FROM ArchivedExpense e JOIN e.employee emp LEFT JOIN e.approvedBy ap ";
+    
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(EXPORT_SELECT + "WHERE (:status IS NULL OR e.status = :status) " +
+           "AND (:from IS NULL OR e.expenseDate >= :from) AND (:to IS NULL OR e.expenseDate <= :to) " +
+           "AND (:category IS NULL OR e.category = :category) " +
+           "AND (:department IS NULL OR emp.department = :department) " +
+           "ORDER BY e.submittedAt DESC, e.id DESC")
+    Stream<ExpenseExportRow> streamForExport(@Param("status") Expense.Status status,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to,
+                                             @Param("category") Expense.Category category,
+                                             @Param("department") String department);
+    
+    // Rebuild feeds: search index slices and stored file keys
+    
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("SELECT new com.expense.reimbursement.dto.ExpenseIndexRow(" +
+           "e.id, e.description, e.comments, emp.name, emp.department, e.category, e.status, " +
+           "e.amount, e.expenseDate, e.submittedAt) " +
+           "FROM ArchivedExpense e JOIN e.employee emp WHERE e.id > :after AND e.id <= :upTo ORDER BY e.id")
+    List<ExpenseIndexRow> findIndexRowsBetween(@Param("after") long after, @Param("upTo") long upTo, Pageable limit);
+    
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM ArchivedExpense e")
+    long findMaxId();
+    
+    @Query("SELECT DISTINCT e.receiptFilePath FROM ArchivedExpense e " +
+           "WHERE e.receiptFilePath IS NOT NULL AND e.receiptFilePath > :after ORDER BY e.receiptFilePath")
+    List<String> findReceiptKeysAfter(@Param("after") String after, Pageable limit);
+    
+    @Query("SELECT DISTINCT e.thumbnailPath FROM ArchivedExpense e " +
+           "WHERE e.thumbnailPath IS NOT NULL AND e.thumbnailPath > :after ORDER BY e.thumbnailPath")
+    List<String> findThumbnailKeysAfter(@Param("after") String after, Pageable limit);
+}
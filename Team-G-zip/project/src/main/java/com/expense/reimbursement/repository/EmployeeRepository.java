@@ -1,9 +1,16 @@
 package com.expense.reimbursement.repository;
 
+import com.expense.reimbursement.dto.ApproverRef;
+import com.expense.reimbursement.dto.EmployeeRef;
 import com.expense.reimbursement.model.Employee;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +19,20 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     Optional<Employee> findByEmail(String email);
     List<Employee> findByRole(Employee.Role role);
     boolean existsByEmail(String email);
+    
+    @Query("SELECT e.email FROM Employee e WHERE e.id = :id")
+    Optional<String> findEmailById(@Param("id") Long id);
+    
+    @Query("SELECT e.id AS id, e.role AS role, e.department AS department FROM Employee e WHERE e.role IN :roles")
+    List<ApproverRef> findApprovers(@Param("roles") Collection<Employee.Role> roles);
+    
+    @Query("SELECT e.id AS id, e.email AS email, e.department AS department FROM Employee e WHERE e.email IN :emails")
+    List<EmployeeRef> findRefsByEmailIn(@Param("emails") Collection<String> emails);
+    
+    @Query("SELECT e.id FROM Employee e WHERE e.id > :after ORDER BY e.id")
+    List<Long> findIdsAfter(@Param("after") long after, Pageable limit);
+    
+    @Modifying
+    @Query("UPDATE Employee e SET e.password = :password WHERE e.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.expense.reimbursement.repository;
+
+import com.expense.reimbursement.model.ExpenseImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ExpenseImportRepository extends JpaRepository<ExpenseImport, Long> {
+    
+    Optional<ExpenseImport> findFirstByFileHashOrderByIdDesc(String fileHash);
+    
+    /**
+     * Takes over an import that failed, or whose runner stopped checkpointing before
+     * {@code staleBefore} (a crashed node). Zero when someone else is still running it.
+     */
+    @Modifying
+    @Query("UPDATE ExpenseImport i SET i.status = :running, i.errorMessage = NULL, i.finishedAt = NULL, " +
+           "i.updatedAt = :now " +
+           "WHERE i.id = :id AND (i.status = :failed OR (i.status = :running AND i.updatedAt < :staleBefore))")
+    int claim(@Param("id") Long id, @Param("running") ExpenseImport.Status running,
+              @Param("failed") ExpenseImport.Status failed, @Param("staleBefore") LocalDateTime staleBefore,
+              @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE ExpenseImport i SET i.checkpointLine = :line, i.importedCount = i.importedCount + :imported, " +
+           "i.failedCount = i.failedCount + :failed, i.updatedAt = :now WHERE i.id = :id")
+    int checkpoint(@Param("id") Long id, @Param("line") long line, @Param("imported") long imported,
+                   @Param("failed") long failed, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE ExpenseImport i SET i.status = :status, i.errorMessage = :error, i.updatedAt = :now, " +
+           "i.finishedAt = :now WHERE i.id = :id")
+    int finish(@Param("id") Long id, @Param("status") ExpenseImport.Status status, @Param("error") String error,
+               @Param("now") LocalDateTime now);
+}
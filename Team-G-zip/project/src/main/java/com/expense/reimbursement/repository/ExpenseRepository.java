@@ -1,15 +1,234 @@
 package com.expense.reimbursement.repository;
 
+import com.expense.reimbursement.dto.ExpenseExportRow;
+import com.expense.reimbursement.dto.ExpenseFingerprintRow;
+import com.expense.reimbursement.dto.ExpenseIndexRow;
+import com.expense.reimbursement.dto.ExpenseRoutingRef;
+import com.expense.reimbursement.dto.ExpenseStatusRef;
+import com.expense.reimbursement.dto.ReceiptRef;
 import com.expense.reimbursement.model.Employee;
 import com.expense.reimbursement.model.Expense;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
-    List<Expense> findByEmployeeOrderBySubmittedAtDesc(Employee employee);
-    List<Expense> findByStatusOrderBySubmittedAtDesc(Expense.Status status);
-    List<Expense> findAllByOrderBySubmittedAtDesc();
-}
\ No newline at end of file
+    
+    // Read paths that render submitter/approver names load both in the same statement;
+    // left lazy they cost one extra SELECT per row.
+    
+    @EntityGraph(attributePaths = {"employee", "approvedBy"})
+    List<Expense> findByEmployeeIdOrderBySubmittedAtDesc(Long employeeId);
+    
+    @EntityGraph(attributePaths = {"employee", "approvedBy"})
+    @Query("SELECT e FROM Expense e WHERE e.id = :id")
+    Optional<Expense> findDetailById(@Param("id") Long id);
+    
+    @EntityGraph(attributePaths = {"employee", "approvedBy"})
+    @Query("SELECT e FROM Expense e WHERE e.id IN :ids")
+    List<Expense> findDetailsByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT e.id AS id, e.employee.id AS employeeId, e.status AS status, e.submittedAt AS submittedAt, " +
+           "e.approvalLevel AS approvalLevel, e.approvalLevels AS approvalLevels " +
+           "FROM Expense e WHERE e.id = :id")
+    ExpenseStatusRef findStatusRefById(@Param("id") Long id);
+    
+    // Bulk decisions need to know which rows they moved (per employee, for the counters),
+    // so they lock the requested rows in one statement before the guarded UPDATE
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.id AS id, e.employee.id AS employeeId, e.status AS status, e.submittedAt AS submittedAt, " +
+           "e.approvalLevel AS approvalLevel, e.approvalLevels AS approvalLevels " +
+           "FROM Expense e WHERE e.id IN :ids")
+    List<ExpenseStatusRef> lockStatusRefs(@Param("ids") Collection<Long> ids);
+    
+    // Set-based decision; the expected-status guard leaves rows decided by someone else untouched
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.status = :decision, e.approvedBy = :approver, e.approvedAt = :decidedAt, " +
+           "e.version = e.version + 1 " +
+           "WHERE e.id IN :ids AND e.status = :expected")
+    int updateStatusIfCurrent(@Param("ids") Collection<Long> ids, @Param("expected") Expense.Status expected,
+                              @Param("decision") Expense.Status decision, @Param("approver") Employee approver,
+                              @Param("decidedAt") LocalDateTime decidedAt);
+    
+    // Single decisions race without locks, so they also guard on the level they decide
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.status = :decision, e.approvedBy = :approver, e.approvedAt = :decidedAt, " +
+           "e.version = e.version + 1 " +
+           "WHERE e.id = :id AND e.status = :expected AND e.approvalLevel = :level")
+    int decideIfAtLevel(@Param("id") Long id, @Param("expected") Expense.Status expected, @Param("level") int level,
+                        @Param("decision") Expense.Status decision, @Param("approver") Employee approver,
+                        @Param("decidedAt") LocalDateTime decidedAt);
+    
+    // Approval at a level before the last moves the expense on instead of deciding it
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.approvalLevel = e.approvalLevel + 1, e.version = e.version + 1 " +
+           "WHERE e.id IN :ids AND e.status = :expected AND e.approvalLevel = :level")
+    int advanceLevelIfCurrent(@Param("ids") Collection<Long> ids, @Param("expected") Expense.Status expected,
+                              @Param("level") int level);
+    
+    @Query("SELECT e.id AS id, emp.id AS employeeId, emp.department AS department, e.category AS category, " +
+           "e.amount AS amount, e.submittedAt AS submittedAt, e.approvalLevel AS approvalLevel " +
+           "FROM Expense e JOIN e.employee emp WHERE e.id IN :ids")
+    List<ExpenseRoutingRef> findRoutingRefs(@Param("ids") Collection<Long> ids);
+    
+    // Thumbnail job state lives on the expense rows, keyed by the shared receipt file
+    
+    @Query("SELECT DISTINCT e.receiptFilePath AS receiptFilePath, e.receiptFileName AS receiptFileName " +
+           "FROM Expense e WHERE e.thumbnailStatus = :status")
+    List<ReceiptRef> findReceiptsByThumbnailStatus(@Param("status") Expense.ThumbnailStatus status, Pageable limit);
+    
+    @Modifying
+    @Query("UPDATE Expense e SET e.thumbnailStatus = :status, e.thumbnailPath = :thumbnailPath " +
+           "WHERE e.receiptFilePath = :receiptFilePath")
+    int completeThumbnails(@Param("receiptFilePath") String receiptFilePath,
+                           @Param("status") Expense.ThumbnailStatus status,
+                           @Param("thumbnailPath") String thumbnailPath);
+    
+    // Stored file keys in key order, for walking every receipt and thumbnail in batches
+    
+    @Query("SELECT DISTINCT e.receiptFilePath FROM Expense e " +
+           "WHERE e.receiptFilePath IS NOT NULL AND e.receiptFilePath > :after ORDER BY e.receiptFilePath")
+    List<String> findReceiptKeysAfter(@Param("after") String after, Pageable limit);
+    
+    @Query("SELECT DISTINCT e.thumbnailPath FROM Expense e " +
+           "WHERE e.thumbnailPath IS NOT NULL AND e.thumbnailPath > :after ORDER BY e.thumbnailPath")
+    List<String> findThumbnailKeysAfter(@Param("after") String after, Pageable limit);
+    
+    // Keyset pagination over (submittedAt DESC, id DESC). The Pageable only carries the
+    // row limit; the position comes from the seek predicate so no OFFSET is ever issued.
+    
+    @EntityGraph(attributePaths = {"employee", "approvedBy"})
+    @Query("SELECT e FROM Expense e ORDER BY e.submittedAt DESC, e.id DESC")
+    List<Expense> findFirstPage(Pageable limit);
+    
+    @EntityGraph(attributePaths = {"employee", "approvedBy"})
+    @Query("SELECT e FROM Expense e WHERE e.submittedAt < :submittedAt " +
+           "OR (e.submittedAt = :submittedAt AND e.id < :id) " +
+           "ORDER BY e.submittedAt DESC, e.id DESC")
+    List<Expense> findPageAfter(@Param("submittedAt") LocalDateTime submittedAt,
+                                @Param("id") Long id, Pageable limit);
+    
+    @EntityGraph(attributePaths = {"employee", "approvedBy"})
+    @Query("SELECT e FROM Expense e WHERE e.submittedAt > :submittedAt " +
+           "OR (e.submittedAt = :submittedAt AND e.id > :id) " +
+           "ORDER BY e.submittedAt ASC, e.id ASC")
+    List<Expense> findPageBefore(@Param("submittedAt") LocalDateTime submittedAt,
+                                 @Param("id") Long id, Pageable limit);
+    
+    @EntityGraph(attributePaths = {"employee", "approvedBy"})
+    @Query("SELECT e FROM Expense e WHERE e.status = :status ORDER BY e.submittedAt DESC, e.id DESC")
+    List<Expense> findFirstPageByStatus(@Param("status") Expense.Status status, Pageable limit);
+    
+    @EntityGraph(attributePaths = {"employee", "approvedBy"})
+    @Query("SELECT e FROM Expense e WHERE e.status = :status AND (e.submittedAt < :submittedAt " +
+           "OR (e.submittedAt = :submittedAt AND e.id < :id)) " +
+           "ORDER BY e.submittedAt DESC, e.id DESC")
+    List<Expense> findPageByStatusAfter(@Param("status") Expense.Status status,
+                                        @Param("submittedAt") LocalDateTime submittedAt,
+                                        @Param("id") Long id, Pageable limit);
+    
+    @EntityGraph(attributePaths = {"employee", "approvedBy"})
+    @Query("SELECT e FROM Expense e WHERE e.status = :status AND (e.submittedAt > :submittedAt " +
+           "OR (e.submittedAt = :submittedAt AND e.id > :id)) " +
+           "ORDER BY e.submittedAt ASC, e.id ASC")
+    List<Expense> findPageByStatusBefore(@Param("status") Expense.Status status,
+                                         @Param("submittedAt") LocalDateTime submittedAt,
+                                         @Param("id") Long id, Pageable limit);
+    
+    // Export streams: rows are pulled through a server-side cursor (useCursorFetch on the
+    // JDBC URL) in fetch-size batches, so memory stays flat regardless of table size.
+    
+    String EXPORT_SELECT = "SELECT new com.expense.reimbursement.dto.ExpenseExportRow(" +
+            "e.id, emp.name, emp.email, emp.department, e.description, e.amount, e.expenseDate, " +
+            "e.category, e.status, e.submittedAt, e.approvedAt, ap.name) " +
+            "FROM Expense e JOIN e.employee emp LEFT JOIN e.approvedBy ap ";
+    
+    // One statement for every filter combination: a null parameter switches its predicate off
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(EXPORT_SELECT + "WHERE (:status IS NULL OR e.status = :status) " +
+           "AND (:from IS NULL OR e.expenseDate >= :from) AND (:to IS NULL OR e.expenseDate <= :to) " +
+           "AND (:category IS NULL OR e.category = :category) " +
+           "AND (:department IS NULL OR emp.department = :department) " +
+           "ORDER BY e.submittedAt DESC, e.id DESC")
+    Stream<ExpenseExportRow> streamForExport(@Param("status") Expense.Status status,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to,
+                                             @Param("category") Expense.Category category,
+                                             @Param("department") String department);
+    
+    // Search index feed: current state of given expenses, and id-range slices for a reindex
+    
+    String INDEX_SELECT = "SELECT new com.expense.reimbursement.dto.ExpenseIndexRow(" +
+            "e.id, e.description, e.comments, emp.name, emp.department, e.category, e.status, " +
+            "e.amount, e.expenseDate, e.submittedAt) " +
+            "FROM Expense e JOIN e.employee emp ";
+    
+    @Query(INDEX_SELECT + "WHERE e.id IN :ids")
+    List<ExpenseIndexRow> findIndexRows(@Param("ids") Collection<Long> ids);
+    
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query(INDEX_SELECT + "WHERE e.id > :after AND e.id <= :upTo ORDER BY e.id")
+    List<ExpenseIndexRow> findIndexRowsBetween(@Param("after") long after, @Param("upTo") long upTo, Pageable limit);
+    
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM Expense e")
+    long findMaxId();
+    
+    // Duplicate detection: the fields a claim is fingerprinted on
+    
+    String FINGERPRINT_SELECT = "SELECT new com.expense.reimbursement.dto.ExpenseFingerprintRow(" +
+            "e.id, e.employee.id, e.amount, e.expenseDate, e.category, e.receiptFilePath) FROM Expense e ";
+    
+    @Query(FINGERPRINT_SELECT + "WHERE e.id = :id")
+    Optional<ExpenseFingerprintRow> findFingerprintRow(@Param("id") Long id);
+    
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query(FINGERPRINT_SELECT + "WHERE e.id IN :ids")
+    List<ExpenseFingerprintRow> findFingerprintRows(@Param("ids") Collection<Long> ids);
+    
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query(FINGERPRINT_SELECT + "WHERE e.id > :after AND e.id <= :upTo AND e.expenseDate >= :since ORDER BY e.id")
+    List<ExpenseFingerprintRow> findFingerprintRowsBetween(@Param("after") long after, @Param("upTo") long upTo,
+                                                           @Param("since") LocalDate since, Pageable limit);
+    
+    // Only the first match sticks, so a rescan never rewrites a flag
+    @Modifying
+    @Query("UPDATE Expense e SET e.flagReason = :reason, e.duplicateOf = :duplicateOf " +
+           "WHERE e.id = :id AND e.flagReason IS NULL")
+    int flagDuplicate(@Param("id") Long id, @Param("reason") Expense.FlagReason reason,
+                      @Param("duplicateOf") Long duplicateOf);
+
+    // Archival: oldest decided rows first, read off idx_expenses_status_submitted and locked
+    // until the batch has been copied and deleted. Rows still in an inbox or waiting on a
+    // thumbnail stay behind.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.id FROM Expense e WHERE e.status = :status AND e.submittedAt < :before " +
+           "AND e.thumbnailStatus <> :thumbnailPending " +
+           "AND NOT EXISTS (SELECT 1 FROM ApprovalInboxItem i WHERE i.expenseId = e.id) " +
+           "ORDER BY e.submittedAt, e.id")
+    List<Long> lockArchivableIds(@Param("status") Expense.Status status, @Param("before") LocalDateTime before,
+                                 @Param("thumbnailPending") Expense.ThumbnailStatus thumbnailPending,
+                                 Pageable limit);
+
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,49 @@
+package com.expense.reimbursement.repository;
+
+import com.expense.reimbursement.dto.StatusCount;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.model.ExpenseStatusCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExpenseStatusCounterRepository extends JpaRepository<ExpenseStatusCounter, ExpenseStatusCounter.Key> {
+    List<ExpenseStatusCounter> findByEmployeeId(Long employeeId);
+    
+    @Query("SELECT COALESCE(SUM(c.count), 0) FROM ExpenseStatusCounter c WHERE c.status = :status")
+    long sumByStatus(@Param("status") Expense.Status status);
+    
+    @Query("SELECT c.status AS status, SUM(c.count) AS total FROM ExpenseStatusCounter c GROUP BY c.status")
+    List<StatusCount> sumGroupByStatus();
+    
+    // Upsert so the first expense of an employee and concurrent writers both land on one row
+    @Modifying
+    @Query(value = "INSERT INTO expense_status_counters (employee_id, status, expense_count) " +
+                   "VALUES (:employeeId, :status, :delta) " +
+                   "ON DUPLICATE KEY UPDATE expense_count = expense_count + :delta", nativeQuery = true)
+    int addToCount(@Param("employeeId") Long employeeId, @Param("status") String status, @Param("delta") long delta);
+    
+    // Taken first in each rebuild batch so writers to these employees queue behind it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ExpenseStatusCounter c WHERE c.employeeId IN :employeeIds")
+    List<ExpenseStatusCounter> lockByEmployeeIdIn(@Param("employeeIds") Collection<Long> employeeIds);
+    
+    @Modifying
+    @Query(value = "DELETE FROM expense_status_counters WHERE employee_id IN (:employeeIds)", nativeQuery = true)
+    int deleteByEmployeeIdIn(@Param("employeeIds") Collection<Long> employeeIds);
+    
+    // Archived expenses still count, so the rebuild reads both tables
+    @Query(value = "SELECT employee_id, status, COUNT(*) FROM (" +
+                   "SELECT employee_id, status FROM expenses WHERE employee_id IN (:employeeIds) " +
+                   "UNION ALL SELECT employee_id, status FROM expenses_archive WHERE employee_id IN (:employeeIds)) x " +
+                   "GROUP BY employee_id, status", nativeQuery = true)
+    List<Object[]> countFromExpenses(@Param("employeeIds") Collection<Long> employeeIds);
+}
@@ -0,0 +1,62 @@
+package com.expense.reimbursement.repository;
+
+import com.expense.reimbursement.model.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<OutboxMessage, Long> {
+    
+    // One statement per sink for any number of expenses, copying the recipient details in
+    @Modifying
+    @Query(value = "INSERT INTO notification_outbox (sink, event_type, expense_id, employee_id, employee_name, " +
+                   "employee_email, description, category, amount, actor_id, occurred_at, status, attempts, " +
+                   "next_attempt_at) " +
+                   "SELECT :sink, :eventType, e.id, s.id, s.name, s.email, e.description, e.category, e.amount, " +
+                   ":actorId, :occurredAt, 'PENDING', 0, :occurredAt " +
+                   "FROM expenses e JOIN employees s ON s.id = e.employee_id WHERE e.id IN :expenseIds",
+           nativeQuery = true)
+    int enqueue(@Param("sink") String sink, @Param("eventType") String eventType,
+                @Param("expenseIds") Collection<Long> expenseIds, @Param("actorId") Long actorId,
+                @Param("occurredAt") LocalDateTime occurredAt);
+    
+    // Oldest due first, read straight off idx_notification_outbox_due
+    @Query("SELECT m.id FROM OutboxMessage m WHERE m.sink = :sink AND m.status = :status " +
+           "AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt, m.id")
+    List<Long> findDueIds(@Param("sink") String sink, @Param("status") OutboxMessage.Status status,
+                          @Param("now") LocalDateTime now, Pageable limit);
+    
+    /**
+     * Takes the rows that are still due, so of several nodes reading the same ids only
+     * one gets each. Counts the attempt up front: a row whose delivery never reports back
+     * is retried after the lease and eventually marked FAILED.
+     */
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.claimToken = :token, m.nextAttemptAt = :leaseUntil, " +
+           "m.attempts = m.attempts + 1 " +
+           "WHERE m.id IN :ids AND m.status = :status AND m.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids, @Param("status") OutboxMessage.Status status,
+              @Param("token") String token, @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    @Query("SELECT m FROM OutboxMessage m WHERE m.id IN :ids AND m.claimToken = :token ORDER BY m.nextAttemptAt, m.id")
+    List<OutboxMessage> findClaimed(@Param("ids") Collection<Long> ids, @Param("token") String token);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxMessage m WHERE m.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = :status, m.nextAttemptAt = :nextAttemptAt, " +
+           "m.lastError = :error, m.claimToken = NULL WHERE m.id = :id")
+    int reschedule(@Param("id") Long id, @Param("status") OutboxMessage.Status status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+}
@@ -0,0 +1,37 @@
+package com.expense.reimbursement.repository;
+
+import com.expense.reimbursement.model.Receipt;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ReceiptRepository extends JpaRepository<Receipt, String> {
+    
+    // Concurrent uploads of the same content all land on one row
+    @Modifying
+    @Query(value = "INSERT INTO receipts (sha256, storage_path, size_bytes, ref_count, created_at) " +
+                   "VALUES (:sha256, :storagePath, :sizeBytes, 1, NOW(6)) " +
+                   "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+    int addReference(@Param("sha256") String sha256, @Param("storagePath") String storagePath,
+                     @Param("sizeBytes") long sizeBytes);
+    
+    @Modifying
+    @Query("UPDATE Receipt r SET r.refCount = r.refCount - 1 WHERE r.sha256 = :sha256 AND r.refCount > 0")
+    int removeReference(@Param("sha256") String sha256);
+    
+    @Modifying
+    @Query("DELETE FROM Receipt r WHERE r.sha256 = :sha256 AND r.refCount = 0")
+    int deleteIfUnreferenced(@Param("sha256") String sha256);
+    
+    // Also locks the gap when the row is gone, so an upload of the same content waits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Receipt r WHERE r.sha256 = :sha256")
+    Optional<Receipt> lockBySha256(@Param("sha256") String sha256);
+}
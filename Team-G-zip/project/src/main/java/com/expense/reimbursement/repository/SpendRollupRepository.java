@@ -0,0 +1,88 @@
+package com.expense.reimbursement.repository;
+
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.model.SpendRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SpendRollupRepository extends JpaRepository<SpendRollup, SpendRollup.Key> {
+    
+    // Rows of the expenses as they are now, grouped to rollup keys and counted under :status
+    // with :sign (+1 or -1). The status column of the expenses is not read, so this works
+    // both before and after a transition.
+    @Modifying
+    @Query(value = "INSERT INTO spend_rollups (month_start, department, category, status, amount_cents, expense_count) " +
+                   "SELECT d.month_start, d.department, d.category, :status, d.cents, d.cnt FROM (" +
+                   "  SELECT DATE_SUB(x.expense_date, INTERVAL DAYOFMONTH(x.expense_date) - 1 DAY) AS month_start, " +
+                   "         emp.department AS department, x.category AS category, " +
+                   "         :sign * SUM(CAST(x.amount * 100 AS SIGNED)) AS cents, :sign * COUNT(*) AS cnt " +
+                   "  FROM expenses x JOIN employees emp ON emp.id = x.employee_id " +
+                   "  WHERE x.id IN (:ids) GROUP BY month_start, department, category) AS d " +
+                   "ON DUPLICATE KEY UPDATE amount_cents = spend_rollups.amount_cents + d.cents, " +
+                   "expense_count = spend_rollups.expense_count + d.cnt", nativeQuery = true)
+    int addExpenses(@Param("ids") Collection<Long> ids, @Param("status") String status, @Param("sign") int sign);
+    
+    // Months with any expense, as yyyyMM
+    @Query("SELECT DISTINCT extract(year from e.expenseDate) * 100 + extract(month from e.expenseDate) FROM Expense e")
+    List<Integer> findExpenseMonths();
+    
+    @Query("SELECT DISTINCT extract(year from e.expenseDate) * 100 + extract(month from e.expenseDate) FROM ArchivedExpense e")
+    List<Integer> findArchivedExpenseMonths();
+    
+    @Query("SELECT DISTINCT r.monthStart FROM SpendRollup r")
+    List<LocalDate> findRollupMonths();
+    
+    @Modifying
+    @Query(value = "DELETE FROM spend_rollups WHERE month_start = :monthStart", nativeQuery = true)
+    int deleteMonth(@Param("monthStart") LocalDate monthStart);
+    
+    @Modifying
+    @Query(value = "INSERT INTO spend_rollups (month_start, department, category, status, amount_cents, expense_count) " +
+                   "SELECT :monthStart, emp.department, x.category, x.status, " +
+                   "       SUM(CAST(x.amount * 100 AS SIGNED)), COUNT(*) " +
+                   "FROM (SELECT employee_id, category, status, amount FROM expenses " +
+                   "      WHERE expense_date >= :monthStart AND expense_date < :nextMonth " +
+                   "      UNION ALL SELECT employee_id, category, status, amount FROM expenses_archive " +
+                   "      WHERE expense_date >= :monthStart AND expense_date < :nextMonth) x " +
+                   "JOIN employees emp ON emp.id = x.employee_id " +
+                   "GROUP BY emp.department, x.category, x.status", nativeQuery = true)
+    int rebuildMonth(@Param("monthStart") LocalDate monthStart, @Param("nextMonth") LocalDate nextMonth);
+    
+    @Query("SELECT r FROM SpendRollup r WHERE r.monthStart >= :from AND r.monthStart < :to " +
+           "AND (:department IS NULL OR r.department = :department) " +
+           "AND (:category IS NULL OR r.category = :category) " +
+           "AND (:status IS NULL OR r.status = :status) " +
+           "ORDER BY r.monthStart DESC, r.department, r.category, r.status")
+    List<SpendRollup> findReport(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                 @Param("department") String department,
+                                 @Param("category") Expense.Category category,
+                                 @Param("status") Expense.Status status);
+    
+    // The same report computed from the expenses tables (archive included), kept for
+    // comparison with the rollup
+    @Query(value = "SELECT DATE_SUB(x.expense_date, INTERVAL DAYOFMONTH(x.expense_date) - 1 DAY) AS month_start, " +
+                   "       emp.department, x.category, x.status, " +
+                   "       SUM(CAST(x.amount * 100 AS SIGNED)), COUNT(*) " +
+                   "FROM (SELECT employee_id, expense_date, category, status, amount FROM expenses " +
+                   "      WHERE expense_date >= :from AND expense_date < :to " +
+                   "      UNION ALL SELECT employee_id, expense_date, category, status, amount FROM expenses_archive " +
+                   "      WHERE expense_date >= :from AND expense_date < :to) x " +
+                   "JOIN employees emp ON emp.id = x.employee_id " +
+                   "WHERE (:department IS NULL OR emp.department = :department) " +
+                   "AND (:category IS NULL OR x.category = :category) " +
+                   "AND (:status IS NULL OR x.status = :status) " +
+                   "GROUP BY month_start, emp.department, x.category, x.status " +
+                   "ORDER BY month_start DESC, emp.department, x.category, x.status", nativeQuery = true)
+    List<Object[]> findLiveReport(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                  @Param("department") String department,
+                                  @Param("category") String category,
+                                  @Param("status") String status);
+}
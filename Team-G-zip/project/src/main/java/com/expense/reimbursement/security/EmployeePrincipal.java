@@ -0,0 +1,49 @@
+package com.expense.reimbursement.security;
+
+import com.expense.reimbursement.model.Employee;
+
+import java.io.Serializable;
+
+/**
+ * What the session remembers about a logged-in employee. Kept deliberately small and
+ * immutable: it is serialized into every session (and into the session table when the
+ * JDBC store is used), unlike the full Employee entity with its password hash and
+ * lazy expense collection.
+ */
+public final class EmployeePrincipal implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final Long id;
+    private final String name;
+    private final Employee.Role role;
+    private final String department;
+    
+    public EmployeePrincipal(Long id, String name, Employee.Role role, String department) {
+        this.id = id;
+        this.name = name;
+        this.role = role;
+        this.department = department;
+    }
+    
+    public static EmployeePrincipal of(Employee employee) {
+        return new EmployeePrincipal(employee.getId(), employee.getName(), employee.getRole(), employee.getDepartment());
+    }
+    
+    public Long getId() { return id; }
+    
+    public String getName() { return name; }
+    
+    public Employee.Role getRole() { return role; }
+    
+    public String getDepartment() { return department; }
+    
+    public boolean isManager() {
+        return role == Employee.Role.MANAGER;
+    }
+    
+    // Managers and admins both work approval inboxes
+    public boolean isApprover() {
+        return role == Employee.Role.MANAGER || role == Employee.Role.ADMIN;
+    }
+}
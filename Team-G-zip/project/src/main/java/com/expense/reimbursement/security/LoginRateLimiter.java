@@ -0,0 +1,85 @@
+package com.expense.reimbursement.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets in front of login, one per email and one per client IP. Idle buckets
+ * expire, so memory is bounded by the number of recently active keys.
+ */
+@Component
+public class LoginRateLimiter {
+    
+    private final Cache<String, TokenBucket> emailBuckets;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final int emailCapacity;
+    private final int emailRefillPerMinute;
+    private final int ipCapacity;
+    private final int ipRefillPerMinute;
+    
+    public LoginRateLimiter(@Value("${expense.security.login-rate.email.capacity:5}") int emailCapacity,
+                            @Value("${expense.security.login-rate.email.refill-per-minute:5}") int emailRefillPerMinute,
+                            @Value("${expense.security.login-rate.ip.capacity:30}") int ipCapacity,
+                            @Value("${expense.security.login-rate.ip.refill-per-minute:30}") int ipRefillPerMinute) {
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPerMinute = emailRefillPerMinute;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerMinute = ipRefillPerMinute;
+        this.emailBuckets = Caffeine.newBuilder().expireAfterAccess(Duration.ofMinutes(15)).maximumSize(100_000).build();
+        this.ipBuckets = Caffeine.newBuilder().expireAfterAccess(Duration.ofMinutes(15)).maximumSize(100_000).build();
+    }
+    
+    /**
+     * Takes one token from the IP bucket, then from the email bucket; throws as soon as
+     * either is empty.
+     */
+    public void acquire(String email, String clientIp) {
+        TokenBucket ipBucket = ipBuckets.get(clientIp, k -> new TokenBucket(ipCapacity, ipRefillPerMinute));
+        if (!ipBucket.tryConsume()) {
+            throw new LoginThrottledException("Too many login attempts from this address");
+        }
+        String key = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+        TokenBucket emailBucket = emailBuckets.get(key, k -> new TokenBucket(emailCapacity, emailRefillPerMinute));
+        if (!emailBucket.tryConsume()) {
+            throw new LoginThrottledException("Too many login attempts for this account");
+        }
+    }
+    
+    static final class TokenBucket {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+        
+        TokenBucket(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+        
+        // A lock rather than synchronized, so virtual threads never pin their carrier here
+        boolean tryConsume() {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+                lastRefill = now;
+                if (tokens < 1) {
+                    return false;
+                }
+                tokens -= 1;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
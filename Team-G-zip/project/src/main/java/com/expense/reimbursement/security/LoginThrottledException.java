@@ -0,0 +1,12 @@
+package com.expense.reimbursement.security;
+
+/**
+ * Thrown when a login attempt is turned away before any password hashing happens,
+ * either by a rate limit or because the verification pool is saturated.
+ */
+public class LoginThrottledException extends RuntimeException {
+    
+    public LoginThrottledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,82 @@
+package com.expense.reimbursement.security;
+
+import com.expense.reimbursement.config.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs password hash checks, and the re-hashes that follow a cost increase, on a small
+ * dedicated pool with a bounded queue. A burst of logins can then occupy at most
+ * {@code threads} cores; once the queue is full further attempts are rejected
+ * immediately instead of piling up behind BCrypt.
+ */
+@Component
+public class PasswordVerifier {
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    
+    public PasswordVerifier(@Value("${expense.security.password-verify.threads:0}") int threads,
+                            @Value("${expense.security.password-verify.queue-capacity:64}") int queueCapacity,
+                            @Value("${expense.security.password-verify.timeout-ms:2000}") long timeoutMillis) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        // BCrypt is pure CPU, so this pool stays on platform threads even in virtual-thread mode
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                ThreadFactories.named("password-verify", false),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword), "verification");
+    }
+    
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword), "hashing");
+    }
+    
+    private <T> T run(Callable<T> task, String action) {
+        Future<T> result;
+        try {
+            result = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new LoginThrottledException("Too many login attempts in progress");
+        }
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new LoginThrottledException("Password " + action + " timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoginThrottledException("Password " + action + " interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password " + action + " failed", e.getCause());
+        }
+    }
+    
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,248 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.dto.ApproverCount;
+import com.expense.reimbursement.dto.ApproverRef;
+import com.expense.reimbursement.dto.ExpenseRoutingRef;
+import com.expense.reimbursement.model.ApprovalInboxItem;
+import com.expense.reimbursement.model.ApprovalRule;
+import com.expense.reimbursement.model.Employee;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.repository.ApprovalInboxRepository;
+import com.expense.reimbursement.repository.ApprovalRuleRepository;
+import com.expense.reimbursement.repository.EmployeeRepository;
+import com.expense.reimbursement.repository.ExpenseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Routes PENDING expenses through their approval levels. Each level's approvers come
+ * from the first matching ApprovalRule (department managers when none matches) and get
+ * a row in their approval inbox; deciding or forwarding an expense clears its rows.
+ * Rules and the directory of managers and admins are held in memory and reloaded
+ * periodically, so routing costs no lookups beyond the inbox writes.
+ * <p>
+ * Nobody is left without an approver: when a rule resolves to no one but the submitter,
+ * the expense goes to every manager, then to every admin.
+ */
+@Service
+public class ApprovalWorkflowService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ApprovalWorkflowService.class);
+    
+    @Autowired
+    private ApprovalRuleRepository ruleRepository;
+    
+    @Autowired
+    private ApprovalInboxRepository inboxRepository;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${expense.duplicates.hold:false}")
+    private boolean holdDuplicates;
+    
+    private record Directory(Map<String, List<Long>> managersByDepartment, List<Long> managers, List<Long> admins) {}
+    
+    private volatile List<ApprovalRule> rules = List.of();
+    private volatile Directory directory = new Directory(Map.of(), List.of(), List.of());
+    
+    @PostConstruct
+    public void initialize() {
+        reload();
+    }
+    
+    @Scheduled(fixedDelayString = "${expense.approvals.reload-ms:60000}",
+               initialDelayString = "${expense.approvals.reload-ms:60000}")
+    public void reload() {
+        List<ApprovalRule> loadedRules = List.copyOf(ruleRepository.findAllByOrderByLevelAscPriorityAscIdAsc());
+        Map<String, List<Long>> managersByDepartment = new HashMap<>();
+        List<Long> managers = new ArrayList<>();
+        List<Long> admins = new ArrayList<>();
+        for (ApproverRef approver : employeeRepository.findApprovers(EnumSet.of(Employee.Role.MANAGER, Employee.Role.ADMIN))) {
+            if (approver.getRole() == Employee.Role.ADMIN) {
+                admins.add(approver.getId());
+            } else {
+                managers.add(approver.getId());
+                managersByDepartment.computeIfAbsent(approver.getDepartment(), d -> new ArrayList<>()).add(approver.getId());
+            }
+        }
+        managersByDepartment.replaceAll((department, ids) -> List.copyOf(ids));
+        rules = loadedRules;
+        directory = new Directory(managersByDepartment, List.copyOf(managers), List.copyOf(admins));
+    }
+    
+    /**
+     * Sets the levels on a new expense before it is inserted: the highest level with a
+     * matching rule, and at least one.
+     */
+    public void prepare(Expense expense) {
+        expense.setApprovalLevel(1);
+        expense.setApprovalLevels(levelsFor(expense.getEmployee().getDepartment(), expense.getCategory(), expense.getAmount()));
+    }
+    
+    public int levelsFor(String department, Expense.Category category, BigDecimal amount) {
+        int levels = 1;
+        for (ApprovalRule rule : rules) {
+            if (rule.getLevel() > levels && rule.matches(department, category, amount)) {
+                levels = rule.getLevel();
+            }
+        }
+        return levels;
+    }
+    
+    /**
+     * Queues a newly saved expense for its first-level approvers and returns them.
+     */
+    public List<Long> enqueue(Expense expense) {
+        Employee submitter = expense.getEmployee();
+        List<Long> approvers = firstApprovers(expense, submitter.getId(), submitter.getDepartment());
+        insert(expense.getId(), expense.getSubmittedAt(), expense.getApprovalLevel(), approvers);
+        return approvers;
+    }
+    
+    /**
+     * Queues newly inserted expenses for their first-level approvers as batched inserts,
+     * for imports where one statement per expense would dominate. The expenses must
+     * already be flushed; {@code departments} maps each submitter to their department.
+     */
+    public void enqueueAll(List<Expense> expenses, Map<Long, String> departments) {
+        for (Expense expense : expenses) {
+            Long submitterId = expense.getEmployee().getId();
+            List<Long> approvers = firstApprovers(expense, submitterId, departments.get(submitterId));
+            if (approvers.isEmpty()) {
+                log.warn("No approver available for expense {} at level {}", expense.getId(), expense.getApprovalLevel());
+            }
+            for (Long approverId : approvers) {
+                entityManager.persist(new ApprovalInboxItem(approverId, expense.getSubmittedAt(), expense.getId(),
+                        expense.getApprovalLevel()));
+            }
+        }
+        entityManager.flush();
+    }
+    
+    /**
+     * Queues expenses that just moved up a level for that level's approvers. Returns the
+     * approvers per expense.
+     */
+    public Map<Long, List<Long>> enqueueCurrentLevel(Collection<Long> expenseIds) {
+        Map<Long, List<Long>> routed = new LinkedHashMap<>();
+        for (ExpenseRoutingRef ref : expenseRepository.findRoutingRefs(expenseIds)) {
+            List<Long> approvers = resolveApprovers(ref.getApprovalLevel(), ref.getEmployeeId(), ref.getDepartment(),
+                    ref.getCategory(), ref.getAmount());
+            insert(ref.getId(), ref.getSubmittedAt(), ref.getApprovalLevel(), approvers);
+            routed.put(ref.getId(), approvers);
+        }
+        return routed;
+    }
+    
+    /**
+     * Takes expenses out of every inbox holding them and returns the approvers affected.
+     */
+    public List<Long> dequeue(Collection<Long> expenseIds) {
+        List<Long> approvers = inboxRepository.findApproverIds(expenseIds);
+        inboxRepository.deleteByExpenseIds(expenseIds);
+        return approvers;
+    }
+    
+    public Set<Long> assignedTo(Long approverId, Collection<Long> expenseIds) {
+        return new HashSet<>(inboxRepository.findAssignedExpenseIds(approverId, expenseIds));
+    }
+    
+    public long countInbox(Long approverId) {
+        return inboxRepository.countByApproverId(approverId);
+    }
+    
+    public Map<Long, Long> countInboxes(Collection<Long> approverIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (approverIds.isEmpty()) {
+            return counts;
+        }
+        approverIds.forEach(id -> counts.put(id, 0L));
+        for (ApproverCount row : inboxRepository.countByApproverIds(approverIds)) {
+            counts.put(row.getApproverId(), row.getTotal());
+        }
+        return counts;
+    }
+    
+    // With expense.duplicates.hold, a flagged duplicate waits for an admin before the usual approvers
+    private List<Long> firstApprovers(Expense expense, Long submitterId, String department) {
+        if (holdDuplicates && expense.getFlagReason() != null) {
+            List<Long> admins = without(directory.admins(), submitterId);
+            if (!admins.isEmpty()) {
+                return admins;
+            }
+        }
+        return resolveApprovers(expense.getApprovalLevel(), submitterId, department, expense.getCategory(), expense.getAmount());
+    }
+    
+    private List<Long> resolveApprovers(int level, Long submitterId, String department, Expense.Category category, BigDecimal amount) {
+        Directory dir = directory;
+        ApprovalRule rule = null;
+        for (ApprovalRule candidate : rules) {
+            if (candidate.getLevel() == level && candidate.matches(department, category, amount)) {
+                rule = candidate;
+                break;
+            }
+        }
+        
+        List<Long> candidates;
+        if (rule != null && rule.getApproverId() != null) {
+            candidates = List.of(rule.getApproverId());
+        } else if (rule != null && rule.getApproverRole() == Employee.Role.ADMIN) {
+            candidates = dir.admins();
+        } else {
+            candidates = dir.managersByDepartment().getOrDefault(department, List.of());
+        }
+        
+        List<Long> approvers = without(candidates, submitterId);
+        if (approvers.isEmpty()) {
+            approvers = without(dir.managers(), submitterId);
+        }
+        if (approvers.isEmpty()) {
+            approvers = without(dir.admins(), submitterId);
+        }
+        return approvers;
+    }
+    
+    private void insert(Long expenseId, LocalDateTime submittedAt, int level, List<Long> approvers) {
+        if (approvers.isEmpty()) {
+            log.warn("No approver available for expense {} at level {}", expenseId, level);
+            return;
+        }
+        inboxRepository.enqueue(expenseId, submittedAt, level, approvers);
+    }
+    
+    private static List<Long> without(List<Long> ids, Long excluded) {
+        if (!ids.contains(excluded)) {
+            return ids;
+        }
+        List<Long> rest = new ArrayList<>(ids);
+        rest.remove(excluded);
+        return rest;
+    }
+}
@@ -0,0 +1,489 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.config.ThreadFactories;
+import com.expense.reimbursement.dto.ExpenseFingerprintRow;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.repository.ExpenseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Flags likely duplicate claims as they are submitted: the same employee, amount, date
+ * and category as an earlier expense, or the same receipt content (receipts are stored
+ * under their SHA-256). Both are looked up in memory, in primitive long-to-long maps
+ * from a 64-bit fingerprint to the earliest expense with it, covering expense dates in
+ * the last {@code window-days}. A fingerprint hit is confirmed against that expense's
+ * row before flagging, by submissions and rescans alike, so a collision never flags
+ * anything. Saved expenses join the maps when their transaction commits.
+ * <p>
+ * A rescan rebuilds the maps from the table in parallel id slices on a fork-join pool
+ * and flags the duplicates it finds on the way, at startup and nightly.
+ */
+@Service
+public class DuplicateDetectionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(DuplicateDetectionService.class);
+    
+    // No fingerprint: no receipt, or one stored before receipts were content-addressed
+    private static final long NONE = 0L;
+    private static final int FLAG_BATCH_SIZE = 500;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${expense.duplicates.window-days:400}")
+    private int windowDays;
+    
+    @Value("${expense.duplicates.rescan-threads:4}")
+    private int rescanThreads;
+    
+    @Value("${expense.duplicates.rescan-slice:50000}")
+    private long rescanSlice;
+    
+    @Value("${expense.duplicates.rescan-batch-size:5000}")
+    private int rescanBatchSize;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Long2LongOpenHashMap claims = newMap(0);
+    private Long2LongOpenHashMap receipts = newMap(0);
+    // (fingerprint, id) pairs recorded while a rescan builds new maps, replayed into them
+    private LongArrayList claimsSinceRescan;
+    private LongArrayList receiptsSinceRescan;
+    private final AtomicBoolean rescanning = new AtomicBoolean();
+    private final Timer checkTimer;
+    private final Counter flaggedClaims;
+    private final Counter flaggedReceipts;
+    
+    public DuplicateDetectionService(MeterRegistry meterRegistry) {
+        this.checkTimer = Timer.builder("expenses.duplicates.check")
+                .description("Duplicate check per submitted expense")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.flaggedClaims = Counter.builder("expenses.duplicates.flagged")
+                .description("Submissions flagged as possible duplicates")
+                .tag("reason", Expense.FlagReason.DUPLICATE_CLAIM.name())
+                .register(meterRegistry);
+        this.flaggedReceipts = Counter.builder("expenses.duplicates.flagged")
+                .description("Submissions flagged as possible duplicates")
+                .tag("reason", Expense.FlagReason.DUPLICATE_RECEIPT.name())
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Sets the flag on a new expense, before it is saved, when it repeats an earlier
+     * claim or receipt. The employee must be set.
+     */
+    public void check(Expense expense) {
+        long start = System.nanoTime();
+        long claim = claimKey(expense.getEmployee().getId(), expense.getAmount(), expense.getExpenseDate(),
+                expense.getCategory());
+        long receipt = receiptKey(expense.getReceiptFilePath());
+        long claimMatch;
+        long receiptMatch;
+        lock.readLock().lock();
+        try {
+            claimMatch = claim == NONE ? 0 : claims.get(claim);
+            receiptMatch = receipt == NONE ? 0 : receipts.get(receipt);
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Expenses saved earlier in this transaction are not in the shared maps yet
+        Pending pending = TransactionSynchronizationManager.isSynchronizationActive()
+                ? (Pending) TransactionSynchronizationManager.getResource(this) : null;
+        if (pending != null) {
+            claimMatch = claimMatch != 0 || claim == NONE ? claimMatch : pending.claims.get(claim);
+            receiptMatch = receiptMatch != 0 || receipt == NONE ? receiptMatch : pending.receipts.get(receipt);
+        }
+        
+        if (claimMatch != 0 && confirm(claimMatch, row -> sameClaim(row, expense))) {
+            flag(expense, Expense.FlagReason.DUPLICATE_CLAIM, claimMatch);
+            flaggedClaims.increment();
+        } else if (receiptMatch != 0 && confirm(receiptMatch,
+                row -> Objects.equals(row.receiptFilePath(), expense.getReceiptFilePath()))) {
+            flag(expense, Expense.FlagReason.DUPLICATE_RECEIPT, receiptMatch);
+            flaggedReceipts.increment();
+        }
+        checkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Adds a saved expense to the index, so later submissions are checked against it.
+     * Inside a transaction it is added once that commits, so a rolled-back expense never
+     * holds a fingerprint; until then only checks in the same transaction see it. The
+     * earliest expense with a fingerprint stays the one matched.
+     */
+    public void record(Expense expense) {
+        long claim = claimKey(expense.getEmployee().getId(), expense.getAmount(), expense.getExpenseDate(),
+                expense.getCategory());
+        long receipt = receiptKey(expense.getReceiptFilePath());
+        long id = expense.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(claim, receipt, id);
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        if (claim != NONE) {
+            pending.claims.putIfAbsent(claim, id);
+        }
+        if (receipt != NONE) {
+            pending.receipts.putIfAbsent(receipt, id);
+        }
+    }
+    
+    private void add(long claim, long receipt, long id) {
+        lock.writeLock().lock();
+        try {
+            if (claim != NONE) {
+                claims.putIfAbsent(claim, id);
+                if (claimsSinceRescan != null) {
+                    claimsSinceRescan.add(claim);
+                    claimsSinceRescan.add(id);
+                }
+            }
+            if (receipt != NONE) {
+                receipts.putIfAbsent(receipt, id);
+                if (receiptsSinceRescan != null) {
+                    receiptsSinceRescan.add(receipt);
+                    receiptsSinceRescan.add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return claims.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Starts a rescan in the background.
+     *
+     * @return false when one is already running
+     */
+    public boolean rescanAsync() {
+        if (!rescanning.compareAndSet(false, true)) {
+            return false;
+        }
+        ThreadFactories.named("duplicate-rescan", virtualThreads).newThread(() -> {
+            try {
+                rescan();
+            } catch (Exception e) {
+                log.error("Duplicate rescan failed", e);
+            } finally {
+                rescanning.set(false);
+            }
+        }).start();
+        return true;
+    }
+    
+    public boolean isRescanning() {
+        return rescanning.get();
+    }
+    
+    @Scheduled(cron = "${expense.duplicates.rescan-cron:0 15 4 * * *}")
+    public void scheduledRescan() {
+        rescanAsync();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rescanAsync();
+    }
+    
+    /**
+     * Rebuilds the index over the window and flags the duplicates in it that are not
+     * flagged yet. Returns the number newly flagged.
+     */
+    public int rescan() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            claimsSinceRescan = new LongArrayList();
+            receiptsSinceRescan = new LongArrayList();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        Scan scan;
+        LocalDate since = LocalDate.now().minusDays(windowDays);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, rescanThreads));
+        try {
+            scan = pool.invoke(new ScanTask(0, expenseRepository.findMaxId(), since));
+        } finally {
+            pool.shutdown();
+        }
+        
+        int flagged = 0;
+        LongArrayList found = scan.duplicates;
+        for (int i = 0; i < found.size(); i += 3 * FLAG_BATCH_SIZE) {
+            int from = i;
+            int to = Math.min(found.size(), i + 3 * FLAG_BATCH_SIZE);
+            Integer updated = transactionTemplate.execute(tx -> {
+                // The scan matched fingerprints only; confirm each pair against the rows as check() does
+                Set<Long> ids = new HashSet<>();
+                for (int j = from; j < to; j += 3) {
+                    ids.add(found.getLong(j));
+                    ids.add(found.getLong(j + 2));
+                }
+                Map<Long, ExpenseFingerprintRow> rows = new HashMap<>();
+                for (ExpenseFingerprintRow row : expenseRepository.findFingerprintRows(ids)) {
+                    rows.put(row.id(), row);
+                }
+                int count = 0;
+                for (int j = from; j < to; j += 3) {
+                    Expense.FlagReason reason = Expense.FlagReason.values()[(int) found.getLong(j + 1)];
+                    if (same(reason, rows.get(found.getLong(j)), rows.get(found.getLong(j + 2)))) {
+                        count += expenseRepository.flagDuplicate(found.getLong(j), reason, found.getLong(j + 2));
+                    }
+                }
+                return count;
+            });
+            flagged += updated == null ? 0 : updated;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            replay(claimsSinceRescan, scan.claims);
+            replay(receiptsSinceRescan, scan.receipts);
+            claims = scan.claims;
+            receipts = scan.receipts;
+            claimsSinceRescan = null;
+            receiptsSinceRescan = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Duplicate rescan indexed {} expenses since {} and flagged {} in {} ms", scan.claims.size(), since,
+                flagged, (System.nanoTime() - start) / 1_000_000);
+        return flagged;
+    }
+    
+    /**
+     * Fingerprint of a claim. HashCommon.mix is a bijection, so two claims collide only
+     * through the final 64-bit value; a hit is still confirmed against the row.
+     */
+    static long claimKey(Long employeeId, BigDecimal amount, LocalDate expenseDate, Expense.Category category) {
+        if (employeeId == null || amount == null || expenseDate == null || category == null) {
+            return NONE;
+        }
+        long cents = amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+        long h = HashCommon.mix(employeeId);
+        h = HashCommon.mix(h ^ cents);
+        h = HashCommon.mix(h ^ (expenseDate.toEpochDay() << 3 | category.ordinal()));
+        return h == NONE ? 1 : h;
+    }
+    
+    // The leading 64 bits of the SHA-256 in a content-addressed receipt key (ab/cd/<sha256>)
+    static long receiptKey(String receiptFilePath) {
+        if (receiptFilePath == null || !FileUploadService.isContentAddressed(receiptFilePath)) {
+            return NONE;
+        }
+        String hash = receiptFilePath.substring(receiptFilePath.lastIndexOf('/') + 1);
+        if (hash.length() < 16) {
+            return NONE;
+        }
+        long h = Long.parseUnsignedLong(hash, 0, 16, 16);
+        return h == NONE ? 1 : h;
+    }
+    
+    private boolean confirm(long expenseId, Predicate<ExpenseFingerprintRow> same) {
+        return expenseRepository.findFingerprintRow(expenseId).filter(same).isPresent();
+    }
+    
+    private static boolean same(Expense.FlagReason reason, ExpenseFingerprintRow row, ExpenseFingerprintRow original) {
+        if (row == null || original == null) {
+            return false;
+        }
+        return reason == Expense.FlagReason.DUPLICATE_CLAIM
+                ? row.employeeId().equals(original.employeeId())
+                        && row.amount().compareTo(original.amount()) == 0
+                        && row.expenseDate().equals(original.expenseDate())
+                        && row.category() == original.category()
+                : Objects.equals(row.receiptFilePath(), original.receiptFilePath());
+    }
+    
+    private static boolean sameClaim(ExpenseFingerprintRow row, Expense expense) {
+        return row.employeeId().equals(expense.getEmployee().getId())
+                && row.amount().compareTo(expense.getAmount()) == 0
+                && row.expenseDate().equals(expense.getExpenseDate())
+                && row.category() == expense.getCategory();
+    }
+    
+    private static void flag(Expense expense, Expense.FlagReason reason, long duplicateOf) {
+        expense.setFlagReason(reason);
+        expense.setDuplicateOf(duplicateOf);
+    }
+    
+    private static void replay(LongArrayList pairs, Long2LongOpenHashMap into) {
+        for (int i = 0; i < pairs.size(); i += 2) {
+            into.putIfAbsent(pairs.getLong(i), pairs.getLong(i + 1));
+        }
+    }
+    
+    private static Long2LongOpenHashMap newMap(int expected) {
+        Long2LongOpenHashMap map = new Long2LongOpenHashMap(expected);
+        map.defaultReturnValue(0);
+        return map;
+    }
+    
+    /**
+     * Fingerprints recorded by the current transaction, bound to it as a resource and
+     * moved into the shared maps after it commits.
+     */
+    private final class Pending implements TransactionSynchronization {
+        final Long2LongOpenHashMap claims = newMap(0);
+        final Long2LongOpenHashMap receipts = newMap(0);
+        
+        @Override
+        public void afterCommit() {
+            lock.writeLock().lock();
+            try {
+                for (Long2LongMap.Entry entry : claims.long2LongEntrySet()) {
+                    add(entry.getLongKey(), NONE, entry.getLongValue());
+                }
+                for (Long2LongMap.Entry entry : receipts.long2LongEntrySet()) {
+                    add(NONE, entry.getLongKey(), entry.getLongValue());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DuplicateDetectionService.this);
+        }
+    }
+    
+    /**
+     * Fingerprints of one id range, each mapped to its earliest expense, plus the
+     * duplicates found in it as (id, reason ordinal, duplicate of) triples.
+     */
+    private static final class Scan {
+        final Long2LongOpenHashMap claims;
+        final Long2LongOpenHashMap receipts;
+        final LongArrayList duplicates = new LongArrayList();
+        
+        Scan(int expected) {
+            claims = newMap(expected);
+            receipts = newMap(expected / 4);
+        }
+        
+        void add(long id, long claim, long receipt) {
+            add(claims, Expense.FlagReason.DUPLICATE_CLAIM, claim, id);
+            add(receipts, Expense.FlagReason.DUPLICATE_RECEIPT, receipt, id);
+        }
+        
+        // Every id on the right is above every id on the left
+        Scan merge(Scan right) {
+            for (Long2LongMap.Entry entry : right.claims.long2LongEntrySet()) {
+                add(claims, Expense.FlagReason.DUPLICATE_CLAIM, entry.getLongKey(), entry.getLongValue());
+            }
+            for (Long2LongMap.Entry entry : right.receipts.long2LongEntrySet()) {
+                add(receipts, Expense.FlagReason.DUPLICATE_RECEIPT, entry.getLongKey(), entry.getLongValue());
+            }
+            duplicates.addAll(right.duplicates);
+            return this;
+        }
+        
+        private void add(Long2LongOpenHashMap map, Expense.FlagReason reason, long key, long id) {
+            if (key == NONE) {
+                return;
+            }
+            long earlier = map.putIfAbsent(key, id);
+            if (earlier != 0) {
+                duplicates.add(id);
+                duplicates.add(reason.ordinal());
+                duplicates.add(earlier);
+            }
+        }
+    }
+    
+    private final class ScanTask extends RecursiveTask<Scan> {
+        private final long after;
+        private final long upTo;
+        private final LocalDate since;
+        
+        ScanTask(long after, long upTo, LocalDate since) {
+            this.after = after;
+            this.upTo = upTo;
+            this.since = since;
+        }
+        
+        @Override
+        protected Scan compute() {
+            if (upTo - after <= rescanSlice) {
+                return scanSlice();
+            }
+            long middle = after + (upTo - after) / 2;
+            ScanTask left = new ScanTask(after, middle, since);
+            left.fork();
+            Scan right = new ScanTask(middle, upTo, since).compute();
+            return left.join().merge(right);
+        }
+        
+        private Scan scanSlice() {
+            Scan scan = new Scan((int) Math.min(upTo - after, Integer.MAX_VALUE));
+            long cursor = after;
+            List<ExpenseFingerprintRow> rows;
+            while (!(rows = expenseRepository.findFingerprintRowsBetween(cursor, upTo, since,
+                    PageRequest.of(0, rescanBatchSize))).isEmpty()) {
+                for (ExpenseFingerprintRow row : rows) {
+                    scan.add(row.id(), claimKey(row.employeeId(), row.amount(), row.expenseDate(), row.category()),
+                            receiptKey(row.receiptFilePath()));
+                }
+                cursor = rows.get(rows.size() - 1).id();
+            }
+            return scan;
+        }
+    }
+}
@@ -2,36 +2,80 @@ package com.expense.reimbursement.service;
 
 import com.expense.reimbursement.model.Employee;
 import com.expense.reimbursement.repository.EmployeeRepository;
+import com.expense.reimbursement.security.PasswordVerifier;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
+@Timed(value = "employee.service", percentiles = {0.5, 0.95, 0.99})
 public class EmployeeService {
     
+    public static final String EMPLOYEES_BY_ID = "employeesById";
+    public static final String EMPLOYEES_BY_EMAIL = "employeesByEmail";
+    
     @Autowired
     private EmployeeRepository employeeRepository;
     
-    private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private PasswordVerifier passwordVerifier;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
     
+    // Misses are never cached, so a first save needs no eviction; updates drop both entries
+    // and, when the email changed, the one still keyed by the old address
+    @Caching(evict = {
+        @CacheEvict(cacheNames = EMPLOYEES_BY_ID, key = "#employee.id", condition = "#employee.id != null"),
+        @CacheEvict(cacheNames = EMPLOYEES_BY_EMAIL,
+                    key = "T(com.expense.reimbursement.service.EmployeeService).normalizeEmail(#employee.email)")
+    })
     public Employee saveEmployee(Employee employee) {
+        String previousEmail = employee.getId() == null ? null
+                : employeeRepository.findEmailById(employee.getId()).orElse(null);
         employee.setPassword(passwordEncoder.encode(employee.getPassword()));
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        if (previousEmail != null && !normalizeEmail(previousEmail).equals(normalizeEmail(saved.getEmail()))) {
+            Cache byEmail = cacheManager.getCache(EMPLOYEES_BY_EMAIL);
+            if (byEmail != null) {
+                byEmail.evict(normalizeEmail(previousEmail));
+            }
+        }
+        return saved;
     }
     
     public List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
     
+    @Cacheable(cacheNames = EMPLOYEES_BY_ID, unless = "#result == null")
     public Optional<Employee> getEmployeeById(Long id) {
         return employeeRepository.findById(id);
     }
     
+    // Keyed by the normalized address: MySQL matches emails case-insensitively, so every
+    // spelling of one address must share an entry for the evictions to reach it
+    @Cacheable(cacheNames = EMPLOYEES_BY_EMAIL, unless = "#result == null",
+               key = "T(com.expense.reimbursement.service.EmployeeService).normalizeEmail(#email)")
     public Optional<Employee> getEmployeeByEmail(String email) {
-        return employeeRepository.findByEmail(email);
+        return employeeRepository.findByEmail(normalizeEmail(email));
     }
     
     public List<Employee> getManagers() {
@@ -43,6 +87,27 @@ public class EmployeeService {
     }
     
     public boolean validatePassword(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        return passwordVerifier.matches(rawPassword, encodedPassword);
+    }
+    
+    /**
+     * Re-hashes a just-verified password when its stored hash predates the current
+     * encoder settings (legacy unprefixed hash or a lower BCrypt cost). The hash runs on
+     * the PasswordVerifier pool, before the update's transaction opens.
+     */
+    @Caching(evict = {
+        @CacheEvict(cacheNames = EMPLOYEES_BY_ID, key = "#employee.id"),
+        @CacheEvict(cacheNames = EMPLOYEES_BY_EMAIL,
+                    key = "T(com.expense.reimbursement.service.EmployeeService).normalizeEmail(#employee.email)")
+    })
+    public void upgradePasswordHashIfNeeded(Employee employee, String rawPassword) {
+        if (passwordEncoder.upgradeEncoding(employee.getPassword())) {
+            String upgraded = passwordVerifier.encode(rawPassword);
+            transactionTemplate.executeWithoutResult(tx -> employeeRepository.updatePassword(employee.getId(), upgraded));
+        }
+    }
+    
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,157 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.config.ThreadFactories;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.repository.ArchivedExpenseRepository;
+import com.expense.reimbursement.repository.ExpenseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves decided expenses submitted more than {@code age-days} ago from expenses to
+ * expenses_archive, so the hot table (and its indexes) only grows with recent and pending
+ * work. Each batch is one short transaction: lock the oldest decided ids, copy the rows
+ * with INSERT ... SELECT, delete them. Batches are spaced by {@code pause-ms} to keep the
+ * run from crowding out the live traffic and the replicas.
+ * <p>
+ * Counters, spend rollups and the search index keep archived expenses; the history reads
+ * in ExpenseService union the archive back in when asked to.
+ */
+@Service
+public class ExpenseArchiveService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExpenseArchiveService.class);
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private ArchivedExpenseRepository archivedExpenseRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${expense.archive.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${expense.archive.age-days:548}")
+    private int ageDays;
+    
+    @Value("${expense.archive.batch-size:1000}")
+    private int batchSize;
+    
+    @Value("${expense.archive.pause-ms:200}")
+    private long pauseMs;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Timer batchTimer;
+    private final Counter archivedRows;
+    
+    public ExpenseArchiveService(MeterRegistry meterRegistry) {
+        this.batchTimer = Timer.builder("expenses.archive.batch")
+                .description("Copy and delete of one archive batch")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.archivedRows = Counter.builder("expenses.archive.rows")
+                .description("Expenses moved to the archive")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Starts an archive run in the background; false when one is already running.
+     */
+    public boolean archiveAsync() {
+        if (running.get()) {
+            return false;
+        }
+        ThreadFactories.named("expense-archive", virtualThreads).newThread(() -> {
+            try {
+                archive();
+            } catch (Exception e) {
+                log.error("Expense archive run failed", e);
+            }
+        }).start();
+        return true;
+    }
+    
+    public boolean isRunning() {
+        return running.get();
+    }
+    
+    @Scheduled(cron = "${expense.archive.cron:0 30 4 * * *}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archiveAsync();
+        }
+    }
+    
+    /**
+     * Archives everything that has aged out, batch by batch, and returns the number of
+     * expenses moved (0 when another run holds the job).
+     */
+    public long archive() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(ageDays);
+            long start = System.nanoTime();
+            long moved = 0;
+            for (Expense.Status status : List.of(Expense.Status.APPROVED, Expense.Status.REJECTED)) {
+                int batch;
+                do {
+                    batch = moveBatch(status, cutoff);
+                    moved += batch;
+                    if (batch > 0 && pauseMs > 0) {
+                        Thread.sleep(pauseMs);
+                    }
+                } while (batch == batchSize);
+            }
+            log.info("Archived {} expenses submitted before {} in {} ms", moved, cutoff,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return moved;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Expense archive run interrupted");
+            return 0;
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    private int moveBatch(Expense.Status status, LocalDateTime cutoff) {
+        long start = System.nanoTime();
+        Integer moved = transactionTemplate.execute(tx -> {
+            List<Long> ids = expenseRepository.lockArchivableIds(status, cutoff,
+                    Expense.ThumbnailStatus.PENDING, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            archivedExpenseRepository.copyFromExpenses(ids);
+            expenseRepository.deleteByIds(ids);
+            return ids.size();
+        });
+        if (moved != null && moved > 0) {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            archivedRows.increment(moved);
+        }
+        return moved == null ? 0 : moved;
+    }
+}
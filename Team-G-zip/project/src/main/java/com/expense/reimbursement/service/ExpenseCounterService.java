@@ -0,0 +1,155 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.dto.StatusCount;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.model.ExpenseStatusCounter;
+import com.expense.reimbursement.repository.EmployeeRepository;
+import com.expense.reimbursement.repository.ExpenseStatusCounterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class ExpenseCounterService {
+    
+    @Autowired
+    private ExpenseStatusCounterRepository counterRepository;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${expense.counters.repair-batch-size:500}")
+    private int batchSize;
+    
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    
+    /**
+     * Must run inside the transaction that wrote the expense, so the counter and the
+     * row commit or roll back together.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSubmitted(Long employeeId, Expense.Status status) {
+        counterRepository.addToCount(employeeId, status.name(), 1);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSubmitted(Long employeeId, Expense.Status status, long count) {
+        if (count > 0) {
+            counterRepository.addToCount(employeeId, status.name(), count);
+        }
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(Long employeeId, Expense.Status from, Expense.Status to) {
+        if (from == to) {
+            return;
+        }
+        counterRepository.addToCount(employeeId, from.name(), -1);
+        counterRepository.addToCount(employeeId, to.name(), 1);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransitions(Long employeeId, Expense.Status from, Expense.Status to, long count) {
+        if (from == to || count == 0) {
+            return;
+        }
+        counterRepository.addToCount(employeeId, from.name(), -count);
+        counterRepository.addToCount(employeeId, to.name(), count);
+    }
+    
+    @Transactional(readOnly = true)
+    public Map<Expense.Status, Long> getCounts(Long employeeId) {
+        Map<Expense.Status, Long> counts = emptyCounts();
+        for (ExpenseStatusCounter counter : counterRepository.findByEmployeeId(employeeId)) {
+            counts.put(counter.getStatus(), counter.getCount());
+        }
+        return counts;
+    }
+    
+    /**
+     * Status totals across all employees, summed from the counters rather than counted
+     * from the expenses table.
+     */
+    public Map<Expense.Status, Long> getTotals() {
+        Map<Expense.Status, Long> counts = emptyCounts();
+        for (StatusCount row : counterRepository.sumGroupByStatus()) {
+            counts.put(row.getStatus(), row.getTotal());
+        }
+        return counts;
+    }
+    
+    /**
+     * Consistency repair: recomputes every counter from the expenses tables. Runs nightly
+     * and can be called by hand after manual data fixes. Works through the employees
+     * {@code repair-batch-size} at a time, each batch in its own short transaction, so
+     * submits and approvals only ever wait on the batch that covers their employee.
+     * Returns the number of counter rows written, or -1 when a rebuild is already running.
+     */
+    @Scheduled(cron = "${expense.counters.repair-cron:0 30 3 * * *}")
+    public int rebuildCounters() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return -1;
+        }
+        try {
+            int written = 0;
+            long after = 0;
+            List<Long> employeeIds;
+            do {
+                employeeIds = employeeRepository.findIdsAfter(after, PageRequest.of(0, batchSize));
+                if (!employeeIds.isEmpty()) {
+                    List<Long> batch = employeeIds;
+                    written += transactionTemplate.execute(tx -> rebuildBatch(batch));
+                    after = employeeIds.get(employeeIds.size() - 1);
+                }
+            } while (employeeIds.size() == batchSize);
+            return written;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+    
+    /**
+     * Seeds the counters on first start against an existing expenses table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeCounters() {
+        if (counterRepository.count() == 0) {
+            rebuildCounters();
+        }
+    }
+    
+    // The lock comes first so the count below sees every write committed before it
+    private int rebuildBatch(List<Long> employeeIds) {
+        counterRepository.lockByEmployeeIdIn(employeeIds);
+        List<Object[]> counts = counterRepository.countFromExpenses(employeeIds);
+        counterRepository.deleteByEmployeeIdIn(employeeIds);
+        for (Object[] row : counts) {
+            counterRepository.addToCount(((Number) row[0]).longValue(), (String) row[1],
+                    ((Number) row[2]).longValue());
+        }
+        return counts.size();
+    }
+    
+    static Map<Expense.Status, Long> emptyCounts() {
+        Map<Expense.Status, Long> counts = new EnumMap<>(Expense.Status.class);
+        for (Expense.Status status : Expense.Status.values()) {
+            counts.put(status, 0L);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,280 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.config.ThreadFactories;
+import com.expense.reimbursement.dto.ExpenseEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes approval-inbox changes to dashboards over server-sent events. Each subscriber
+ * is an async request, so an idle connection holds a socket and an emitter but no
+ * thread. All writes go through one dispatcher thread: events reach every subscriber
+ * they are for in id order, and a reconnecting client is replayed what it missed from a
+ * short in-memory buffer (or told to reload when that is not possible).
+ * <p>
+ * Events are in-process: with several nodes, each pushes the changes made through it.
+ */
+@Service
+public class ExpenseEventService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExpenseEventService.class);
+    
+    @Autowired
+    private ExpenseCounterService expenseCounterService;
+    
+    @Autowired
+    private ApprovalWorkflowService approvalWorkflowService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${expense.events.timeout-ms:1800000}")
+    private long timeoutMs;
+    
+    @Value("${expense.events.max-subscribers:10000}")
+    private int maxSubscribers;
+    
+    @Value("${expense.events.replay-size:500}")
+    private int replaySize;
+    
+    private record SentEvent(long id, ExpenseEvent event, String data) {}
+    
+    // Emitter -> id of the approver it streams to
+    private final Map<SseEmitter, Long> subscribers = new ConcurrentHashMap<>();
+    private final ArrayDeque<SentEvent> replay = new ArrayDeque<>();
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final ThreadPoolExecutor dispatcher;
+    private final Timer fanOutTimer;
+    private final Counter droppedEvents;
+    private long lastEventId;
+    private long lastDroppedId;
+    private final AtomicBoolean dropped = new AtomicBoolean();
+    
+    public ExpenseEventService(@Value("${expense.events.queue-capacity:1000}") int queueCapacity,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                               MeterRegistry meterRegistry) {
+        this.dispatcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), ThreadFactories.named("expense-events", virtualThreads));
+        this.fanOutTimer = Timer.builder("expenses.events.fanout")
+                .description("Time to write one event to every subscriber")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.droppedEvents = Counter.builder("expenses.events.dropped")
+                .description("Events not sent because the dispatch queue was full")
+                .register(meterRegistry);
+        Gauge.builder("expenses.events.subscribers", subscribers, Map::size)
+                .description("Connected dashboard event streams")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Publishes the event once the current transaction commits (immediately when there
+     * is none), so dashboards never see a change that was rolled back.
+     */
+    public void publishAfterCommit(ExpenseEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(event);
+            }
+        });
+    }
+    
+    /**
+     * Id of the latest published event. Pages read it before loading their data and pass
+     * it back when subscribing, so nothing published in between is lost.
+     */
+    public long getLastEventId() {
+        publishLock.lock();
+        try {
+            return lastEventId;
+        } finally {
+            publishLock.unlock();
+        }
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    /**
+     * Opens the approver's stream, which first replays events after {@code lastEventId}
+     * and then follows new ones. Empty when the subscriber limit or the dispatch queue is
+     * full.
+     */
+    public Optional<SseEmitter> subscribe(Long approverId, Long lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(emitter));
+        try {
+            dispatcher.execute(() -> register(emitter, approverId, lastEventId));
+        } catch (RejectedExecutionException e) {
+            return Optional.empty();
+        }
+        return Optional.of(emitter);
+    }
+    
+    /**
+     * Comment lines keep idle connections open through proxies and reveal clients that
+     * went away without closing.
+     */
+    @Scheduled(fixedDelayString = "${expense.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> {
+                for (Iterator<SseEmitter> it = subscribers.keySet().iterator(); it.hasNext(); ) {
+                    SseEmitter emitter = it.next();
+                    try {
+                        emitter.send(SseEmitter.event().comment(""));
+                    } catch (IOException | IllegalStateException e) {
+                        it.remove();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The queue is busy with events, which serve as heartbeats too
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.keySet().forEach(SseEmitter::complete);
+        subscribers.clear();
+    }
+    
+    /**
+     * Ids are taken in queue order under the lock. When the queue is full the event is
+     * dropped and every client is told to reload before the next event goes out.
+     */
+    private void publish(ExpenseEvent event) {
+        publishLock.lock();
+        try {
+            long id = ++lastEventId;
+            dispatcher.execute(() -> dispatch(id, event));
+        } catch (RejectedExecutionException e) {
+            lastDroppedId = lastEventId;
+            dropped.set(true);
+            droppedEvents.increment();
+            log.warn("Event queue full, dropped {} event", event.type());
+        } finally {
+            publishLock.unlock();
+        }
+    }
+    
+    private void dispatch(long id, ExpenseEvent event) {
+        if (dropped.getAndSet(false)) {
+            subscribers.keySet().forEach(this::sendResync);
+            subscribers.clear();
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event.withCounts(expenseCounterService.getTotals(),
+                    approvalWorkflowService.countInboxes(event.approverIds())));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not build {} event {}", event.type(), id, e);
+            return;
+        }
+        SentEvent sent = new SentEvent(id, event, data);
+        replay.addLast(sent);
+        while (replay.size() > replaySize) {
+            replay.removeFirst();
+        }
+        
+        Timer.Sample sample = Timer.start();
+        for (Iterator<Map.Entry<SseEmitter, Long>> it = subscribers.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<SseEmitter, Long> subscriber = it.next();
+            if (event.isFor(subscriber.getValue()) && !send(subscriber.getKey(), sent)) {
+                it.remove();
+            }
+        }
+        sample.stop(fanOutTimer);
+    }
+    
+    // Runs on the dispatcher, so no live event can overtake the replay
+    private void register(SseEmitter emitter, Long approverId, Long lastEventId) {
+        if (lastEventId != null) {
+            SentEvent oldest = replay.peekFirst();
+            long newest = replay.isEmpty() ? lastEventId : replay.peekLast().id();
+            boolean missedTooMany = newest > lastEventId && (oldest == null || oldest.id() > lastEventId + 1);
+            boolean missedDropped;
+            long published;
+            publishLock.lock();
+            try {
+                missedDropped = lastEventId < lastDroppedId;
+                published = this.lastEventId;
+            } finally {
+                publishLock.unlock();
+            }
+            // Ids restart with the application; a client ahead of us is from before that
+            if (missedTooMany || missedDropped || lastEventId > published) {
+                sendResync(emitter);
+                return;
+            }
+            for (SentEvent sent : replay) {
+                if (sent.id() > lastEventId && sent.event().isFor(approverId) && !send(emitter, sent)) {
+                    return;
+                }
+            }
+        }
+        subscribers.put(emitter, approverId);
+    }
+    
+    private void sendResync(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().name("resync").data(""));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+    
+    private static boolean send(SseEmitter emitter, SentEvent sent) {
+        try {
+            emitter.send(SseEmitter.event().id(Long.toString(sent.id()))
+                    .name(sent.event().type().name().toLowerCase())
+                    .data(sent.data()));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.dto.ExpenseExportFilter;
+import com.expense.reimbursement.dto.ExpenseExportRow;
+import com.expense.reimbursement.repository.ArchivedExpenseRepository;
+import com.expense.reimbursement.repository.ExpenseRepository;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Writes expenses straight from a database cursor to the response. Nothing is collected
+ * in between: CSV rows go through a buffered writer and XLSX rows through a SXSSF window
+ * that spills to a temp file, so heap use does not depend on the number of rows. A
+ * history export merges a second cursor over expenses_archive into the first, keeping
+ * the newest-first order.
+ */
+@Service
+public class ExpenseExportService {
+    
+    private static final String[] HEADERS = {
+        "ID", "Employee", "Email", "Department", "Description", "Amount", "Expense Date",
+        "Category", "Status", "Submitted At", "Decided At", "Decided By"
+    };
+    
+    // Rows kept in memory by SXSSF before older ones are flushed to disk
+    private static final int XLSX_ROW_WINDOW = 100;
+    
+    private static final Comparator<ExpenseExportRow> NEWEST_FIRST =
+            Comparator.comparing(ExpenseExportRow::submittedAt).thenComparing(ExpenseExportRow::id).reversed();
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private ArchivedExpenseRepository archivedExpenseRepository;
+    
+    @Transactional(readOnly = true)
+    public void exportCsv(ExpenseExportFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writeCsvLine(writer, HEADERS);
+        try (Stream<ExpenseExportRow> rows = openStream(filter)) {
+            Iterator<ExpenseExportRow> it = rows.iterator();
+            while (it.hasNext()) {
+                writeCsvLine(writer, toCells(it.next()));
+            }
+        }
+        writer.flush();
+    }
+    
+    @Transactional(readOnly = true)
+    public void exportXlsx(ExpenseExportFilter filter, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (Stream<ExpenseExportRow> rows = openStream(filter)) {
+            SXSSFSheet sheet = workbook.createSheet("Expenses");
+            int rowIndex = 0;
+            writeXlsxRow(sheet.createRow(rowIndex++), HEADERS);
+            Iterator<ExpenseExportRow> it = rows.iterator();
+            while (it.hasNext()) {
+                ExpenseExportRow row = it.next();
+                Row xlsxRow = sheet.createRow(rowIndex++);
+                writeXlsxRow(xlsxRow, toCells(row));
+                xlsxRow.getCell(5).setCellValue(row.amount().doubleValue());
+            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+    
+    private Stream<ExpenseExportRow> openStream(ExpenseExportFilter filter) {
+        Stream<ExpenseExportRow> recent = expenseRepository.streamForExport(filter.status(), filter.from(),
+                filter.to(), filter.category(), filter.department());
+        if (!filter.history()) {
+            return recent;
+        }
+        Stream<ExpenseExportRow> archived;
+        try {
+            archived = archivedExpenseRepository.streamForExport(filter.status(), filter.from(), filter.to(),
+                    filter.category(), filter.department());
+        } catch (RuntimeException e) {
+            recent.close();
+            throw e;
+        }
+        // An expense is in one table or the other, and both cursors read the same snapshot
+        return merge(recent, archived);
+    }
+    
+    // Both inputs are sorted newest first; one row of each is buffered at a time
+    private static Stream<ExpenseExportRow> merge(Stream<ExpenseExportRow> first, Stream<ExpenseExportRow> second) {
+        Iterator<ExpenseExportRow> left = first.iterator();
+        Iterator<ExpenseExportRow> right = second.iterator();
+        Iterator<ExpenseExportRow> merged = new Iterator<>() {
+            private ExpenseExportRow nextLeft;
+            private ExpenseExportRow nextRight;
+            
+            @Override
+            public boolean hasNext() {
+                return nextLeft != null || nextRight != null || left.hasNext() || right.hasNext();
+            }
+            
+            @Override
+            public ExpenseExportRow next() {
+                if (nextLeft == null && left.hasNext()) {
+                    nextLeft = left.next();
+                }
+                if (nextRight == null && right.hasNext()) {
+                    nextRight = right.next();
+                }
+                ExpenseExportRow row;
+                if (nextLeft != null && (nextRight == null || NEWEST_FIRST.compare(nextLeft, nextRight) <= 0)) {
+                    row = nextLeft;
+                    nextLeft = null;
+                } else if (nextRight != null) {
+                    row = nextRight;
+                    nextRight = null;
+                } else {
+                    throw new NoSuchElementException();
+                }
+                return row;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(first::close)
+                .onClose(second::close);
+    }
+    
+    private String[] toCells(ExpenseExportRow row) {
+        return new String[] {
+            String.valueOf(row.id()),
+            row.employeeName(),
+            row.employeeEmail(),
+            row.department(),
+            row.description(),
+            row.amount().toPlainString(),
+            String.valueOf(row.expenseDate()),
+            row.category().name(),
+            row.status().name(),
+            String.valueOf(row.submittedAt()),
+            row.approvedAt() != null ? row.approvedAt().toString() : "",
+            row.approvedByName() != null ? row.approvedByName() : ""
+        };
+    }
+    
+    private void writeXlsxRow(Row row, String[] cells) {
+        for (int i = 0; i < cells.length; i++) {
+            row.createCell(i).setCellValue(cells[i]);
+        }
+    }
+    
+    private void writeCsvLine(Writer writer, String[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvCell(writer, cells[i]);
+        }
+        writer.write("\r\n");
+    }
+    
+    private void writeCsvCell(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,50 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.model.ExpenseImport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command-line import of a statement file: starting with
+ * {@code --expense.imports.run=statements/2024-06.csv --spring.main.web-application-type=none}
+ * imports the file, logs the outcome and exits (status 1 unless it completed). Running
+ * it again on the same file resumes a failed import.
+ */
+@Service
+@ConditionalOnProperty(name = "expense.imports.run")
+public class ExpenseImportRunner implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExpenseImportRunner.class);
+    
+    @Autowired
+    private ExpenseImportService expenseImportService;
+    
+    @Autowired
+    private ApplicationContext context;
+    
+    @Value("${expense.imports.run}")
+    private String file;
+    
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path path = Paths.get(file).toAbsolutePath().normalize();
+        long start = System.nanoTime();
+        ExpenseImport job = expenseImportService.importFile(path, null);
+        log.info("Import {} of {}: {} after {} s, {} imported, {} rejected{}", job.getId(), path, job.getStatus(),
+                (System.nanoTime() - start) / 1_000_000_000, job.getImportedCount(), job.getFailedCount(),
+                job.getErrorMessage() == null ? "" : " (" + job.getErrorMessage() + ")");
+        int exitCode = job.getStatus() == ExpenseImport.Status.COMPLETED ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
@@ -0,0 +1,607 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.config.ThreadFactories;
+import com.expense.reimbursement.dto.EmployeeRef;
+import com.expense.reimbursement.dto.ExpenseImportLine;
+import com.expense.reimbursement.model.Employee;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.model.ExpenseImport;
+import com.expense.reimbursement.model.OutboxMessage;
+import com.expense.reimbursement.repository.EmployeeRepository;
+import com.expense.reimbursement.repository.ExpenseImportRepository;
+import com.expense.reimbursement.repository.ExpenseRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk import of card-statement files (CSV or JSON lines) as pending expenses. The file
+ * is kept under {@code expense.imports.dir} by its SHA-256, and read in chunks of
+ * {@code chunk-size} lines: the next chunk is parsed and validated on a fork-join pool
+ * while the current one is written. Each chunk is one transaction holding the batched
+ * expense inserts, the counter, rollup, inbox and outbox writes, and the job checkpoint,
+ * so a rerun of the same file resumes after the last committed chunk. Rejected lines go
+ * to a CSV error report next to the file.
+ * <p>
+ * Imported expenses are not pushed to open dashboards; they show on the next reload.
+ */
+@Service
+public class ExpenseImportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExpenseImportService.class);
+    
+    private static final String CSV_HEADER = "employee_email";
+    private static final String[] FIELDS = {"employee_email", "expense_date", "description", "amount", "category", "comments"};
+    private static final int EMAIL_LOOKUP_SIZE = 1000;
+    // Largest amount that fits DECIMAL(10, 2)
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+    
+    @Autowired
+    private ExpenseImportRepository importRepository;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private ApprovalWorkflowService approvalWorkflowService;
+    
+    @Autowired
+    private ExpenseCounterService expenseCounterService;
+    
+    @Autowired
+    private SpendReportService spendReportService;
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private ExpenseSearchService expenseSearchService;
+    
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${expense.imports.dir:imports/}")
+    private String importDir;
+    
+    @Value("${expense.imports.chunk-size:5000}")
+    private int chunkSize;
+    
+    @Value("${expense.imports.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+    
+    @Value("${expense.imports.stale-after-ms:600000}")
+    private long staleAfterMs;
+    
+    private record RawLine(long number, String text) {}
+    
+    private record ParsedLine(long number, ExpenseImportLine value, String error) {}
+    
+    private Path root;
+    private final ThreadPoolExecutor executor;
+    private final ForkJoinPool validatePool;
+    private final Timer chunkTimer;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+    
+    public ExpenseImportService(@Value("${expense.imports.queue-capacity:10}") int queueCapacity,
+                                @Value("${expense.imports.validate-threads:0}") int validateThreads,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                MeterRegistry meterRegistry) {
+        // One import at a time; each already keeps the database busy
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), ThreadFactories.named("expense-imports", virtualThreads));
+        this.validatePool = new ForkJoinPool(validateThreads > 0 ? validateThreads
+                : Runtime.getRuntime().availableProcessors());
+        this.chunkTimer = Timer.builder("expenses.imports.chunk")
+                .description("Time to write one chunk of imported expenses")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.importedRows = Counter.builder("expenses.imports.rows")
+                .description("Imported statement lines")
+                .tag("outcome", "imported")
+                .register(meterRegistry);
+        this.rejectedRows = Counter.builder("expenses.imports.rows")
+                .description("Imported statement lines")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    public void initialize() throws IOException {
+        root = Paths.get(importDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+    }
+    
+    /**
+     * Stores the upload and queues its import. Uploading a file that was imported before
+     * returns that job: as is when it completed or is still running, resumed from its
+     * checkpoint when it failed or its runner died.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException when the import queue is full
+     */
+    public ExpenseImport submit(InputStream content, String fileName, Long createdBy) throws IOException {
+        String hash = store(content, fileName);
+        Optional<ExpenseImport> claimed = claim(hash, fileName, createdBy);
+        if (claimed.isEmpty()) {
+            return importRepository.findFirstByFileHashOrderByIdDesc(hash).orElseThrow();
+        }
+        ExpenseImport job = claimed.get();
+        try {
+            executor.execute(() -> run(job));
+        } catch (RuntimeException e) {
+            finish(job, ExpenseImport.Status.FAILED, "Import queue full");
+            throw e;
+        }
+        return job;
+    }
+    
+    /**
+     * Imports a local file on the calling thread, with the same resume rules as
+     * {@link #submit}; used by the command-line runner.
+     */
+    public ExpenseImport importFile(Path file, Long createdBy) throws IOException {
+        String fileName = file.getFileName().toString();
+        String hash;
+        try (InputStream in = Files.newInputStream(file)) {
+            hash = store(in, fileName);
+        }
+        Optional<ExpenseImport> claimed = claim(hash, fileName, createdBy);
+        claimed.ifPresent(this::run);
+        return importRepository.findFirstByFileHashOrderByIdDesc(hash).orElseThrow();
+    }
+    
+    public Optional<ExpenseImport> getImport(Long id) {
+        return importRepository.findById(id);
+    }
+    
+    /**
+     * The job's rejected lines as CSV (line, error), or empty before it has any.
+     */
+    public Optional<Path> getErrorReport(ExpenseImport job) {
+        Path report = errorReport(job.getFileHash());
+        return Files.isRegularFile(report) ? Optional.of(report) : Optional.empty();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        validatePool.shutdownNow();
+    }
+    
+    // Copies the upload into the import directory while hashing it, keyed by the hash
+    private String store(InputStream content, String fileName) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        Path temp = Files.createTempFile(root, "upload-", ".tmp");
+        try {
+            try (InputStream in = new DigestInputStream(content, digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Files.move(temp, dataFile(hash, formatOf(fileName)), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return hash;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    // The job to run for this file, or empty when it already completed or someone else is running it
+    private Optional<ExpenseImport> claim(String hash, String fileName, Long createdBy) {
+        return transactionTemplate.execute(tx -> {
+            Optional<ExpenseImport> existing = importRepository.findFirstByFileHashOrderByIdDesc(hash);
+            if (existing.isEmpty()) {
+                return Optional.of(importRepository.save(new ExpenseImport(fileName, hash, formatOf(fileName), createdBy)));
+            }
+            LocalDateTime now = LocalDateTime.now();
+            ExpenseImport job = existing.get();
+            if (job.getStatus() == ExpenseImport.Status.COMPLETED
+                    || importRepository.claim(job.getId(), ExpenseImport.Status.RUNNING, ExpenseImport.Status.FAILED,
+                            now.minus(staleAfterMs, ChronoUnit.MILLIS), now) == 0) {
+                return Optional.empty();
+            }
+            log.info("Resuming import {} of {} after line {}", job.getId(), job.getFileName(), job.getCheckpointLine());
+            return Optional.of(job);
+        });
+    }
+    
+    private void run(ExpenseImport job) {
+        log.info("Importing {} as job {}", job.getFileName(), job.getId());
+        Path file = dataFile(job.getFileHash(), job.getFormat());
+        Path report = errorReport(job.getFileHash());
+        Map<String, EmployeeRef> employees = new HashMap<>();
+        try {
+            trimErrorReport(report, job.getCheckpointLine());
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                 BufferedWriter errors = Files.newBufferedWriter(report, StandardCharsets.UTF_8,
+                         StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                skipTo(reader, job.getCheckpointLine());
+                long[] lineNumber = {job.getCheckpointLine()};
+                Future<List<ParsedLine>> next = parseAsync(readChunk(reader, lineNumber), job.getFormat());
+                while (next != null) {
+                    List<ParsedLine> chunk = next.get();
+                    List<RawLine> raw = readChunk(reader, lineNumber);
+                    next = raw.isEmpty() ? null : parseAsync(raw, job.getFormat());
+                    if (!chunk.isEmpty()) {
+                        Timer.Sample sample = Timer.start();
+                        write(job, chunk, employees, errors);
+                        sample.stop(chunkTimer);
+                    }
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+            }
+            finish(job, ExpenseImport.Status.COMPLETED, null);
+            log.info("Import {} of {} completed", job.getId(), job.getFileName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(job, ExpenseImport.Status.FAILED, "Interrupted");
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.warn("Import {} of {} failed", job.getId(), job.getFileName(), cause);
+            finish(job, ExpenseImport.Status.FAILED, cause.getClass().getSimpleName() + ": " + cause.getMessage());
+        }
+    }
+    
+    private Future<List<ParsedLine>> parseAsync(List<RawLine> raw, ExpenseImport.Format format) {
+        // A parallel stream started inside the pool runs on the pool's threads
+        return validatePool.submit(() -> raw.parallelStream().map(line -> parse(line, format)).toList());
+    }
+    
+    /**
+     * Inserts the chunk's valid lines and records its rejected ones, then moves the
+     * checkpoint past it, all in one transaction.
+     */
+    private void write(ExpenseImport job, List<ParsedLine> chunk, Map<String, EmployeeRef> employees, Writer errors) {
+        resolveEmployees(chunk, employees);
+        long lastLine = chunk.get(chunk.size() - 1).number();
+        transactionTemplate.executeWithoutResult(tx -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            LocalDateTime now = LocalDateTime.now();
+            List<Expense> expenses = new ArrayList<>(chunk.size());
+            Map<Long, String> departments = new HashMap<>();
+            Map<Long, Long> perEmployee = new HashMap<>();
+            Map<Long, String> rejected = new LinkedHashMap<>();
+            for (ParsedLine line : chunk) {
+                if (line.error() != null) {
+                    rejected.put(line.number(), line.error());
+                    continue;
+                }
+                ExpenseImportLine value = line.value();
+                EmployeeRef employee = employees.get(value.employeeEmail());
+                if (employee == null) {
+                    rejected.put(line.number(), "Unknown employee " + value.employeeEmail());
+                    continue;
+                }
+                Expense expense = toExpense(value);
+                expense.setEmployee(entityManager.getReference(Employee.class, employee.getId()));
+                expense.setSubmittedAt(now);
+                expense.setApprovalLevel(1);
+                expense.setApprovalLevels(approvalWorkflowService.levelsFor(employee.getDepartment(),
+                        value.category(), value.amount()));
+                duplicateDetectionService.check(expense);
+                // The pooled id is assigned without a statement, so later lines in the chunk see this one
+                expenseRepository.save(expense);
+                duplicateDetectionService.record(expense);
+                expenses.add(expense);
+                departments.put(employee.getId(), employee.getDepartment());
+                perEmployee.merge(employee.getId(), 1L, Long::sum);
+            }
+            
+            if (!expenses.isEmpty()) {
+                expenseRepository.flush();
+                List<Long> ids = expenses.stream().map(Expense::getId).toList();
+                perEmployee.forEach((employeeId, count) ->
+                        expenseCounterService.recordSubmitted(employeeId, Expense.Status.PENDING, count));
+                spendReportService.recordSubmitted(ids, Expense.Status.PENDING);
+                approvalWorkflowService.enqueueAll(expenses, departments);
+                notificationService.record(OutboxMessage.EventType.SUBMITTED, ids, job.getCreatedBy(), now);
+                expenseSearchService.indexAfterCommit(ids);
+            }
+            importRepository.checkpoint(job.getId(), lastLine, expenses.size(), rejected.size(), now);
+            // Written before the commit; a resume trims whatever a failed commit left behind
+            try {
+                for (Map.Entry<Long, String> entry : rejected.entrySet()) {
+                    writeCsvLine(errors, Long.toString(entry.getKey()), entry.getValue());
+                }
+                errors.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            importedRows.increment(expenses.size());
+            rejectedRows.increment(rejected.size());
+        });
+    }
+    
+    // One query per EMAIL_LOOKUP_SIZE addresses not seen earlier in the job
+    private void resolveEmployees(List<ParsedLine> chunk, Map<String, EmployeeRef> employees) {
+        List<String> unknown = chunk.stream()
+                .filter(line -> line.error() == null)
+                .map(line -> line.value().employeeEmail())
+                .filter(email -> !employees.containsKey(email))
+                .distinct()
+                .toList();
+        for (int i = 0; i < unknown.size(); i += EMAIL_LOOKUP_SIZE) {
+            List<String> slice = unknown.subList(i, Math.min(i + EMAIL_LOOKUP_SIZE, unknown.size()));
+            for (EmployeeRef ref : employeeRepository.findRefsByEmailIn(slice)) {
+                employees.put(ref.getEmail().toLowerCase(Locale.ROOT), ref);
+            }
+            // Remember misses too, so an unknown address is looked up once per job
+            for (String email : slice) {
+                employees.putIfAbsent(email, null);
+            }
+        }
+    }
+    
+    private ParsedLine parse(RawLine raw, ExpenseImport.Format format) {
+        Map<String, String> fields;
+        try {
+            fields = format == ExpenseImport.Format.JSONL ? jsonFields(raw.text()) : csvFields(raw.text());
+        } catch (IOException | IllegalArgumentException e) {
+            return new ParsedLine(raw.number(), null, "Malformed line: " + e.getMessage());
+        }
+        
+        List<String> errors = new ArrayList<>();
+        String email = fields.get("employee_email");
+        if (email == null) {
+            errors.add("Employee email is required");
+        }
+        LocalDate expenseDate = null;
+        if (fields.get("expense_date") != null) {
+            try {
+                expenseDate = LocalDate.parse(fields.get("expense_date"));
+            } catch (DateTimeParseException e) {
+                errors.add("Expense date must be yyyy-MM-dd");
+            }
+        }
+        BigDecimal amount = null;
+        if (fields.get("amount") != null) {
+            try {
+                amount = new BigDecimal(fields.get("amount"));
+                if (amount.scale() > 2 || amount.compareTo(MAX_AMOUNT) > 0) {
+                    errors.add("Amount must have at most 2 decimals and be below 100000000");
+                }
+            } catch (NumberFormatException e) {
+                errors.add("Amount is not a number");
+            }
+        }
+        Expense.Category category = null;
+        if (fields.get("category") == null) {
+            errors.add("Category is required");
+        } else {
+            try {
+                category = Expense.Category.valueOf(fields.get("category").toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                errors.add("Unknown category " + fields.get("category"));
+            }
+        }
+        String description = fields.get("description");
+        if (description != null && description.length() > 255) {
+            errors.add("Description is longer than 255 characters");
+        }
+        
+        ExpenseImportLine value = new ExpenseImportLine(email == null ? null : email.toLowerCase(Locale.ROOT),
+                expenseDate, description, amount, category, fields.get("comments"));
+        // The same constraints as the submit form
+        Set<ConstraintViolation<Expense>> violations = validator.validate(toExpense(value));
+        for (ConstraintViolation<Expense> violation : violations) {
+            errors.add(violation.getMessage());
+        }
+        return errors.isEmpty() ? new ParsedLine(raw.number(), value, null)
+                : new ParsedLine(raw.number(), null, String.join("; ", errors));
+    }
+    
+    private static Expense toExpense(ExpenseImportLine line) {
+        Expense expense = new Expense();
+        expense.setDescription(line.description());
+        expense.setAmount(line.amount());
+        expense.setExpenseDate(line.expenseDate());
+        expense.setCategory(line.category());
+        expense.setComments(line.comments());
+        return expense;
+    }
+    
+    private Map<String, String> jsonFields(String text) throws IOException {
+        JsonNode node = objectMapper.readTree(text);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("not a JSON object");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (String name : FIELDS) {
+            JsonNode value = node.get(name);
+            if (value != null && !value.isNull()) {
+                fields.put(name, blankToNull(value.asText()));
+            }
+        }
+        return fields;
+    }
+    
+    // RFC 4180 fields within one line: quoted fields may hold commas and doubled quotes
+    private static Map<String, String> csvFields(String text) {
+        List<String> cells = new ArrayList<>(FIELDS.length);
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote");
+        }
+        cells.add(cell.toString());
+        if (cells.size() < FIELDS.length - 1 || cells.size() > FIELDS.length) {
+            throw new IllegalArgumentException("expected " + (FIELDS.length - 1) + " or " + FIELDS.length
+                    + " columns, found " + cells.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < cells.size(); i++) {
+            fields.put(FIELDS[i], blankToNull(cells.get(i)));
+        }
+        return fields;
+    }
+    
+    private static String blankToNull(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+    
+    private static void skipTo(BufferedReader reader, long line) throws IOException {
+        for (long i = 0; i < line && reader.readLine() != null; i++) {
+            // Already imported
+        }
+    }
+    
+    // The next chunkSize non-blank lines; a CSV header row is skipped
+    private List<RawLine> readChunk(BufferedReader reader, long[] lineNumber) throws IOException {
+        List<RawLine> lines = new ArrayList<>(chunkSize);
+        String text;
+        while (lines.size() < chunkSize && (text = reader.readLine()) != null) {
+            long number = ++lineNumber[0];
+            if (text.isBlank() || (number == 1 && text.regionMatches(true, 0, CSV_HEADER, 0, CSV_HEADER.length()))) {
+                continue;
+            }
+            lines.add(new RawLine(number, text));
+        }
+        return lines;
+    }
+    
+    // Drops report lines past the checkpoint, left by a chunk whose commit failed
+    private static void trimErrorReport(Path report, long checkpointLine) throws IOException {
+        if (checkpointLine == 0 || !Files.exists(report)) {
+            try (Writer writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+                writeCsvLine(writer, "line", "error");
+            }
+            return;
+        }
+        Path temp = report.resolveSibling(report.getFileName() + ".tmp");
+        try (BufferedReader reader = Files.newBufferedReader(report, StandardCharsets.UTF_8);
+             Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            String text;
+            boolean header = true;
+            while ((text = reader.readLine()) != null) {
+                int comma = text.indexOf(',');
+                if (header || (comma > 0 && Long.parseLong(text.substring(0, comma)) <= checkpointLine)) {
+                    writer.write(text);
+                    writer.write("\r\n");
+                }
+                header = false;
+            }
+        }
+        Files.move(temp, report, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private static void writeCsvLine(Writer writer, String line, String error) throws IOException {
+        writer.write(line);
+        writer.write(',');
+        writer.write('"');
+        writer.write(error.replace("\"", "\"\""));
+        writer.write('"');
+        writer.write("\r\n");
+    }
+    
+    private void finish(ExpenseImport job, ExpenseImport.Status status, String error) {
+        String truncated = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        transactionTemplate.executeWithoutResult(tx ->
+                importRepository.finish(job.getId(), status, truncated, LocalDateTime.now()));
+    }
+    
+    private static ExpenseImport.Format formatOf(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".jsonl") || name.endsWith(".ndjson") ? ExpenseImport.Format.JSONL : ExpenseImport.Format.CSV;
+    }
+    
+    private Path dataFile(String hash, ExpenseImport.Format format) {
+        return root.resolve(hash + (format == ExpenseImport.Format.JSONL ? ".jsonl" : ".csv"));
+    }
+    
+    private Path errorReport(String hash) {
+        return root.resolve(hash + ".errors.csv");
+    }
+}
@@ -0,0 +1,77 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.repository.ExpenseStatusCounterRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Business meters that the per-method service timers do not cover: how long expenses
+ * wait for a decision, how many are waiting, and receipt bytes taken in.
+ */
+@Component
+public class ExpenseMetrics {
+    
+    private final Map<Expense.Status, Timer> decisionLatency = new EnumMap<>(Expense.Status.class);
+    private final Counter uploadedBytes;
+    private final Counter storedBytes;
+    private final Counter uploadedFiles;
+    private final Counter deduplicatedFiles;
+    
+    public ExpenseMetrics(MeterRegistry registry, ExpenseStatusCounterRepository counterRepository) {
+        for (Expense.Status decision : new Expense.Status[]{Expense.Status.APPROVED, Expense.Status.REJECTED}) {
+            decisionLatency.put(decision, Timer.builder("expenses.decision.latency")
+                    .description("Time from submission to approval or rejection")
+                    .tag("decision", decision.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMinutes(1))
+                    .maximumExpectedValue(Duration.ofDays(60))
+                    .serviceLevelObjectives(Duration.ofHours(1), Duration.ofDays(1), Duration.ofDays(3), Duration.ofDays(7))
+                    .register(registry));
+        }
+        // Read from the status counters, so a scrape costs one indexed SUM
+        Gauge.builder("expenses.pending", counterRepository, r -> r.sumByStatus(Expense.Status.PENDING))
+                .description("Expenses waiting for a decision")
+                .register(registry);
+        
+        uploadedBytes = Counter.builder("receipts.upload.bytes")
+                .description("Receipt bytes received")
+                .baseUnit("bytes")
+                .register(registry);
+        storedBytes = Counter.builder("receipts.stored.bytes")
+                .description("Receipt bytes written to the store (new content only)")
+                .baseUnit("bytes")
+                .register(registry);
+        uploadedFiles = Counter.builder("receipts.upload.files")
+                .description("Receipts received")
+                .register(registry);
+        deduplicatedFiles = Counter.builder("receipts.upload.deduplicated")
+                .description("Receipts whose content was already stored")
+                .register(registry);
+    }
+    
+    public void recordDecision(Expense.Status decision, LocalDateTime submittedAt, LocalDateTime decidedAt) {
+        Timer timer = decisionLatency.get(decision);
+        if (timer != null && submittedAt != null && decidedAt.isAfter(submittedAt)) {
+            timer.record(Duration.between(submittedAt, decidedAt));
+        }
+    }
+    
+    public void recordUpload(long bytes, boolean deduplicated) {
+        uploadedFiles.increment();
+        uploadedBytes.increment(bytes);
+        if (deduplicated) {
+            deduplicatedFiles.increment();
+        } else {
+            storedBytes.increment(bytes);
+        }
+    }
+}
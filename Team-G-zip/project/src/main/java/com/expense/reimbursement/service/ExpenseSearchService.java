@@ -0,0 +1,534 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.config.ThreadFactories;
+import com.expense.reimbursement.dto.ExpenseIndexRow;
+import com.expense.reimbursement.dto.ExpenseSearchHit;
+import com.expense.reimbursement.dto.ExpenseSearchQuery;
+import com.expense.reimbursement.dto.ExpenseSearchResult;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.repository.ArchivedExpenseRepository;
+import com.expense.reimbursement.repository.ExpenseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.range.LongRange;
+import org.apache.lucene.facet.range.LongRangeFacetCounts;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text and faceted expense search on an embedded Lucene index. ExpenseService
+ * hands over the ids it wrote after each commit; a single indexer thread reloads those
+ * rows and replaces their documents, and searchers are refreshed every second.
+ * A reindex walks the table (and the archive) in parallel id slices and tags every document with a new
+ * generation, then drops documents from older generations, so search stays available
+ * throughout. Employee name and department changes reach the index on the next reindex.
+ */
+@Service
+public class ExpenseSearchService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExpenseSearchService.class);
+    
+    static final String F_ID = "id";
+    static final String F_DESCRIPTION = "description";
+    static final String F_COMMENTS = "comments";
+    static final String F_EMPLOYEE = "employeeName";
+    static final String F_DEPARTMENT = "department";
+    static final String F_CATEGORY = "category";
+    static final String F_STATUS = "status";
+    static final String F_AMOUNT = "amountCents";
+    static final String F_DATE = "expenseDay";
+    static final String F_SUBMITTED = "submittedAt";
+    static final String F_GENERATION = "generation";
+    
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(
+            F_DESCRIPTION, 2.0f, F_EMPLOYEE, 1.5f, F_DEPARTMENT, 1.0f, F_COMMENTS, 1.0f);
+    
+    private static final LongRange[] AMOUNT_RANGES = {
+            new LongRange("Under $50", 0, true, 5_000, false),
+            new LongRange("$50 - $200", 5_000, true, 20_000, false),
+            new LongRange("$200 - $1,000", 20_000, true, 100_000, false),
+            new LongRange("$1,000 and over", 100_000, true, Long.MAX_VALUE, true)
+    };
+    
+    // Deep pages are not useful in a UI and cost a top-N of page * size
+    private static final int MAX_PAGE = 100;
+    private static final int INDEX_BATCH_SIZE = 500;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private ArchivedExpenseRepository archivedExpenseRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${expense.search.index-dir:data/search-index}")
+    private String indexDir;
+    
+    @Value("${expense.page-size:20}")
+    private int pageSize;
+    
+    @Value("${expense.search.reindex-threads:4}")
+    private int reindexThreads;
+    
+    @Value("${expense.search.reindex-batch-size:1000}")
+    private int reindexBatchSize;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicBoolean reindexing = new AtomicBoolean();
+    private final AtomicLong generation = new AtomicLong();
+    // Incremental batches hold the read lock so a reindex never starts mid-batch
+    private final ReadWriteLock generationLock = new ReentrantReadWriteLock();
+    private ExecutorService indexer;
+    
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile FacetState facetState;
+    
+    private record FacetState(IndexReader reader, SortedSetDocValuesReaderState state) {}
+    
+    // findIndexRowsBetween of the hot table or the archive
+    private interface IndexRowSource {
+        List<ExpenseIndexRow> findIndexRowsBetween(long after, long upTo, Pageable limit);
+    }
+    
+    @PostConstruct
+    void openIndex() throws IOException {
+        indexer = Executors.newSingleThreadExecutor(ThreadFactories.named("search-indexer", virtualThreads));
+        directory = FSDirectory.open(Paths.get(indexDir));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setRAMBufferSizeMB(64);
+        writer = new IndexWriter(directory, config);
+        if (writer.getLiveCommitData() != null) {
+            writer.getLiveCommitData().forEach(entry -> {
+                if (F_GENERATION.equals(entry.getKey())) {
+                    generation.set(Long.parseLong(entry.getValue()));
+                }
+            });
+        }
+        searcherManager = new SearcherManager(writer, null);
+    }
+    
+    /**
+     * Queues the given expenses for re-indexing once the current transaction commits
+     * (immediately when there is none). Repeated ids coalesce.
+     */
+    public void indexAfterCommit(Collection<Long> expenseIds) {
+        if (expenseIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(expenseIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(ids);
+            }
+        });
+    }
+    
+    public ExpenseSearchResult search(ExpenseSearchQuery request) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int page = Math.max(0, Math.min(request.page(), MAX_PAGE));
+        Query textQuery = parseText(request.text());
+        Query query = withFilters(textQuery != null ? textQuery : new MatchAllDocsQuery(), request);
+        
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            FacetsCollector facetsCollector = new FacetsCollector();
+            int topN = (page + 1) * pageSize;
+            TopDocs top = textQuery != null
+                    ? FacetsCollector.search(searcher, query, topN, facetsCollector)
+                    : FacetsCollector.search(searcher, query, topN,
+                            new Sort(new SortField(F_SUBMITTED, SortField.Type.LONG, true)), facetsCollector);
+            
+            ScoreDoc[] pageDocs = Arrays.copyOfRange(top.scoreDocs,
+                    Math.min(page * pageSize, top.scoreDocs.length), top.scoreDocs.length);
+            Map<String, String[]> highlights = textQuery == null || pageDocs.length == 0 ? Map.of()
+                    : highlighter(searcher).highlightFields(new String[]{F_DESCRIPTION, F_COMMENTS}, textQuery,
+                            new TopDocs(top.totalHits, pageDocs), new int[]{1, 2});
+            
+            List<ExpenseSearchHit> hits = new ArrayList<>(pageDocs.length);
+            StoredFields storedFields = searcher.storedFields();
+            for (int i = 0; i < pageDocs.length; i++) {
+                Document doc = storedFields.document(pageDocs[i].doc);
+                hits.add(new ExpenseSearchHit(
+                        Long.parseLong(doc.get(F_ID)),
+                        doc.get(F_DESCRIPTION),
+                        highlight(highlights, F_DESCRIPTION, i),
+                        highlight(highlights, F_COMMENTS, i),
+                        doc.get(F_EMPLOYEE),
+                        doc.get(F_DEPARTMENT),
+                        Expense.Category.valueOf(doc.get(F_CATEGORY)),
+                        Expense.Status.valueOf(doc.get(F_STATUS)),
+                        BigDecimal.valueOf(doc.getField(F_AMOUNT).numericValue().longValue(), 2),
+                        LocalDate.ofEpochDay(doc.getField(F_DATE).numericValue().longValue())));
+            }
+            
+            Map<String, Long> categoryCounts = new LinkedHashMap<>();
+            Map<String, Long> statusCounts = new LinkedHashMap<>();
+            if (searcher.getIndexReader().numDocs() > 0) {
+                Facets facets = new SortedSetDocValuesFacetCounts(facetState(searcher.getIndexReader()), facetsCollector);
+                putAll(categoryCounts, facets.getTopChildren(Expense.Category.values().length, F_CATEGORY));
+                putAll(statusCounts, facets.getTopChildren(Expense.Status.values().length, F_STATUS));
+            }
+            Map<String, Long> amountCounts = new LinkedHashMap<>();
+            putAll(amountCounts, new LongRangeFacetCounts(F_AMOUNT, facetsCollector, AMOUNT_RANGES)
+                    .getAllChildren(F_AMOUNT));
+            Map<String, Long> dateCounts = new LinkedHashMap<>();
+            putAll(dateCounts, new LongRangeFacetCounts(F_DATE, facetsCollector, dateRanges(LocalDate.now()))
+                    .getAllChildren(F_DATE));
+            
+            return new ExpenseSearchResult(hits, top.totalHits.value, page, pageSize,
+                    categoryCounts, statusCounts, amountCounts, dateCounts);
+        } finally {
+            searcherManager.release(searcher);
+            sample.stop(Timer.builder("search.query")
+                    .description("Expense search latency")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+    }
+    
+    /**
+     * Starts a full reindex in the background.
+     *
+     * @return false when one is already running
+     */
+    public boolean reindexAsync() {
+        if (!reindexing.compareAndSet(false, true)) {
+            return false;
+        }
+        ThreadFactories.named("search-reindex", virtualThreads).newThread(() -> {
+            try {
+                reindex();
+            } catch (Exception e) {
+                log.error("Search reindex failed", e);
+            } finally {
+                reindexing.set(false);
+            }
+        }).start();
+        return true;
+    }
+    
+    public boolean isReindexing() {
+        return reindexing.get();
+    }
+    
+    @Scheduled(cron = "${expense.search.reindex-cron:0 0 4 * * *}")
+    public void scheduledReindex() {
+        reindexAsync();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIndex() {
+        if (writer.getDocStats().numDocs == 0 && expenseRepository.findMaxId() > 0) {
+            reindexAsync();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${expense.search.refresh-interval-ms:1000}")
+    public void refreshSearchers() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+    
+    @Scheduled(fixedDelayString = "${expense.search.commit-interval-ms:60000}")
+    public void commitIndex() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        indexer.shutdown();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+    
+    private void reindex() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        long gen;
+        generationLock.writeLock().lock();
+        try {
+            gen = generation.incrementAndGet();
+        } finally {
+            generationLock.writeLock().unlock();
+        }
+        
+        int threads = Math.max(1, reindexThreads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                ThreadFactories.named("search-reindex-slice", virtualThreads));
+        try {
+            // Archived expenses stay searchable: their table is sliced the same way
+            List<Future<Long>> slices = new ArrayList<>(threads * 2);
+            submitSlices(executor, slices, expenseRepository.findMaxId(), threads, gen,
+                    expenseRepository::findIndexRowsBetween);
+            submitSlices(executor, slices, archivedExpenseRepository.findMaxId(), threads, gen,
+                    archivedExpenseRepository::findIndexRowsBetween);
+            long indexed = 0;
+            for (Future<Long> slice : slices) {
+                try {
+                    indexed += slice.get();
+                } catch (ExecutionException e) {
+                    throw new IOException("Reindex slice failed; older documents kept", e.getCause());
+                }
+            }
+            
+            writer.deleteDocuments(LongPoint.newRangeQuery(F_GENERATION, Long.MIN_VALUE, gen - 1));
+            writer.setLiveCommitData(Map.of(F_GENERATION, Long.toString(gen)).entrySet());
+            writer.commit();
+            searcherManager.maybeRefresh();
+            log.info("Reindexed {} expenses in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    private void submitSlices(ExecutorService executor, List<Future<Long>> slices, long maxId, int threads, long gen,
+                              IndexRowSource source) {
+        long sliceSize = maxId / threads + 1;
+        for (int i = 0; i < threads; i++) {
+            long from = i * sliceSize;
+            long to = Math.min(maxId, from + sliceSize);
+            slices.add(executor.submit(() -> indexSlice(source, from, to, gen)));
+        }
+    }
+    
+    private long indexSlice(IndexRowSource source, long after, long upTo, long gen) throws IOException {
+        long indexed = 0;
+        List<ExpenseIndexRow> rows;
+        while (!(rows = source.findIndexRowsBetween(after, upTo, PageRequest.of(0, reindexBatchSize))).isEmpty()) {
+            for (ExpenseIndexRow row : rows) {
+                writer.updateDocument(new Term(F_ID, row.id().toString()), toDocument(row, gen));
+            }
+            indexed += rows.size();
+            after = rows.get(rows.size() - 1).id();
+        }
+        return indexed;
+    }
+    
+    private void enqueue(Collection<Long> ids) {
+        pendingIds.addAll(ids);
+        if (drainScheduled.compareAndSet(false, true)) {
+            indexer.execute(this::drainPending);
+        }
+    }
+    
+    private void drainPending() {
+        drainScheduled.set(false);
+        while (!pendingIds.isEmpty()) {
+            Set<Long> batch = new HashSet<>();
+            for (Iterator<Long> it = pendingIds.iterator(); it.hasNext() && batch.size() < INDEX_BATCH_SIZE; ) {
+                batch.add(it.next());
+                it.remove();
+            }
+            generationLock.readLock().lock();
+            try {
+                long gen = generation.get();
+                for (ExpenseIndexRow row : expenseRepository.findIndexRows(batch)) {
+                    writer.updateDocument(new Term(F_ID, row.id().toString()), toDocument(row, gen));
+                    batch.remove(row.id());
+                }
+                // Whatever is left no longer exists
+                for (Long id : batch) {
+                    writer.deleteDocuments(new Term(F_ID, id.toString()));
+                }
+            } catch (Exception e) {
+                log.warn("Incremental indexing failed for {} expenses; the next reindex will pick them up: {}",
+                        batch.size(), e.getMessage());
+            } finally {
+                generationLock.readLock().unlock();
+            }
+        }
+    }
+    
+    private Document toDocument(ExpenseIndexRow row, long gen) throws IOException {
+        Document doc = new Document();
+        doc.add(new StringField(F_ID, row.id().toString(), Field.Store.YES));
+        doc.add(new TextField(F_DESCRIPTION, row.description(), Field.Store.YES));
+        if (row.comments() != null) {
+            doc.add(new TextField(F_COMMENTS, row.comments(), Field.Store.YES));
+        }
+        doc.add(new TextField(F_EMPLOYEE, row.employeeName(), Field.Store.YES));
+        doc.add(new TextField(F_DEPARTMENT, row.department(), Field.Store.YES));
+        
+        doc.add(new StringField(F_CATEGORY, row.category().name(), Field.Store.YES));
+        doc.add(new SortedSetDocValuesFacetField(F_CATEGORY, row.category().name()));
+        doc.add(new StringField(F_STATUS, row.status().name(), Field.Store.YES));
+        doc.add(new SortedSetDocValuesFacetField(F_STATUS, row.status().name()));
+        
+        long cents = row.amount().movePointRight(2).longValue();
+        doc.add(new LongPoint(F_AMOUNT, cents));
+        doc.add(new NumericDocValuesField(F_AMOUNT, cents));
+        doc.add(new StoredField(F_AMOUNT, cents));
+        
+        long day = row.expenseDate().toEpochDay();
+        doc.add(new LongPoint(F_DATE, day));
+        doc.add(new NumericDocValuesField(F_DATE, day));
+        doc.add(new StoredField(F_DATE, day));
+        
+        doc.add(new NumericDocValuesField(F_SUBMITTED, row.submittedAt().toEpochSecond(ZoneOffset.UTC)));
+        doc.add(new LongPoint(F_GENERATION, gen));
+        return facetsConfig.build(doc);
+    }
+    
+    private Query parseText(String text) {
+        if (!StringUtils.hasText(text)) {
+            return null;
+        }
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        return parser.parse(text.trim());
+    }
+    
+    private static Query withFilters(Query base, ExpenseSearchQuery request) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder().add(base, BooleanClause.Occur.MUST);
+        if (request.category() != null) {
+            builder.add(new TermQuery(new Term(F_CATEGORY, request.category().name())), BooleanClause.Occur.FILTER);
+        }
+        if (request.status() != null) {
+            builder.add(new TermQuery(new Term(F_STATUS, request.status().name())), BooleanClause.Occur.FILTER);
+        }
+        if (request.minAmount() != null || request.maxAmount() != null) {
+            long min = request.minAmount() == null ? Long.MIN_VALUE : request.minAmount().movePointRight(2).longValue();
+            long max = request.maxAmount() == null ? Long.MAX_VALUE : request.maxAmount().movePointRight(2).longValue();
+            builder.add(LongPoint.newRangeQuery(F_AMOUNT, min, max), BooleanClause.Occur.FILTER);
+        }
+        if (request.from() != null || request.to() != null) {
+            long from = request.from() == null ? Long.MIN_VALUE : request.from().toEpochDay();
+            long to = request.to() == null ? Long.MAX_VALUE : request.to().toEpochDay();
+            builder.add(LongPoint.newRangeQuery(F_DATE, from, to), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+    
+    private UnifiedHighlighter highlighter(IndexSearcher searcher) {
+        return UnifiedHighlighter.builder(searcher, analyzer)
+                .withFormatter(new DefaultPassageFormatter("<mark>", "</mark>", " … ", true))
+                .build();
+    }
+    
+    private static String highlight(Map<String, String[]> highlights, String field, int index) {
+        String[] values = highlights.get(field);
+        return values == null ? null : values[index];
+    }
+    
+    private static LongRange[] dateRanges(LocalDate today) {
+        long day = today.toEpochDay();
+        return new LongRange[]{
+                new LongRange("Last 30 days", day - 30, true, day, true),
+                new LongRange("Last 90 days", day - 90, true, day, true),
+                new LongRange("Last 12 months", today.minusYears(1).toEpochDay(), true, day, true),
+                new LongRange("Older", Long.MIN_VALUE, true, today.minusYears(1).toEpochDay(), false)
+        };
+    }
+    
+    private static void putAll(Map<String, Long> target, FacetResult result) {
+        if (result == null) {
+            return;
+        }
+        for (LabelAndValue lv : result.labelValues) {
+            target.put(lv.label, lv.value.longValue());
+        }
+    }
+    
+    // The ordinal map behind the category/status facets is built once per reader
+    private SortedSetDocValuesReaderState facetState(IndexReader reader) throws IOException {
+        FacetState current = facetState;
+        if (current == null || current.reader() != reader) {
+            current = new FacetState(reader, new DefaultSortedSetDocValuesReaderState(reader, facetsConfig));
+            facetState = current;
+        }
+        return current.state();
+    }
+}
@@ -1,62 +1,460 @@
 package com.expense.reimbursement.service;
 
+import com.expense.reimbursement.dto.BulkDecisionResult;
+import com.expense.reimbursement.dto.DecisionOutcome;
+import com.expense.reimbursement.dto.ExpenseCursor;
+import com.expense.reimbursement.dto.ExpenseEvent;
+import com.expense.reimbursement.dto.ExpensePage;
+import com.expense.reimbursement.dto.ExpenseStatusRef;
+import com.expense.reimbursement.model.ArchivedExpense;
 import com.expense.reimbursement.model.Employee;
 import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.model.OutboxMessage;
+import com.expense.reimbursement.repository.ApprovalInboxRepository;
+import com.expense.reimbursement.repository.ArchivedExpenseRepository;
+import com.expense.reimbursement.repository.EmployeeRepository;
 import com.expense.reimbursement.repository.ExpenseRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "expense.service", percentiles = {0.5, 0.95, 0.99})
 public class ExpenseService {
     
+    // Upper bound on ids in one IN (...) list
+    private static final int BULK_CHUNK_SIZE = 500;
+    
+    private static final Comparator<Expense> NEWEST_FIRST =
+            Comparator.comparing(Expense::getSubmittedAt).thenComparing(Expense::getId).reversed();
+    
     @Autowired
     private ExpenseRepository expenseRepository;
     
+    @Autowired
+    private ArchivedExpenseRepository archivedExpenseRepository;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private ExpenseCounterService expenseCounterService;
+    
+    @Autowired
+    private SpendReportService spendReportService;
+    
+    @Autowired
+    private ThumbnailService thumbnailService;
+    
+    @Autowired
+    private ExpenseSearchService expenseSearchService;
+    
+    @Autowired
+    private ExpenseMetrics expenseMetrics;
+    
+    @Autowired
+    private ExpenseEventService expenseEventService;
+    
+    @Autowired
+    private ApprovalWorkflowService approvalWorkflowService;
+    
+    @Autowired
+    private ApprovalInboxRepository approvalInboxRepository;
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+    
+    @Value("${expense.page-size:20}")
+    private int pageSize;
+    
+    @Transactional
+    public Expense submitExpense(Expense expense, Long employeeId) {
+        expense.setEmployee(employeeRepository.getReferenceById(employeeId));
+        return saveExpense(expense);
+    }
+    
+    @Transactional
     public Expense saveExpense(Expense expense) {
-        return expenseRepository.save(expense);
+        boolean isNew = expense.getId() == null;
+        boolean needsApproval = isNew && expense.getStatus() == Expense.Status.PENDING;
+        boolean needsThumbnail = isNew && expense.getReceiptFilePath() != null;
+        if (needsThumbnail) {
+            expense.setThumbnailStatus(Expense.ThumbnailStatus.PENDING);
+        }
+        if (isNew) {
+            duplicateDetectionService.check(expense);
+        }
+        if (needsApproval) {
+            approvalWorkflowService.prepare(expense);
+        }
+        // New rows are flushed right away: the counter, rollup and inbox statements below
+        // are native SQL that reads or references them
+        Expense saved = isNew ? expenseRepository.saveAndFlush(expense) : expenseRepository.save(expense);
+        if (isNew) {
+            duplicateDetectionService.record(saved);
+            expenseCounterService.recordSubmitted(saved.getEmployee().getId(), saved.getStatus());
+            spendReportService.recordSubmitted(saved.getId(), saved.getStatus());
+        }
+        if (needsApproval) {
+            List<Long> approvers = approvalWorkflowService.enqueue(saved);
+            expenseEventService.publishAfterCommit(ExpenseEvent.queued(
+                    List.of(ExpenseEvent.PendingExpense.of(saved, approvers))));
+            notificationService.record(OutboxMessage.EventType.SUBMITTED, List.of(saved.getId()),
+                    saved.getEmployee().getId(), saved.getSubmittedAt());
+        }
+        expenseSearchService.indexAfterCommit(List.of(saved.getId()));
+        if (needsThumbnail) {
+            String receiptKey = saved.getReceiptFilePath();
+            String fileName = saved.getReceiptFileName();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    thumbnailService.submit(receiptKey, fileName);
+                }
+            });
+        }
+        return saved;
     }
     
-    public List<Expense> getAllExpenses() {
-        return expenseRepository.findAllByOrderBySubmittedAtDesc();
+    /**
+     * Returns one page of all expenses, newest first. Pass {@code after} (the next cursor of
+     * the current page) to move forward or {@code before} (its previous cursor) to move back;
+     * with neither the first page is returned.
+     */
+    public ExpensePage<Expense> getExpensesPage(String after, String before) {
+        ExpenseCursor afterCursor = ExpenseCursor.decode(after);
+        ExpenseCursor beforeCursor = ExpenseCursor.decode(before);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        
+        if (beforeCursor != null) {
+            return toPage(expenseRepository.findPageBefore(
+                    beforeCursor.submittedAt(), beforeCursor.id(), limit), true, true);
+        }
+        if (afterCursor != null) {
+            return toPage(expenseRepository.findPageAfter(
+                    afterCursor.submittedAt(), afterCursor.id(), limit), false, true);
+        }
+        return toPage(expenseRepository.findFirstPage(limit), false, false);
     }
     
-    public List<Expense> getExpensesByEmployee(Employee employee) {
-        return expenseRepository.findByEmployeeOrderBySubmittedAtDesc(employee);
+    /**
+     * Like {@link #getExpensesPage(String, String)}, with {@code history} also reading the
+     * archive. Each table yields its own next page-plus-one from its keyset index and the
+     * two are merged, so the cursors work across both.
+     */
+    public ExpensePage<Expense> getExpensesPage(String after, String before, boolean history) {
+        if (!history) {
+            return getExpensesPage(after, before);
+        }
+        ExpenseCursor afterCursor = ExpenseCursor.decode(after);
+        ExpenseCursor beforeCursor = ExpenseCursor.decode(before);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        
+        if (beforeCursor != null) {
+            return toPage(merge(
+                    expenseRepository.findPageBefore(beforeCursor.submittedAt(), beforeCursor.id(), limit),
+                    archivedExpenseRepository.findPageBefore(beforeCursor.submittedAt(), beforeCursor.id(), limit),
+                    NEWEST_FIRST.reversed(), pageSize + 1), true, true);
+        }
+        if (afterCursor != null) {
+            return toPage(merge(
+                    expenseRepository.findPageAfter(afterCursor.submittedAt(), afterCursor.id(), limit),
+                    archivedExpenseRepository.findPageAfter(afterCursor.submittedAt(), afterCursor.id(), limit),
+                    NEWEST_FIRST, pageSize + 1), false, true);
+        }
+        return toPage(merge(expenseRepository.findFirstPage(limit), archivedExpenseRepository.findFirstPage(limit),
+                NEWEST_FIRST, pageSize + 1), false, false);
     }
     
-    public List<Expense> getPendingExpenses() {
-        return expenseRepository.findByStatusOrderBySubmittedAtDesc(Expense.Status.PENDING);
+    public List<Expense> getExpensesByEmployee(Long employeeId) {
+        return expenseRepository.findByEmployeeIdOrderBySubmittedAtDesc(employeeId);
     }
     
+    /**
+     * The employee's expenses, with {@code history} including the archived ones.
+     */
+    public List<Expense> getExpensesByEmployee(Long employeeId, boolean history) {
+        if (!history) {
+            return getExpensesByEmployee(employeeId);
+        }
+        return merge(expenseRepository.findByEmployeeIdOrderBySubmittedAtDesc(employeeId),
+                archivedExpenseRepository.findByEmployeeIdOrderBySubmittedAtDesc(employeeId),
+                NEWEST_FIRST, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * One page of the approver's inbox, newest first, with the same cursors as the other
+     * pages. The inbox yields the page's ids from one range scan of its key; the expenses
+     * are then loaded by primary key.
+     */
+    public ExpensePage<Expense> getInboxPage(Long approverId, String after, String before) {
+        ExpenseCursor afterCursor = ExpenseCursor.decode(after);
+        ExpenseCursor beforeCursor = ExpenseCursor.decode(before);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        
+        List<Long> ids;
+        if (beforeCursor != null) {
+            ids = approvalInboxRepository.findPageBefore(approverId, beforeCursor.submittedAt(), beforeCursor.id(), limit);
+        } else if (afterCursor != null) {
+            ids = approvalInboxRepository.findPageAfter(approverId, afterCursor.submittedAt(), afterCursor.id(), limit);
+        } else {
+            ids = approvalInboxRepository.findFirstPage(approverId, limit);
+        }
+        List<Expense> rows = new ArrayList<>(ids.size());
+        if (!ids.isEmpty()) {
+            Map<Long, Expense> byId = expenseRepository.findDetailsByIds(ids).stream()
+                    .collect(Collectors.toMap(Expense::getId, Function.identity()));
+            ids.stream().map(byId::get).filter(Objects::nonNull).forEach(rows::add);
+        }
+        return toPage(rows, beforeCursor != null, beforeCursor != null || afterCursor != null);
+    }
+    
+    public ExpensePage<Expense> getPendingExpensesPage(String after, String before) {
+        return getExpensesPageByStatus(Expense.Status.PENDING, after, before);
+    }
+    
+    public ExpensePage<Expense> getExpensesPageByStatus(Expense.Status status, String after, String before) {
+        ExpenseCursor afterCursor = ExpenseCursor.decode(after);
+        ExpenseCursor beforeCursor = ExpenseCursor.decode(before);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        
+        if (beforeCursor != null) {
+            return toPage(expenseRepository.findPageByStatusBefore(
+                    status, beforeCursor.submittedAt(), beforeCursor.id(), limit), true, true);
+        }
+        if (afterCursor != null) {
+            return toPage(expenseRepository.findPageByStatusAfter(
+                    status, afterCursor.submittedAt(), afterCursor.id(), limit), false, true);
+        }
+        return toPage(expenseRepository.findFirstPageByStatus(status, limit), false, false);
+    }
+    
+    // From the counters rather than a GROUP BY over expenses, which would both scan the
+    // table and miss the archived rows
+    public Map<Expense.Status, Long> getStatusCounts() {
+        return expenseCounterService.getTotals();
+    }
+    
+    public Map<Expense.Status, Long> getStatusCountsByEmployee(Long employeeId) {
+        return expenseCounterService.getCounts(employeeId);
+    }
+    
+    /**
+     * Looks in the archive when the expense is not in the hot table; an archived expense
+     * comes back detached.
+     */
     public Optional<Expense> getExpenseById(Long id) {
-        return expenseRepository.findById(id);
+        return expenseRepository.findDetailById(id)
+                .or(() -> archivedExpenseRepository.findDetailById(id).map(ArchivedExpense::toExpense));
     }
     
-    public Expense approveExpense(Long expenseId, Employee approver) {
-        Optional<Expense> expenseOpt = expenseRepository.findById(expenseId);
-        if (expenseOpt.isPresent()) {
-            Expense expense = expenseOpt.get();
-            expense.setStatus(Expense.Status.APPROVED);
-            expense.setApprovedBy(approver);
-            expense.setApprovedAt(LocalDateTime.now());
-            return expenseRepository.save(expense);
+    public DecisionOutcome approveExpense(Long expenseId, Long approverId) {
+        return decideExpense(expenseId, Expense.Status.APPROVED, approverId);
+    }
+    
+    public DecisionOutcome rejectExpense(Long expenseId, Long approverId) {
+        return decideExpense(expenseId, Expense.Status.REJECTED, approverId);
+    }
+    
+    /**
+     * Decides a PENDING expense from the approver's inbox. Approval below the last level
+     * forwards it to the next level's approvers; otherwise it is approved or rejected.
+     * Either way it is one conditional UPDATE guarded on status and level: when two
+     * approvers race, the loser's UPDATE matches no row and it gets ALREADY_DECIDED back
+     * instead of overwriting the winner or waiting on a lock taken up front.
+     */
+    @Transactional
+    public DecisionOutcome decideExpense(Long expenseId, Expense.Status decision, Long approverId) {
+        if (decision == Expense.Status.PENDING) {
+            throw new IllegalArgumentException("Decision must be APPROVED or REJECTED");
+        }
+        ExpenseStatusRef ref = expenseRepository.findStatusRefById(expenseId);
+        if (ref == null) {
+            return DecisionOutcome.NOT_FOUND;
+        }
+        if (ref.getStatus() != Expense.Status.PENDING) {
+            return DecisionOutcome.ALREADY_DECIDED;
+        }
+        List<Long> ids = List.of(expenseId);
+        if (approvalWorkflowService.assignedTo(approverId, ids).isEmpty()) {
+            return DecisionOutcome.NOT_ASSIGNED;
+        }
+        
+        if (decision == Expense.Status.APPROVED && ref.getApprovalLevel() < ref.getApprovalLevels()) {
+            if (expenseRepository.advanceLevelIfCurrent(ids, Expense.Status.PENDING, ref.getApprovalLevel()) == 0) {
+                return DecisionOutcome.ALREADY_DECIDED;
+            }
+            forward(ids);
+            return DecisionOutcome.FORWARDED;
         }
-        return null;
+        
+        Employee approver = employeeRepository.getReferenceById(approverId);
+        LocalDateTime decidedAt = LocalDateTime.now();
+        int updated = expenseRepository.decideIfAtLevel(
+                expenseId, Expense.Status.PENDING, ref.getApprovalLevel(), decision, approver, decidedAt);
+        if (updated == 0) {
+            return DecisionOutcome.ALREADY_DECIDED;
+        }
+        expenseCounterService.recordTransition(ref.getEmployeeId(), Expense.Status.PENDING, decision);
+        expenseMetrics.recordDecision(decision, ref.getSubmittedAt(), decidedAt);
+        spendReportService.recordTransitions(ids, Expense.Status.PENDING, decision);
+        expenseSearchService.indexAfterCommit(ids);
+        List<Long> approvers = approvalWorkflowService.dequeue(ids);
+        expenseEventService.publishAfterCommit(ExpenseEvent.decided(ids, decision, approvers));
+        notificationService.record(OutboxMessage.EventType.of(decision), ids, approverId, decidedAt);
+        return DecisionOutcome.DECIDED;
     }
     
-    public Expense rejectExpense(Long expenseId, Employee approver) {
-        Optional<Expense> expenseOpt = expenseRepository.findById(expenseId);
-        if (expenseOpt.isPresent()) {
-            Expense expense = expenseOpt.get();
-            expense.setStatus(Expense.Status.REJECTED);
-            expense.setApprovedBy(approver);
-            expense.setApprovedAt(LocalDateTime.now());
-            return expenseRepository.save(expense);
+    /**
+     * Approves or rejects many expenses from the approver's inbox in one transaction, with
+     * a single UPDATE per chunk for the final decisions and one per level for approvals
+     * that forward. Only PENDING rows assigned to the approver change; every requested id
+     * gets an outcome in the result.
+     */
+    @Transactional
+    public BulkDecisionResult decideExpenses(List<Long> expenseIds, Expense.Status decision, Long approverId) {
+        if (decision == Expense.Status.PENDING) {
+            throw new IllegalArgumentException("Decision must be APPROVED or REJECTED");
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(expenseIds));
+        Map<Long, DecisionOutcome> outcomes = new LinkedHashMap<>();
+        ids.forEach(id -> outcomes.put(id, DecisionOutcome.NOT_FOUND));
+        Employee approver = employeeRepository.getReferenceById(approverId);
+        LocalDateTime decidedAt = LocalDateTime.now();
+        List<Long> decidedIds = new ArrayList<>();
+        Set<Long> decidedApprovers = new LinkedHashSet<>();
+        
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            Set<Long> assigned = approvalWorkflowService.assignedTo(approverId, chunk);
+            List<Long> pendingIds = new ArrayList<>();
+            Map<Integer, List<Long>> forwardByLevel = new HashMap<>();
+            Map<Long, Long> decidedPerEmployee = new HashMap<>();
+            
+            for (ExpenseStatusRef ref : expenseRepository.lockStatusRefs(chunk)) {
+                if (ref.getStatus() != Expense.Status.PENDING) {
+                    outcomes.put(ref.getId(), DecisionOutcome.ALREADY_DECIDED);
+                } else if (!assigned.contains(ref.getId())) {
+                    outcomes.put(ref.getId(), DecisionOutcome.NOT_ASSIGNED);
+                } else if (decision == Expense.Status.APPROVED && ref.getApprovalLevel() < ref.getApprovalLevels()) {
+                    forwardByLevel.computeIfAbsent(ref.getApprovalLevel(), level -> new ArrayList<>()).add(ref.getId());
+                    outcomes.put(ref.getId(), DecisionOutcome.FORWARDED);
+                } else {
+                    pendingIds.add(ref.getId());
+                    decidedPerEmployee.merge(ref.getEmployeeId(), 1L, Long::sum);
+                    outcomes.put(ref.getId(), DecisionOutcome.DECIDED);
+                    expenseMetrics.recordDecision(decision, ref.getSubmittedAt(), decidedAt);
+                }
+            }
+            
+            if (!forwardByLevel.isEmpty()) {
+                List<Long> forwardIds = new ArrayList<>();
+                forwardByLevel.forEach((level, levelIds) -> {
+                    expenseRepository.advanceLevelIfCurrent(levelIds, Expense.Status.PENDING, level);
+                    forwardIds.addAll(levelIds);
+                });
+                forward(forwardIds);
+            }
+            if (pendingIds.isEmpty()) {
+                continue;
+            }
+            
+            expenseRepository.updateStatusIfCurrent(pendingIds, Expense.Status.PENDING, decision, approver, decidedAt);
+            decidedPerEmployee.forEach((employeeId, count) ->
+                    expenseCounterService.recordTransitions(employeeId, Expense.Status.PENDING, decision, count));
+            spendReportService.recordTransitions(pendingIds, Expense.Status.PENDING, decision);
+            expenseSearchService.indexAfterCommit(pendingIds);
+            decidedApprovers.addAll(approvalWorkflowService.dequeue(pendingIds));
+            notificationService.record(OutboxMessage.EventType.of(decision), pendingIds, approverId, decidedAt);
+            decidedIds.addAll(pendingIds);
+        }
+        if (!decidedIds.isEmpty()) {
+            expenseEventService.publishAfterCommit(ExpenseEvent.decided(decidedIds, decision, decidedApprovers));
+        }
+        return new BulkDecisionResult(decision, outcomes);
+    }
+    
+    /**
+     * Moves expenses that were just advanced a level from the previous approvers' inboxes
+     * to the new level's.
+     */
+    private void forward(List<Long> ids) {
+        List<Long> previousApprovers = approvalWorkflowService.dequeue(ids);
+        Map<Long, List<Long>> routed = approvalWorkflowService.enqueueCurrentLevel(ids);
+        expenseEventService.publishAfterCommit(ExpenseEvent.forwarded(ids, previousApprovers));
+        if (routed.isEmpty()) {
+            return;
+        }
+        List<ExpenseEvent.PendingExpense> rows = expenseRepository.findDetailsByIds(routed.keySet()).stream()
+                .map(e -> ExpenseEvent.PendingExpense.of(e, routed.get(e.getId())))
+                .toList();
+        expenseEventService.publishAfterCommit(ExpenseEvent.queued(rows));
+    }
+    
+    /**
+     * Merges rows from the hot table and the archive, each already in {@code order}, and
+     * keeps the first {@code limit}. An expense archived between the two reads can show
+     * up in both; it is kept once.
+     */
+    private List<Expense> merge(List<Expense> hot, List<ArchivedExpense> archived, Comparator<Expense> order,
+                                int limit) {
+        List<Expense> rows = new ArrayList<>(hot.size() + archived.size());
+        rows.addAll(hot);
+        Set<Long> ids = new HashSet<>();
+        hot.forEach(e -> ids.add(e.getId()));
+        for (ArchivedExpense row : archived) {
+            if (ids.add(row.getId())) {
+                rows.add(row.toExpense());
+            }
+        }
+        rows.sort(order);
+        return rows.size() > limit ? rows.subList(0, limit) : rows;
+    }
+    
+    /**
+     * Trims the one-row lookahead and derives the cursors. Backward queries read in ascending
+     * order, so their rows are flipped back to newest first before building the page.
+     */
+    private ExpensePage<Expense> toPage(List<Expense> rows, boolean backward, boolean fromCursor) {
+        boolean more = rows.size() > pageSize;
+        List<Expense> content = new ArrayList<>(more ? rows.subList(0, pageSize) : rows);
+        if (backward) {
+            Collections.reverse(content);
+        }
+        if (content.isEmpty()) {
+            return new ExpensePage<>(content, null, null);
+        }
+        
+        String first = ExpenseCursor.of(content.get(0)).encode();
+        String last = ExpenseCursor.of(content.get(content.size() - 1)).encode();
+        if (backward) {
+            return new ExpensePage<>(content, last, more ? first : null);
         }
-        return null;
+        return new ExpensePage<>(content, more ? last : null, fromCursor ? first : null);
     }
 }
\ No newline at end of file
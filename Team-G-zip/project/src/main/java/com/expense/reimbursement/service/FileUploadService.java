@@ -1,55 +1,175 @@
 package com.expense.reimbursement.service;
 
+import com.expense.reimbursement.repository.ReceiptRepository;
+import com.expense.reimbursement.storage.ReceiptStore;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
+/**
+ * Stores receipts content-addressed: a file lives under the key {@code ab/cd/<sha256>}
+ * in the {@link ReceiptStore}, where ab/cd are the first hash bytes. Re-uploading
+ * identical content reuses the stored file and only bumps its reference count in the
+ * receipts table.
+ */
 @Service
+@Timed(value = "upload.service", percentiles = {0.5, 0.95, 0.99})
 public class FileUploadService {
     
+    private static final long TRANSFER_CHUNK = 1L << 20;
+    
     @Value("${file.upload-dir}")
     private String uploadDir;
     
+    @Autowired
+    private ReceiptRepository receiptRepository;
+    
+    @Autowired
+    private ReceiptStore receiptStore;
+    
+    @Autowired
+    private ExpenseMetrics expenseMetrics;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private Path tempDir;
+    private TransactionTemplate requiresNew;
+    
+    @PostConstruct
+    void createDirectories() throws IOException {
+        tempDir = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(".tmp");
+        Files.createDirectories(tempDir);
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    /**
+     * Streams the upload into a temp file while hashing it, then hands it to the store
+     * under its content address (or drops it if that content is already stored).
+     *
+     * @return the storage key to keep in Expense.receiptFilePath
+     */
+    @Transactional
     public String uploadFile(MultipartFile file) throws IOException {
         if (file.isEmpty()) {
             throw new IOException("File is empty");
         }
         
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+        try {
+            long size = 0;
+            try (ReadableByteChannel in = Channels.newChannel(new DigestInputStream(file.getInputStream(), digest));
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long transferred;
+                while ((transferred = out.transferFrom(in, size, TRANSFER_CHUNK)) > 0) {
+                    size += transferred;
+                }
+            }
+            
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String key = storageKey(hash);
+            // Reference first: its row lock holds off a deleteFile of the same content until
+            // this commits, and the put then restores a file such a delete already removed
+            receiptRepository.addReference(hash, key, size);
+            boolean written = receiptStore.put(key, temp);
+            expenseMetrics.recordUpload(size, !written);
+            return key;
+        } finally {
+            Files.deleteIfExists(temp);
         }
-        
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-        
-        // Save file
-        Path filePath = uploadPath.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-        
-        return uniqueFilename;
     }
     
+    /**
+     * Drops one reference to a stored receipt. The file itself is removed after commit
+     * once nothing refers to it, unless an upload of the same content has taken a new
+     * reference by then. Pre-content-addressing files (a flat UUID name) are deleted
+     * directly.
+     */
+    @Transactional
     public boolean deleteFile(String filename) {
+        if (!isContentAddressed(filename)) {
+            return deleteQuietly(filename);
+        }
+        
+        String hash = filename.substring(filename.lastIndexOf('/') + 1);
+        if (receiptRepository.removeReference(hash) == 0) {
+            return false;
+        }
+        if (receiptRepository.deleteIfUnreferenced(hash) > 0) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requiresNew.executeWithoutResult(tx -> {
+                        if (receiptRepository.lockBySha256(hash).isEmpty()) {
+                            deleteQuietly(filename);
+                        }
+                    });
+                }
+            });
+        }
+        return true;
+    }
+    
+    /**
+     * Local file holding the stored content for {@code key}; for a remote store this is
+     * a cached copy.
+     *
+     * @throws java.nio.file.NoSuchFileException when nothing is stored under the key
+     */
+    public Path getLocalFile(String key) throws IOException {
+        return receiptStore.fetch(key);
+    }
+    
+    /** Scratch file on the same disk as uploads, for callers that build files to store. */
+    public Path createTempFile(String prefix, String suffix) throws IOException {
+        return Files.createTempFile(tempDir, prefix, suffix);
+    }
+    
+    static String storageKey(String hash) {
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+    
+    static boolean isContentAddressed(String filename) {
+        return filename.indexOf('/') >= 0;
+    }
+    
+    private boolean deleteQuietly(String key) {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(filename);
-            return Files.deleteIfExists(filePath);
+            return receiptStore.delete(key);
         } catch (IOException e) {
             return false;
         }
     }
     
-    public Path getFilePath(String filename) {
-        return Paths.get(uploadDir).resolve(filename);
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,229 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.config.ThreadFactories;
+import com.expense.reimbursement.dto.ExpenseNotification;
+import com.expense.reimbursement.model.OutboxMessage;
+import com.expense.reimbursement.notification.NotificationSink;
+import com.expense.reimbursement.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expense notifications through a transactional outbox. Submissions and decisions write
+ * one notification_outbox row per interested sink in their own transaction, so a
+ * notification exists exactly when the change committed. Delivery happens later, off the
+ * request: each sink is drained in batches on its own thread, woken after each commit
+ * and by a periodic poll. Delivery is at least once; failures are retried with
+ * exponential backoff and marked FAILED after the last attempt.
+ */
+@Service
+public class NotificationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+    
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${expense.notifications.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${expense.notifications.max-attempts:10}")
+    private int maxAttempts;
+    
+    @Value("${expense.notifications.initial-backoff-ms:5000}")
+    private long initialBackoffMs;
+    
+    @Value("${expense.notifications.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+    
+    @Value("${expense.notifications.lease-ms:300000}")
+    private long leaseMs;
+    
+    private final List<NotificationSink> sinks;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> draining = ConcurrentHashMap.newKeySet();
+    private final MeterRegistry meterRegistry;
+    
+    public NotificationService(ObjectProvider<NotificationSink> sinks,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                               MeterRegistry meterRegistry) {
+        this.sinks = sinks.orderedStream().toList();
+        // One thread per sink: a slow sink holds up its own queue and nothing else
+        int threads = Math.max(1, this.sinks.size());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads), ThreadFactories.named("notifications", virtualThreads));
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Queues a notification for every sink that wants this type, for each expense, in
+     * the caller's transaction; one INSERT ... SELECT per sink however many expenses.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxMessage.EventType type, Collection<Long> expenseIds, Long actorId, LocalDateTime occurredAt) {
+        if (expenseIds.isEmpty()) {
+            return;
+        }
+        boolean queued = false;
+        for (NotificationSink sink : sinks) {
+            if (sink.accepts(type)) {
+                outboxRepository.enqueue(sink.name(), type.name(), expenseIds, actorId, occurredAt);
+                queued = true;
+            }
+        }
+        if (queued) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    poll();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Starts a drain for every sink not already being drained. Never blocks, so it is
+     * also safe to call from request threads.
+     */
+    @Scheduled(fixedDelayString = "${expense.notifications.poll-ms:1000}",
+               initialDelayString = "${expense.notifications.poll-ms:1000}")
+    public void poll() {
+        for (NotificationSink sink : sinks) {
+            if (!draining.add(sink.name())) {
+                continue;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        drain(sink);
+                    } catch (RuntimeException e) {
+                        log.warn("Draining notifications for {} failed", sink.name(), e);
+                    } finally {
+                        draining.remove(sink.name());
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                draining.remove(sink.name());
+            }
+        }
+    }
+    
+    /**
+     * Delivers the sink's due rows a batch at a time until fewer than a full batch are
+     * due. Delivered rows are deleted per batch, so a crash in between repeats at most
+     * one batch. Returns the number delivered.
+     */
+    public int drain(NotificationSink sink) {
+        int delivered = 0;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> due = outboxRepository.findDueIds(sink.name(), OutboxMessage.Status.PENDING, now,
+                    PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                return delivered;
+            }
+            String token = UUID.randomUUID().toString();
+            Integer claimed = transactionTemplate.execute(tx -> outboxRepository.claim(
+                    due, OutboxMessage.Status.PENDING, token, now, now.plus(leaseMs, ChronoUnit.MILLIS)));
+            List<OutboxMessage> batch = claimed == null || claimed == 0
+                    ? List.of() : outboxRepository.findClaimed(due, token);
+            
+            List<Long> sent = new ArrayList<>(batch.size());
+            for (OutboxMessage message : batch) {
+                long start = System.nanoTime();
+                String outcome = "delivered";
+                try {
+                    sink.deliver(ExpenseNotification.of(message));
+                    sent.add(message.getId());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    outcome = retryOrFail(message, e);
+                } catch (Exception e) {
+                    outcome = retryOrFail(message, e);
+                }
+                deliveryTimer(sink.name(), outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (!sent.isEmpty()) {
+                transactionTemplate.executeWithoutResult(tx -> outboxRepository.deleteByIds(sent));
+                delivered += sent.size();
+            }
+            if (due.size() < batchSize || Thread.currentThread().isInterrupted()) {
+                return delivered;
+            }
+        }
+    }
+    
+    public List<NotificationSink> getSinks() {
+        return sinks;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private String retryOrFail(OutboxMessage message, Exception e) {
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+        String truncated = error;
+        if (message.getAttempts() >= maxAttempts) {
+            log.warn("Giving up on {} notification {} for expense {} after {} attempts: {}", message.getSink(),
+                    message.getId(), message.getExpenseId(), message.getAttempts(), truncated);
+            transactionTemplate.executeWithoutResult(tx -> outboxRepository.reschedule(
+                    message.getId(), OutboxMessage.Status.FAILED, message.getNextAttemptAt(), truncated));
+            return "failed";
+        }
+        transactionTemplate.executeWithoutResult(tx -> outboxRepository.reschedule(
+                message.getId(), OutboxMessage.Status.PENDING, LocalDateTime.now().plus(backoffMs(message.getAttempts()),
+                        ChronoUnit.MILLIS), truncated));
+        return "retry";
+    }
+    
+    private Timer deliveryTimer(String sink, String outcome) {
+        return Timer.builder("expenses.notifications.delivery")
+                .description("Time to hand one notification to a sink")
+                .tags("sink", sink, "outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+    
+    // Doubles per attempt up to the cap, with +-20% jitter so a recovered sink is not hit all at once
+    private long backoffMs(int attempts) {
+        long backoff = initialBackoffMs << Math.min(attempts - 1, 20);
+        backoff = Math.min(backoff, maxBackoffMs);
+        return (long) (backoff * (0.8 + 0.4 * ThreadLocalRandom.current().nextDouble()));
+    }
+}
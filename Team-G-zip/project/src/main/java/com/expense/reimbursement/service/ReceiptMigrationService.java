@@ -0,0 +1,127 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.config.ThreadFactories;
+import com.expense.reimbursement.repository.ArchivedExpenseRepository;
+import com.expense.reimbursement.repository.ExpenseRepository;
+import com.expense.reimbursement.storage.ReceiptStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * One-off copy of existing receipt and thumbnail files from a local directory into the
+ * configured {@link ReceiptStore}. Runs at startup when
+ * {@code expense.receipts.migrate-from} is set, e.g.
+ * {@code --expense.receipts.store=s3 --expense.receipts.migrate-from=uploads/}.
+ * Keys are unchanged, so no rows are rewritten; files already in the store are skipped,
+ * which makes a rerun after a failure resume where it stopped. Source files are left
+ * in place.
+ */
+@Service
+@ConditionalOnProperty(name = "expense.receipts.migrate-from")
+public class ReceiptMigrationService implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReceiptMigrationService.class);
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private ArchivedExpenseRepository archivedExpenseRepository;
+    
+    @Autowired
+    private ReceiptStore receiptStore;
+    
+    @Value("${expense.receipts.migrate-from}")
+    private String sourceDir;
+    
+    @Value("${expense.receipts.migrate-batch-size:200}")
+    private int batchSize;
+    
+    @Value("${expense.receipts.migrate-threads:8}")
+    private int threads;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    private final AtomicInteger copied = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger missing = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path source = Paths.get(sourceDir).toAbsolutePath().normalize();
+        log.info("Migrating receipts from {} with {} threads", source, threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                ThreadFactories.named("receipt-migration", virtualThreads));
+        try {
+            migrate(source, executor, expenseRepository::findReceiptKeysAfter);
+            migrate(source, executor, expenseRepository::findThumbnailKeysAfter);
+            migrate(source, executor, archivedExpenseRepository::findReceiptKeysAfter);
+            migrate(source, executor, archivedExpenseRepository::findThumbnailKeysAfter);
+        } finally {
+            executor.shutdown();
+        }
+        log.info("Receipt migration finished: {} copied, {} already present, {} missing, {} failed",
+                copied.get(), skipped.get(), missing.get(), failed.get());
+    }
+    
+    private void migrate(Path source, ExecutorService executor,
+                         BiFunction<String, PageRequest, List<String>> nextBatch) throws InterruptedException {
+        String after = "";
+        List<String> keys;
+        while (!(keys = nextBatch.apply(after, PageRequest.of(0, batchSize))).isEmpty()) {
+            List<Future<?>> batch = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                batch.add(executor.submit(() -> copy(source, key)));
+            }
+            for (Future<?> f : batch) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    failed.incrementAndGet();
+                }
+            }
+            after = keys.get(keys.size() - 1);
+            log.info("Receipt migration at {}: {} copied, {} already present, {} missing, {} failed",
+                    after, copied.get(), skipped.get(), missing.get(), failed.get());
+        }
+    }
+    
+    private void copy(Path source, String key) {
+        Path file = source.resolve(key).normalize();
+        try {
+            if (!file.startsWith(source) || !Files.isRegularFile(file)) {
+                missing.incrementAndGet();
+                return;
+            }
+            if (receiptStore.put(key, file)) {
+                copied.incrementAndGet();
+            } else {
+                skipped.incrementAndGet();
+            }
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.warn("Failed to migrate receipt {}: {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.config.ThreadFactories;
+import com.expense.reimbursement.dto.SpendTotal;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.model.SpendRollup;
+import com.expense.reimbursement.repository.SpendRollupRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Spend totals by department, category, month and status, served from the spend_rollups
+ * table. ExpenseService feeds every write through here inside its own transaction; a
+ * nightly rebuild recomputes the table month by month in parallel, which also picks up
+ * department changes of employees.
+ */
+@Service
+public class SpendReportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SpendReportService.class);
+    
+    @Autowired
+    private SpendRollupRepository rollupRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${expense.reports.rebuild-threads:4}")
+    private int rebuildThreads;
+    
+    @Value("${expense.reports.default-months:12}")
+    private int defaultMonths;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSubmitted(Long expenseId, Expense.Status status) {
+        recordSubmitted(List.of(expenseId), status);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSubmitted(Collection<Long> expenseIds, Expense.Status status) {
+        if (!expenseIds.isEmpty()) {
+            rollupRepository.addExpenses(expenseIds, status.name(), 1);
+        }
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransitions(Collection<Long> expenseIds, Expense.Status from, Expense.Status to) {
+        if (from == to || expenseIds.isEmpty()) {
+            return;
+        }
+        rollupRepository.addExpenses(expenseIds, from.name(), -1);
+        rollupRepository.addExpenses(expenseIds, to.name(), 1);
+    }
+    
+    /**
+     * Report rows for months {@code from} to {@code to} inclusive, newest first. Null
+     * bounds default to the last {@code expense.reports.default-months} months; null
+     * filters match everything.
+     */
+    @Transactional(readOnly = true)
+    public List<SpendTotal> getReport(YearMonth from, YearMonth to, String department,
+                                      Expense.Category category, Expense.Status status) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = from != null ? from : end.minusMonths(defaultMonths - 1);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<SpendTotal> rows = new ArrayList<>();
+        for (SpendRollup r : rollupRepository.findReport(start.atDay(1), end.plusMonths(1).atDay(1),
+                department, category, status)) {
+            rows.add(new SpendTotal(YearMonth.from(r.getMonthStart()), r.getDepartment(), r.getCategory(),
+                    r.getStatus(), r.getAmountCents(), r.getCount()));
+        }
+        sample.stop(queryTimer("rollup"));
+        return rows;
+    }
+    
+    /**
+     * The same report computed with a GROUP BY over the expenses table. Not used by the
+     * UI; it exists to check the rollup and to compare the two query times under the
+     * reports.spend.query timer.
+     */
+    @Transactional(readOnly = true)
+    public List<SpendTotal> getLiveReport(YearMonth from, YearMonth to, String department,
+                                          Expense.Category category, Expense.Status status) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = from != null ? from : end.minusMonths(defaultMonths - 1);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<SpendTotal> rows = new ArrayList<>();
+        for (Object[] r : rollupRepository.findLiveReport(start.atDay(1), end.plusMonths(1).atDay(1), department,
+                category == null ? null : category.name(), status == null ? null : status.name())) {
+            rows.add(new SpendTotal(YearMonth.from(toLocalDate(r[0])), (String) r[1],
+                    Expense.Category.valueOf(r[2].toString()), Expense.Status.valueOf(r[3].toString()),
+                    ((Number) r[4]).longValue(), ((Number) r[5]).longValue()));
+        }
+        sample.stop(queryTimer("live"));
+        return rows;
+    }
+    
+    /** Cents per department across the given rows, sorted by department. */
+    public static Map<String, Long> totalsByDepartment(List<SpendTotal> rows) {
+        Map<String, Long> totals = new TreeMap<>();
+        for (SpendTotal row : rows) {
+            totals.merge(row.department(), row.amountCents(), Long::sum);
+        }
+        return totals;
+    }
+    
+    /**
+     * Recomputes the rollup from the expenses table, one month per transaction on a small
+     * pool. Months that no longer have expenses are cleared.
+     */
+    @Scheduled(cron = "${expense.reports.rebuild-cron:0 45 3 * * *}")
+    public int rebuildRollups() throws InterruptedException {
+        TreeSet<YearMonth> months = new TreeSet<>();
+        for (Integer yyyymm : rollupRepository.findExpenseMonths()) {
+            months.add(YearMonth.of(yyyymm / 100, yyyymm % 100));
+        }
+        for (Integer yyyymm : rollupRepository.findArchivedExpenseMonths()) {
+            months.add(YearMonth.of(yyyymm / 100, yyyymm % 100));
+        }
+        for (LocalDate monthStart : rollupRepository.findRollupMonths()) {
+            months.add(YearMonth.from(monthStart));
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, rebuildThreads),
+                ThreadFactories.named("rollup-rebuild", virtualThreads));
+        try {
+            List<Future<Integer>> results = new ArrayList<>(months.size());
+            for (YearMonth month : months) {
+                results.add(executor.submit(() -> transactionTemplate.execute(tx -> {
+                    rollupRepository.deleteMonth(month.atDay(1));
+                    return rollupRepository.rebuildMonth(month.atDay(1), month.plusMonths(1).atDay(1));
+                })));
+            }
+            int rows = 0;
+            for (Future<Integer> result : results) {
+                try {
+                    rows += result.get();
+                } catch (ExecutionException e) {
+                    log.error("Spend rollup rebuild failed for a month", e.getCause());
+                }
+            }
+            log.info("Rebuilt spend rollups for {} months ({} rows)", months.size(), rows);
+            return rows;
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    /**
+     * Seeds the rollup on first start against an existing expenses table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeRollups() throws InterruptedException {
+        if (rollupRepository.count() == 0) {
+            rebuildRollups();
+        }
+    }
+    
+    private Timer queryTimer(String source) {
+        return Timer.builder("reports.spend.query")
+                .description("Spend report query time by source")
+                .tag("source", source)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+    
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
@@ -0,0 +1,201 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.config.ThreadFactories;
+import com.expense.reimbursement.dto.ReceiptRef;
+import com.expense.reimbursement.model.Expense;
+import com.expense.reimbursement.repository.ExpenseRepository;
+import com.expense.reimbursement.storage.ReceiptStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates receipt thumbnails in the background. Job state is the thumbnailStatus
+ * column on Expense: rows stay PENDING until their receipt's thumbnail exists, and a
+ * periodic sweep resubmits them, so jobs dropped by a full queue or a restart are
+ * picked up again. Thumbnails are keyed by receipt content, so duplicate receipts
+ * are rendered once.
+ */
+@Service
+public class ThumbnailService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+    
+    private static final int MAX_EDGE = 240;
+    private static final float PDF_RENDER_DPI = 72f;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private FileUploadService fileUploadService;
+    
+    @Autowired
+    private ReceiptStore receiptStore;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${expense.thumbnails.sweep-batch-size:200}")
+    private int sweepBatchSize;
+    
+    private final ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Timer readyTimer;
+    private final Timer failedTimer;
+    
+    public ThumbnailService(@Value("${expense.thumbnails.threads:2}") int threads,
+                            @Value("${expense.thumbnails.queue-capacity:500}") int queueCapacity,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                            MeterRegistry meterRegistry) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                ThreadFactories.named("thumbnail", virtualThreads),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.readyTimer = jobTimer("ready", meterRegistry);
+        this.failedTimer = jobTimer("failed", meterRegistry);
+        Gauge.builder("receipts.thumbnails.queue.depth", executor, e -> e.getQueue().size())
+                .description("Thumbnail jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("receipts.thumbnails.in.flight", inFlight, Set::size)
+                .description("Thumbnail jobs queued or running")
+                .register(meterRegistry);
+    }
+    
+    private static Timer jobTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("receipts.thumbnails.job")
+                .description("Thumbnail generation time per receipt")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Queues thumbnail generation for a stored receipt. Never blocks: when the queue is
+     * full the job is simply not taken, and the next sweep retries it.
+     */
+    public void submit(String receiptKey, String fileName) {
+        if (receiptKey == null || !inFlight.add(receiptKey)) {
+            return;
+        }
+        try {
+            executor.execute(() -> generate(receiptKey, fileName));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(receiptKey);
+        }
+    }
+    
+    @Scheduled(initialDelayString = "${expense.thumbnails.sweep-initial-delay-ms:10000}",
+               fixedDelayString = "${expense.thumbnails.sweep-interval-ms:30000}")
+    public void sweepPending() {
+        int free = executor.getQueue().remainingCapacity();
+        if (free == 0) {
+            return;
+        }
+        for (ReceiptRef ref : expenseRepository.findReceiptsByThumbnailStatus(
+                Expense.ThumbnailStatus.PENDING, PageRequest.of(0, Math.min(free, sweepBatchSize)))) {
+            submit(ref.getReceiptFilePath(), ref.getReceiptFileName());
+        }
+    }
+    
+    public static String thumbnailKey(String receiptKey) {
+        return "thumbs/" + receiptKey + ".jpg";
+    }
+    
+    private void generate(String receiptKey, String fileName) {
+        long start = System.nanoTime();
+        Timer outcome = readyTimer;
+        try {
+            String thumbKey = thumbnailKey(receiptKey);
+            if (!receiptStore.exists(thumbKey)) {
+                BufferedImage source = render(fileUploadService.getLocalFile(receiptKey), fileName);
+                writeThumbnail(source, thumbKey);
+            }
+            complete(receiptKey, Expense.ThumbnailStatus.READY, thumbKey);
+        } catch (Exception e) {
+            outcome = failedTimer;
+            log.warn("Thumbnail generation failed for receipt {}: {}", receiptKey, e.getMessage());
+            complete(receiptKey, Expense.ThumbnailStatus.FAILED, null);
+        } finally {
+            inFlight.remove(receiptKey);
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private void complete(String receiptKey, Expense.ThumbnailStatus status, String thumbKey) {
+        transactionTemplate.executeWithoutResult(tx ->
+                expenseRepository.completeThumbnails(receiptKey, status, thumbKey));
+    }
+    
+    private BufferedImage render(Path receipt, String fileName) throws IOException {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".pdf")) {
+            try (PDDocument document = Loader.loadPDF(receipt.toFile())) {
+                return new PDFRenderer(document).renderImageWithDPI(0, PDF_RENDER_DPI, ImageType.RGB);
+            }
+        }
+        BufferedImage image = ImageIO.read(receipt.toFile());
+        if (image == null) {
+            throw new IOException("Unsupported receipt format: " + fileName);
+        }
+        return image;
+    }
+    
+    private void writeThumbnail(BufferedImage source, String thumbKey) throws IOException {
+        double scale = Math.min(1.0, (double) MAX_EDGE / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        
+        Path temp = fileUploadService.createTempFile("thumb-", ".part");
+        try {
+            ImageIO.write(thumbnail, "jpg", temp.toFile());
+            receiptStore.put(thumbKey, temp);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,175 @@
+package com.expense.reimbursement.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded local copy of remote objects, evicting least recently used files once
+ * the total size passes {@code maxBytes}. Entries found on disk at startup are
+ * re-admitted oldest first, so a restart keeps the warm set.
+ */
+public class DiskLruCache {
+    
+    private static final Logger log = LoggerFactory.getLogger(DiskLruCache.class);
+    
+    @FunctionalInterface
+    public interface Loader {
+        void load(Path target) throws IOException;
+    }
+    
+    private final Path root;
+    private final Path tempDir;
+    private final long maxBytes;
+    // Guards entries and totalBytes; file I/O always happens outside it
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    
+    public DiskLruCache(Path root, long maxBytes) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.tempDir = this.root.resolve(".tmp");
+        this.maxBytes = maxBytes;
+        Files.createDirectories(tempDir);
+        loadExisting();
+    }
+    
+    /**
+     * Returns the cached file for {@code key}, calling the loader to fill it on a miss.
+     * Concurrent misses for the same key may both load; the last one wins.
+     */
+    public Path get(String key, Loader loader) throws IOException {
+        Path file = resolve(key);
+        boolean cached;
+        lock.lock();
+        try {
+            cached = entries.get(key) != null;
+        } finally {
+            lock.unlock();
+        }
+        if (cached && Files.isRegularFile(file)) {
+            return file;
+        }
+        Path temp = Files.createTempFile(tempDir, "fetch-", ".part");
+        try {
+            loader.load(temp);
+            admit(key, temp, file);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return file;
+    }
+    
+    /** Seeds the cache with a copy of a file that was just written to the remote tier. */
+    public void putCopy(String key, Path source) throws IOException {
+        Path temp = Files.createTempFile(tempDir, "put-", ".part");
+        try {
+            Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+            admit(key, temp, resolve(key));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    public void remove(String key) throws IOException {
+        lock.lock();
+        try {
+            Long size = entries.remove(key);
+            if (size != null) {
+                totalBytes -= size;
+            }
+        } finally {
+            lock.unlock();
+        }
+        Files.deleteIfExists(resolve(key));
+    }
+    
+    public long getTotalBytes() {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void admit(String key, Path temp, Path file) throws IOException {
+        long size = Files.size(temp);
+        Files.createDirectories(file.getParent());
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        
+        List<Path> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            Long previous = entries.put(key, size);
+            totalBytes += size - (previous == null ? 0 : previous);
+            Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                totalBytes -= eldest.getValue();
+                evicted.add(resolve(eldest.getKey()));
+                it.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Path path : evicted) {
+            Files.deleteIfExists(path);
+        }
+    }
+    
+    private void loadExisting() throws IOException {
+        record Existing(String key, long size, long lastModified) {}
+        List<Existing> found;
+        try (Stream<Path> files = Files.walk(root)) {
+            found = files.filter(p -> !p.startsWith(tempDir))
+                    .filter(Files::isRegularFile)
+                    .map(p -> {
+                        try {
+                            BasicFileAttributes attrs = Files.readAttributes(p, BasicFileAttributes.class);
+                            String key = root.relativize(p).toString().replace('\\', '/');
+                            return new Existing(key, attrs.size(), attrs.lastModifiedTime().toMillis());
+                        } catch (IOException e) {
+                            return null;
+                        }
+                    })
+                    .filter(e -> e != null)
+                    .sorted(Comparator.comparingLong(Existing::lastModified))
+                    .toList();
+        }
+        lock.lock();
+        try {
+            for (Existing e : found) {
+                entries.put(e.key(), e.size());
+                totalBytes += e.size();
+            }
+        } finally {
+            lock.unlock();
+        }
+        log.info("Receipt cache at {} holds {} files ({} bytes, limit {})", root, found.size(), totalBytes, maxBytes);
+    }
+    
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.startsWith(tempDir)) {
+            throw new IllegalArgumentException("Cache key escapes the cache: " + key);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,76 @@
+package com.expense.reimbursement.storage;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Files under a directory on local disk. Suitable for a single node.
+ */
+public class LocalReceiptStore implements ReceiptStore {
+    
+    private final Path root;
+    
+    public LocalReceiptStore(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+    
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+    
+    @Override
+    public boolean put(String key, Path source) throws IOException {
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        // A hard link avoids copying when the source is on the same file system, and fails
+        // instead of replacing when another put got there first
+        try {
+            Files.createLink(target, source);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            // Different file system: copy below
+        }
+        Path temp = Files.createTempFile(target.getParent(), "put-", ".part");
+        try {
+            Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+            // Replacing a copy that appeared meanwhile swaps in identical content
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    @Override
+    public Path fetch(String key) throws IOException {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException(key);
+        }
+        return path;
+    }
+    
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+    
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Receipt key escapes the store: " + key);
+        }
+        return path;
+    }
+}
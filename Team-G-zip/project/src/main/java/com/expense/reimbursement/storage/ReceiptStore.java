@@ -0,0 +1,33 @@
+package com.expense.reimbursement.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Where receipt and thumbnail files live. Keys are the values kept in
+ * Expense.receiptFilePath / thumbnailPath (e.g. "ab/cd/&lt;sha256&gt;").
+ */
+public interface ReceiptStore {
+    
+    boolean exists(String key) throws IOException;
+    
+    /**
+     * Stores the content of {@code source} under {@code key}, unless the key already holds
+     * content: keys are content hashes, so that content is the same and is left as it is.
+     * Concurrent puts of one key are safe. The source file is left in place; callers clean
+     * up their own temp files.
+     *
+     * @return false when the key was already stored
+     */
+    boolean put(String key, Path source) throws IOException;
+    
+    /**
+     * Returns a local, readable file with the content for {@code key}. For remote stores
+     * this is an entry in the local cache.
+     *
+     * @throws java.nio.file.NoSuchFileException when nothing is stored under the key
+     */
+    Path fetch(String key) throws IOException;
+    
+    boolean delete(String key) throws IOException;
+}
@@ -0,0 +1,194 @@
+package com.expense.reimbursement.storage;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Receipts in an S3-compatible bucket (AWS S3, MinIO, ...), with a local
+ * {@link DiskLruCache} in front for reads. Files larger than one part are uploaded
+ * as a multipart upload streamed straight from disk, so memory use stays at one
+ * buffer regardless of receipt size.
+ */
+public class S3ReceiptStore implements ReceiptStore {
+    
+    private static final String CONTENT_TYPE = "application/octet-stream";
+    
+    private final S3Client s3;
+    private final String bucket;
+    private final String prefix;
+    private final long partSize;
+    private final DiskLruCache cache;
+    
+    public S3ReceiptStore(S3Client s3, String bucket, String prefix, long partSize, DiskLruCache cache) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.prefix = prefix == null || prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + "/";
+        this.partSize = partSize;
+        this.cache = cache;
+    }
+    
+    @Override
+    public boolean exists(String key) throws IOException {
+        try {
+            s3.headObject(b -> b.bucket(bucket).key(objectKey(key)));
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw new IOException("Failed to check receipt " + key, e);
+        }
+    }
+    
+    // Overwriting an object with the same content is harmless, so a put racing another
+    // one for the same key needs no coordination; the HEAD only saves the upload
+    @Override
+    public boolean put(String key, Path source) throws IOException {
+        if (exists(key)) {
+            return false;
+        }
+        long size = Files.size(source);
+        try {
+            if (size <= partSize) {
+                s3.putObject(b -> b.bucket(bucket).key(objectKey(key)).contentType(CONTENT_TYPE),
+                        RequestBody.fromFile(source));
+            } else {
+                multipartUpload(objectKey(key), source, size);
+            }
+        } catch (S3Exception e) {
+            throw new IOException("Failed to store receipt " + key, e);
+        }
+        cache.putCopy(key, source);
+        return true;
+    }
+    
+    @Override
+    public Path fetch(String key) throws IOException {
+        return cache.get(key, target -> {
+            try {
+                s3.getObject(b -> b.bucket(bucket).key(objectKey(key)),
+                        ResponseTransformer.toFile(target));
+            } catch (NoSuchKeyException e) {
+                throw new NoSuchFileException(key);
+            } catch (S3Exception e) {
+                if (e.statusCode() == 404) {
+                    throw new NoSuchFileException(key);
+                }
+                throw new IOException("Failed to fetch receipt " + key, e);
+            }
+        });
+    }
+    
+    @Override
+    public boolean delete(String key) throws IOException {
+        try {
+            s3.deleteObject(b -> b.bucket(bucket).key(objectKey(key)));
+        } catch (S3Exception e) {
+            throw new IOException("Failed to delete receipt " + key, e);
+        } finally {
+            cache.remove(key);
+        }
+        return true;
+    }
+    
+    private void multipartUpload(String objectKey, Path source, long size) throws IOException {
+        String uploadId = s3.createMultipartUpload(b -> b.bucket(bucket).key(objectKey).contentType(CONTENT_TYPE))
+                .uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            int partNumber = 1;
+            for (long offset = 0; offset < size; offset += partSize, partNumber++) {
+                long length = Math.min(partSize, size - offset);
+                long partOffset = offset;
+                int number = partNumber;
+                // The provider reopens the file at the part's offset, so SDK retries can replay it
+                RequestBody body = RequestBody.fromContentProvider(
+                        () -> openRange(source, partOffset, length), length, CONTENT_TYPE);
+                String etag = s3.uploadPart(b -> b.bucket(bucket).key(objectKey).uploadId(uploadId)
+                        .partNumber(number).contentLength(length), body).eTag();
+                parts.add(CompletedPart.builder().partNumber(number).eTag(etag).build());
+            }
+            s3.completeMultipartUpload(b -> b.bucket(bucket).key(objectKey).uploadId(uploadId)
+                    .multipartUpload(m -> m.parts(parts)));
+        } catch (RuntimeException e) {
+            s3.abortMultipartUpload(b -> b.bucket(bucket).key(objectKey).uploadId(uploadId));
+            throw e;
+        }
+    }
+    
+    private static InputStream openRange(Path source, long offset, long length) {
+        try {
+            InputStream in = Files.newInputStream(source);
+            in.skipNBytes(offset);
+            return new BoundedInputStream(in, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private String objectKey(String key) {
+        return prefix == null ? key : prefix + key;
+    }
+    
+    private static final class BoundedInputStream extends FilterInputStream {
+        
+        private long remaining;
+        
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(buf, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+        
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+-- Transactional outbox for expense notifications: one row per event and sink, written
+-- in the transaction that changes the expense and deleted once the sink has it. The
+-- recipient details are copied in, so delivery needs no further lookups. Rows that
+-- exhaust their retries stay behind as FAILED.
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    sink VARCHAR(32) NOT NULL,
+    event_type ENUM('SUBMITTED', 'APPROVED', 'REJECTED') NOT NULL,
+    expense_id BIGINT NOT NULL,
+    employee_id BIGINT NOT NULL,
+    employee_name VARCHAR(255) NOT NULL,
+    employee_email VARCHAR(255) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    category ENUM('TRAVEL', 'FOOD', 'ACCOMMODATION', 'TRANSPORTATION', 'OFFICE_SUPPLIES', 'TRAINING', 'OTHER') NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    actor_id BIGINT,
+    occurred_at DATETIME(6) NOT NULL,
+    status ENUM('PENDING', 'FAILED') NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    claim_token VARCHAR(36),
+    last_error VARCHAR(500),
+    PRIMARY KEY (id),
+    KEY idx_notification_outbox_due (sink, status, next_attempt_at, id)
+) ENGINE = InnoDB;
@@ -0,0 +1,29 @@
+-- Expense ids now come from Hibernate's pooled sequence (a one-row table on MySQL)
+-- instead of AUTO_INCREMENT, so inserts can be batched. The first block handed out
+-- starts just above the existing ids: Hibernate treats the stored value as the top of a
+-- block of 1000.
+CREATE TABLE IF NOT EXISTS expense_id_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO expense_id_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1001 FROM expenses;
+
+-- Bulk imports of card statements. checkpoint_line is the last input line whose chunk
+-- committed; a rerun of the same file (by hash) resumes after it.
+CREATE TABLE IF NOT EXISTS expense_imports (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    file_name VARCHAR(255) NOT NULL,
+    file_hash CHAR(64) NOT NULL,
+    format ENUM('CSV', 'JSONL') NOT NULL,
+    status ENUM('RUNNING', 'COMPLETED', 'FAILED') NOT NULL,
+    checkpoint_line BIGINT NOT NULL DEFAULT 0,
+    imported_count BIGINT NOT NULL DEFAULT 0,
+    failed_count BIGINT NOT NULL DEFAULT 0,
+    created_by BIGINT,
+    error_message VARCHAR(500),
+    started_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    finished_at DATETIME(6),
+    PRIMARY KEY (id),
+    KEY idx_expense_imports_file_hash (file_hash)
+) ENGINE = InnoDB;
@@ -0,0 +1,5 @@
+-- Possible duplicate claims, flagged at submission and by the nightly rescan:
+-- duplicate_of is the earlier expense the claim or its receipt matches.
+ALTER TABLE expenses
+    ADD COLUMN flag_reason ENUM('DUPLICATE_CLAIM', 'DUPLICATE_RECEIPT'),
+    ADD COLUMN duplicate_of BIGINT;
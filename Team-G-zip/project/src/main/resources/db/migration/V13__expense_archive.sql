@@ -0,0 +1,34 @@
+-- Cold storage for decided expenses past expense.archive.age-days; ExpenseArchiveService
+-- moves them over in batches. Same columns as expenses (a change to one belongs in both)
+-- and the same keys for the history reads. A separate table rather than range partitions:
+-- InnoDB partitioned tables cannot take part in foreign keys, and approval_inbox
+-- references expenses.
+CREATE TABLE IF NOT EXISTS expenses_archive (
+    id BIGINT NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    expense_date DATE NOT NULL,
+    category ENUM('TRAVEL', 'FOOD', 'ACCOMMODATION', 'TRANSPORTATION', 'OFFICE_SUPPLIES', 'TRAINING', 'OTHER') NOT NULL,
+    status ENUM('PENDING', 'APPROVED', 'REJECTED') NOT NULL,
+    receipt_file_name VARCHAR(255),
+    receipt_file_path VARCHAR(255),
+    thumbnail_status ENUM('NONE', 'PENDING', 'READY', 'FAILED') NOT NULL,
+    thumbnail_path VARCHAR(255),
+    comments TEXT,
+    submitted_at DATETIME(6) NOT NULL,
+    approved_at DATETIME(6),
+    approval_level INT NOT NULL,
+    approval_levels INT NOT NULL,
+    flag_reason ENUM('DUPLICATE_CLAIM', 'DUPLICATE_RECEIPT'),
+    duplicate_of BIGINT,
+    version BIGINT NOT NULL,
+    employee_id BIGINT NOT NULL,
+    approved_by BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_expenses_archive_employee FOREIGN KEY (employee_id) REFERENCES employees (id),
+    CONSTRAINT fk_expenses_archive_approved_by FOREIGN KEY (approved_by) REFERENCES employees (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_expenses_archive_employee_submitted ON expenses_archive (employee_id, submitted_at, id);
+CREATE INDEX idx_expenses_archive_submitted ON expenses_archive (submitted_at, id);
+CREATE INDEX idx_expenses_archive_expense_date ON expenses_archive (expense_date);
@@ -0,0 +1,30 @@
+-- Schema as previously generated by hibernate ddl-auto=update
+CREATE TABLE IF NOT EXISTS employees (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    department VARCHAR(255) NOT NULL,
+    role ENUM('EMPLOYEE', 'MANAGER', 'ADMIN') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_employees_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS expenses (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    description VARCHAR(255) NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    expense_date DATE NOT NULL,
+    category ENUM('TRAVEL', 'FOOD', 'ACCOMMODATION', 'TRANSPORTATION', 'OFFICE_SUPPLIES', 'TRAINING', 'OTHER') NOT NULL,
+    status ENUM('PENDING', 'APPROVED', 'REJECTED') NOT NULL,
+    receipt_file_name VARCHAR(255),
+    receipt_file_path VARCHAR(255),
+    comments TEXT,
+    submitted_at DATETIME(6) NOT NULL,
+    approved_at DATETIME(6),
+    employee_id BIGINT NOT NULL,
+    approved_by BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_expenses_employee FOREIGN KEY (employee_id) REFERENCES employees (id),
+    CONSTRAINT fk_expenses_approved_by FOREIGN KEY (approved_by) REFERENCES employees (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,7 @@
+-- Per-employee status counters maintained by ExpenseCounterService
+CREATE TABLE IF NOT EXISTS expense_status_counters (
+    employee_id BIGINT NOT NULL,
+    status ENUM('PENDING', 'APPROVED', 'REJECTED') NOT NULL,
+    expense_count BIGINT NOT NULL,
+    PRIMARY KEY (employee_id, status)
+) ENGINE = InnoDB;
@@ -0,0 +1,7 @@
+-- Hot list queries filter by employee or status and page by (submitted_at, id);
+-- these let MySQL walk the index in order instead of scanning and filesorting.
+CREATE INDEX idx_expenses_employee_submitted ON expenses (employee_id, submitted_at, id);
+CREATE INDEX idx_expenses_status_submitted ON expenses (status, submitted_at, id);
+CREATE INDEX idx_expenses_submitted ON expenses (submitted_at, id);
+
+CREATE INDEX idx_employees_role ON employees (role);
@@ -0,0 +1,2 @@
+-- Optimistic-lock version for Expense; bumped by every status transition
+ALTER TABLE expenses ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
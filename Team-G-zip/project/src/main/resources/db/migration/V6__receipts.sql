@@ -0,0 +1,9 @@
+-- Content-addressed receipt files (see FileUploadService)
+CREATE TABLE receipts (
+    sha256 VARCHAR(64) NOT NULL,
+    storage_path VARCHAR(255) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    ref_count BIGINT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (sha256)
+) ENGINE = InnoDB;
@@ -0,0 +1,9 @@
+-- Thumbnail job state per expense. Existing receipts start PENDING so the
+-- background sweep backfills their thumbnails.
+ALTER TABLE expenses
+    ADD COLUMN thumbnail_status ENUM('NONE', 'PENDING', 'READY', 'FAILED') NOT NULL DEFAULT 'NONE',
+    ADD COLUMN thumbnail_path VARCHAR(255);
+
+UPDATE expenses SET thumbnail_status = 'PENDING' WHERE receipt_file_path IS NOT NULL;
+
+CREATE INDEX idx_expenses_thumbnail_status ON expenses (thumbnail_status);
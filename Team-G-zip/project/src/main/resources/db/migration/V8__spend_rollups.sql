@@ -0,0 +1,14 @@
+-- Spend per department x category x month x status, maintained by SpendReportService.
+-- Amounts are whole cents so the report never sums DECIMALs over the expenses table.
+CREATE TABLE IF NOT EXISTS spend_rollups (
+    month_start DATE NOT NULL,
+    department VARCHAR(255) NOT NULL,
+    category ENUM('TRAVEL', 'FOOD', 'ACCOMMODATION', 'TRANSPORTATION', 'OFFICE_SUPPLIES', 'TRAINING', 'OTHER') NOT NULL,
+    status ENUM('PENDING', 'APPROVED', 'REJECTED') NOT NULL,
+    amount_cents BIGINT NOT NULL,
+    expense_count BIGINT NOT NULL,
+    PRIMARY KEY (month_start, department, category, status)
+) ENGINE = InnoDB;
+
+-- The rebuild job recomputes one month at a time
+CREATE INDEX idx_expenses_expense_date ON expenses (expense_date);
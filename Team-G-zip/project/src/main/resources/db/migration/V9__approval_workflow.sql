@@ -0,0 +1,56 @@
+-- Multi-level approval. An expense stays PENDING until its last level approves;
+-- approval_level is the level it waits on, approval_levels the number it needs.
+ALTER TABLE expenses
+    ADD COLUMN approval_level INT NOT NULL DEFAULT 1,
+    ADD COLUMN approval_levels INT NOT NULL DEFAULT 1;
+
+-- Routing rules, evaluated per level in priority order; the first match picks the
+-- approvers. NULL criteria match anything. A rule names one approver, or a role:
+-- MANAGER means the managers of the submitter's department, ADMIN every admin.
+CREATE TABLE IF NOT EXISTS approval_rules (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    approval_level INT NOT NULL,
+    priority INT NOT NULL,
+    department VARCHAR(255),
+    category ENUM('TRAVEL', 'FOOD', 'ACCOMMODATION', 'TRANSPORTATION', 'OFFICE_SUPPLIES', 'TRAINING', 'OTHER'),
+    min_amount DECIMAL(10, 2),
+    approver_role ENUM('EMPLOYEE', 'MANAGER', 'ADMIN'),
+    approver_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_approval_rules_approver FOREIGN KEY (approver_id) REFERENCES employees (id)
+) ENGINE = InnoDB;
+
+INSERT INTO approval_rules (approval_level, priority, approver_role) VALUES (1, 100, 'MANAGER');
+INSERT INTO approval_rules (approval_level, priority, min_amount, approver_role) VALUES (2, 100, 1000.00, 'ADMIN');
+
+-- One row per approver and open item. The clustered key makes an approver's queue,
+-- newest first, a single range scan; the expense index serves removal on decision.
+CREATE TABLE IF NOT EXISTS approval_inbox (
+    approver_id BIGINT NOT NULL,
+    submitted_at DATETIME(6) NOT NULL,
+    expense_id BIGINT NOT NULL,
+    approval_level INT NOT NULL,
+    PRIMARY KEY (approver_id, submitted_at, expense_id),
+    KEY idx_approval_inbox_expense (expense_id),
+    CONSTRAINT fk_approval_inbox_approver FOREIGN KEY (approver_id) REFERENCES employees (id),
+    CONSTRAINT fk_approval_inbox_expense FOREIGN KEY (expense_id) REFERENCES expenses (id)
+) ENGINE = InnoDB;
+
+-- Approver lookups by role within a department
+CREATE INDEX idx_employees_role_department ON employees (role, department);
+
+-- Existing pending expenses go to their department's managers, or to every manager
+-- where a department has none, as single-level approvals
+INSERT INTO approval_inbox (approver_id, submitted_at, expense_id, approval_level)
+SELECT m.id, e.submitted_at, e.id, 1
+FROM expenses e
+JOIN employees s ON s.id = e.employee_id
+JOIN employees m ON m.role = 'MANAGER' AND m.department = s.department AND m.id <> s.id
+WHERE e.status = 'PENDING';
+
+INSERT INTO approval_inbox (approver_id, submitted_at, expense_id, approval_level)
+SELECT m.id, e.submitted_at, e.id, 1
+FROM expenses e
+JOIN employees m ON m.role = 'MANAGER' AND m.id <> e.employee_id
+WHERE e.status = 'PENDING'
+  AND NOT EXISTS (SELECT 1 FROM approval_inbox i WHERE i.expense_id = e.id);
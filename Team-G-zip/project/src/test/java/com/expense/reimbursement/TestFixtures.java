@@ -0,0 +1,54 @@
+package com.expense.reimbursement;
+
+import com.expense.reimbursement.model.Employee;
+import com.expense.reimbursement.service.ApprovalWorkflowService;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Employees for one test, in a department of their own so that approval routing sends
+ * their expenses to the managers created alongside them and to nobody else.
+ */
+public class TestFixtures {
+    
+    private final JdbcTemplate jdbc;
+    private final ApprovalWorkflowService approvalWorkflowService;
+    private final String department = "dept-" + UUID.randomUUID();
+    
+    public TestFixtures(JdbcTemplate jdbc, ApprovalWorkflowService approvalWorkflowService) {
+        this.jdbc = jdbc;
+        this.approvalWorkflowService = approvalWorkflowService;
+    }
+    
+    public String department() {
+        return department;
+    }
+    
+    public List<Long> employees(int count) {
+        return insert(count, Employee.Role.EMPLOYEE);
+    }
+    
+    /**
+     * Managers of the department; the approval directory is reloaded so they receive work
+     * straight away.
+     */
+    public List<Long> managers(int count) {
+        List<Long> ids = insert(count, Employee.Role.MANAGER);
+        approvalWorkflowService.reload();
+        return ids;
+    }
+    
+    private List<Long> insert(int count, Employee.Role role) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String email = role.name().toLowerCase() + i + "-" + UUID.randomUUID() + "@test.local";
+            jdbc.update("INSERT INTO employees (name, email, password, department, role) VALUES (?, ?, ?, ?, ?)",
+                    role.name() + " " + i, email, "-", department, role.name());
+            ids.add(jdbc.queryForObject("SELECT id FROM employees WHERE email = ?", Long.class, email));
+        }
+        return ids;
+    }
+}
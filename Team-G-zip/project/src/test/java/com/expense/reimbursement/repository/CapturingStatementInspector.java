@@ -0,0 +1,36 @@
+package com.expense.reimbursement.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL Hibernate prepares on the current thread while {@link #capture} runs,
+ * so tests can look at the statements the repositories really issue. Registered for the
+ * test profile through hibernate.session_factory.statement_inspector.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+    
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+    
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+    
+    public static List<String> capture(Runnable call) {
+        List<String> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+        try {
+            call.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return captured;
+    }
+}
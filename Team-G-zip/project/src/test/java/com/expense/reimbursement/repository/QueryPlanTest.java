@@ -0,0 +1,125 @@
+package com.expense.reimbursement.repository;
+
+import com.expense.reimbursement.model.Employee;
+import com.expense.reimbursement.model.Expense;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plan regression checks for the hot list and lookup queries: each repository method is
+ * called, the SQL Hibernate generated for it is captured and explained, and the plan
+ * must read the index declared for that query on the entities (and created by V3
+ * onwards in MySQL).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryPlanTest {
+    
+    private static final PageRequest PAGE = PageRequest.of(0, 21);
+    private static final LocalDateTime CURSOR = LocalDateTime.of(2026, 1, 15, 12, 0);
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private ArchivedExpenseRepository archivedExpenseRepository;
+    
+    @Autowired
+    private ApprovalInboxRepository approvalInboxRepository;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private SpendRollupRepository spendRollupRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Test
+    void employeeDashboardSeeksByEmployee() {
+        assertThat(planOf(() -> expenseRepository.findByEmployeeIdOrderBySubmittedAtDesc(1L)))
+                .containsIgnoringCase("idx_expenses_employee_submitted");
+    }
+    
+    @Test
+    void allExpensesPagesReadTheSubmittedIndex() {
+        assertThat(planOf(() -> expenseRepository.findFirstPage(PAGE)))
+                .containsIgnoringCase("idx_expenses_submitted");
+        assertThat(planOf(() -> expenseRepository.findPageAfter(CURSOR, 500L, PAGE)))
+                .containsIgnoringCase("idx_expenses_submitted");
+    }
+    
+    @Test
+    void statusQueuePagesSeekTheStatusIndex() {
+        assertThat(planOf(() -> expenseRepository.findFirstPageByStatus(Expense.Status.PENDING, PAGE)))
+                .containsIgnoringCase("idx_expenses_status_submitted");
+        assertThat(planOf(() -> expenseRepository.findPageByStatusAfter(Expense.Status.PENDING, CURSOR, 500L, PAGE)))
+                .containsIgnoringCase("idx_expenses_status_submitted");
+    }
+    
+    @Test
+    void archiveCandidatesSeekTheStatusIndex() {
+        String plan = planOf(() -> transactionTemplate.executeWithoutResult(tx ->
+                expenseRepository.lockArchivableIds(Expense.Status.APPROVED, CURSOR,
+                        Expense.ThumbnailStatus.PENDING, PageRequest.of(0, 1000))));
+        assertThat(plan).containsIgnoringCase("idx_expenses_status_submitted")
+                .containsIgnoringCase("idx_approval_inbox_expense");
+    }
+    
+    @Test
+    void spendMonthRebuildSeeksTheExpenseDateIndexes() {
+        LocalDate month = LocalDate.of(2026, 1, 1);
+        String plan = planOf(() -> transactionTemplate.executeWithoutResult(tx -> {
+            spendRollupRepository.rebuildMonth(month, month.plusMonths(1));
+            tx.setRollbackOnly();
+        }));
+        assertThat(plan).containsIgnoringCase("idx_expenses_expense_date")
+                .containsIgnoringCase("idx_expenses_archive_expense_date");
+    }
+    
+    // The inbox is keyed (approver_id, submitted_at, expense_id); H2 names that index primary_key_*
+    @Test
+    void inboxPagesSeekTheApproverKey() {
+        assertThat(planOf(() -> approvalInboxRepository.findFirstPage(1L, PAGE)))
+                .containsIgnoringCase("primary_key");
+        assertThat(planOf(() -> approvalInboxRepository.findPageAfter(1L, CURSOR, 500L, PAGE)))
+                .containsIgnoringCase("primary_key");
+    }
+    
+    @Test
+    void approverDirectorySeeksTheRoleIndex() {
+        assertThat(planOf(() -> employeeRepository.findApprovers(List.of(Employee.Role.MANAGER, Employee.Role.ADMIN))))
+                .containsIgnoringCase("idx_employees_role");
+    }
+    
+    @Test
+    void historyReadsSeekTheArchiveByEmployee() {
+        assertThat(planOf(() -> archivedExpenseRepository.findByEmployeeIdOrderBySubmittedAtDesc(1L)))
+                .containsIgnoringCase("idx_expenses_archive_employee_submitted");
+        assertThat(planOf(() -> archivedExpenseRepository.findPageAfter(CURSOR, 500L, PAGE)))
+                .containsIgnoringCase("idx_expenses_archive_submitted");
+    }
+    
+    // Parameters stay unbound: a plain EXPLAIN in H2 plans the statement without them
+    private String planOf(Runnable call) {
+        List<String> statements = CapturingStatementInspector.capture(call);
+        assertThat(statements).hasSize(1);
+        return jdbc.query(con -> con.prepareStatement("EXPLAIN " + statements.get(0)),
+                rs -> rs.next() ? rs.getString(1) : "");
+    }
+}
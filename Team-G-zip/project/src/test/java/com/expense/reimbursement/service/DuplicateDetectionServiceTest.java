@@ -0,0 +1,69 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.TestFixtures;
+import com.expense.reimbursement.model.Expense;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fingerprints reach the shared index only when the submission commits: a rolled-back
+ * expense must not become the original later claims are flagged against.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DuplicateDetectionServiceTest {
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private ApprovalWorkflowService approvalWorkflowService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Test
+    void rolledBackExpenseDoesNotHoldTheFingerprint() {
+        Long employeeId = new TestFixtures(jdbc, approvalWorkflowService).employees(1).get(0);
+        transactionTemplate.executeWithoutResult(tx -> {
+            expenseService.submitExpense(claim(), employeeId);
+            tx.setRollbackOnly();
+        });
+        
+        Expense first = expenseService.submitExpense(claim(), employeeId);
+        Expense second = expenseService.submitExpense(claim(), employeeId);
+        
+        assertThat(first.getFlagReason()).isNull();
+        assertThat(second.getFlagReason()).isEqualTo(Expense.FlagReason.DUPLICATE_CLAIM);
+        assertThat(second.getDuplicateOf()).isEqualTo(first.getId());
+    }
+    
+    @Test
+    void sameTransactionSeesItsOwnSubmissions() {
+        Long employeeId = new TestFixtures(jdbc, approvalWorkflowService).employees(1).get(0);
+        Expense[] saved = transactionTemplate.execute(tx -> new Expense[]{
+                expenseService.submitExpense(claim(), employeeId),
+                expenseService.submitExpense(claim(), employeeId)});
+        
+        assertThat(saved[0].getFlagReason()).isNull();
+        assertThat(saved[1].getFlagReason()).isEqualTo(Expense.FlagReason.DUPLICATE_CLAIM);
+        assertThat(saved[1].getDuplicateOf()).isEqualTo(saved[0].getId());
+    }
+    
+    private static Expense claim() {
+        return new Expense("Client dinner", new BigDecimal("84.50"), LocalDate.now().minusDays(2),
+                Expense.Category.FOOD, null);
+    }
+}
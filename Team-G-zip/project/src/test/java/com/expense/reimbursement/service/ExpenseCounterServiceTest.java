@@ -0,0 +1,110 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.TestFixtures;
+import com.expense.reimbursement.model.Expense;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ExpenseCounterServiceTest {
+    
+    private static final int EMPLOYEES = 8;
+    private static final int MANAGERS = 3;
+    private static final int SUBMISSIONS_PER_EMPLOYEE = 40;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private ExpenseCounterService expenseCounterService;
+    
+    @Autowired
+    private ApprovalWorkflowService approvalWorkflowService;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Test
+    void countersMatchExpensesAfterConcurrentSubmitsApprovalsAndRebuilds() throws Exception {
+        TestFixtures fixtures = new TestFixtures(jdbc, approvalWorkflowService);
+        List<Long> employees = fixtures.employees(EMPLOYEES);
+        List<Long> managers = fixtures.managers(MANAGERS);
+        AtomicInteger amounts = new AtomicInteger(100);
+        AtomicBoolean submitting = new AtomicBoolean(true);
+        
+        ExecutorService pool = Executors.newFixedThreadPool(EMPLOYEES + MANAGERS + 1);
+        try {
+            List<Future<?>> submitters = new ArrayList<>();
+            for (Long employeeId : employees) {
+                submitters.add(pool.submit(() -> {
+                    for (int i = 0; i < SUBMISSIONS_PER_EMPLOYEE; i++) {
+                        Expense expense = new Expense("Taxi " + i, BigDecimal.valueOf(amounts.getAndIncrement(), 2),
+                                LocalDate.now(), Expense.Category.TRAVEL, null);
+                        expenseService.submitExpense(expense, employeeId);
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> others = new ArrayList<>();
+            for (Long managerId : managers) {
+                others.add(pool.submit(() -> {
+                    // Managers share the department inbox, so they also race each other
+                    while (submitting.get() || !expenseService.getInboxPage(managerId, null, null).isEmpty()) {
+                        for (Expense expense : expenseService.getInboxPage(managerId, null, null).content()) {
+                            Expense.Status decision = ThreadLocalRandom.current().nextBoolean()
+                                    ? Expense.Status.APPROVED : Expense.Status.REJECTED;
+                            expenseService.decideExpense(expense.getId(), decision, managerId);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            others.add(pool.submit(() -> {
+                while (submitting.get()) {
+                    expenseCounterService.rebuildCounters();
+                }
+                return null;
+            }));
+            
+            for (Future<?> submitter : submitters) {
+                submitter.get();
+            }
+            submitting.set(false);
+            for (Future<?> other : others) {
+                other.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        for (Long employeeId : employees) {
+            Map<Expense.Status, Long> expected = ExpenseCounterService.emptyCounts();
+            jdbc.query("SELECT status, COUNT(*) FROM expenses WHERE employee_id = ? GROUP BY status",
+                    rs -> { expected.put(Expense.Status.valueOf(rs.getString(1)), rs.getLong(2)); }, employeeId);
+            assertThat(expenseCounterService.getCounts(employeeId)).isEqualTo(expected);
+        }
+        long decided = jdbc.queryForObject("SELECT COUNT(*) FROM expenses e JOIN employees emp ON emp.id = e.employee_id " +
+                "WHERE emp.department = ? AND e.status <> 'PENDING'", Long.class, fixtures.department());
+        assertThat(decided).isEqualTo((long) EMPLOYEES * SUBMISSIONS_PER_EMPLOYEE);
+        assertThat(managers).allSatisfy(managerId ->
+                assertThat(approvalWorkflowService.countInbox(managerId)).isZero());
+    }
+}
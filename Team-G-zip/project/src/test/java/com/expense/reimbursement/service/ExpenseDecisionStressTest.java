@@ -0,0 +1,142 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.TestFixtures;
+import com.expense.reimbursement.dto.DecisionOutcome;
+import com.expense.reimbursement.model.Expense;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 64 threads approve and reject the same expenses as different managers of the
+ * department. Each expense must be decided exactly once, and end up in the state the
+ * winning decision set. The contended run is timed and its decisions and conflicts
+ * per second are logged.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExpenseDecisionStressTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExpenseDecisionStressTest.class);
+    
+    private static final int THREADS = 64;
+    private static final int MANAGERS = 8;
+    private static final int EXPENSES = 200;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private ExpenseCounterService expenseCounterService;
+    
+    @Autowired
+    private ApprovalWorkflowService approvalWorkflowService;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Test
+    void everyExpenseIsDecidedExactlyOnce() throws Exception {
+        TestFixtures fixtures = new TestFixtures(jdbc, approvalWorkflowService);
+        List<Long> employees = fixtures.employees(4);
+        List<Long> managers = fixtures.managers(MANAGERS);
+        List<Long> expenseIds = new ArrayList<>();
+        for (int i = 0; i < EXPENSES; i++) {
+            Expense expense = new Expense("Hotel " + i, BigDecimal.valueOf(5000 + i, 2), LocalDate.now(),
+                    Expense.Category.ACCOMMODATION, null);
+            expenseIds.add(expenseService.submitExpense(expense, employees.get(i % employees.size())).getId());
+        }
+        
+        Map<Long, List<Expense.Status>> decisions = new ConcurrentHashMap<>();
+        // Attempts that lost to another manager's decision
+        LongAdder conflicts = new LongAdder();
+        long elapsed;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Long managerId = managers.get(t % MANAGERS);
+                workers.add(pool.submit(() -> {
+                    List<Long> order = new ArrayList<>(expenseIds);
+                    Collections.shuffle(order);
+                    start.await();
+                    for (Long id : order) {
+                        Expense.Status decision = ThreadLocalRandom.current().nextBoolean()
+                                ? Expense.Status.APPROVED : Expense.Status.REJECTED;
+                        DecisionOutcome outcome = expenseService.decideExpense(id, decision, managerId);
+                        assertThat(outcome).isIn(DecisionOutcome.DECIDED, DecisionOutcome.ALREADY_DECIDED,
+                                DecisionOutcome.NOT_ASSIGNED);
+                        if (outcome == DecisionOutcome.DECIDED) {
+                            decisions.computeIfAbsent(id, k -> Collections.synchronizedList(new ArrayList<>()))
+                                    .add(decision);
+                        } else {
+                            conflicts.increment();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            elapsed = System.nanoTime() - started;
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        double seconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+        long attempts = (long) THREADS * EXPENSES;
+        log.info("{} decision attempts by {} threads in {} ms: {} decisions/s, {} conflicts/s ({} conflicts)",
+                attempts, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                String.format("%.1f", decisions.size() / seconds),
+                String.format("%.1f", conflicts.sum() / seconds), conflicts.sum());
+        
+        assertThat(decisions).containsOnlyKeys(expenseIds);
+        assertThat(conflicts.sum()).isEqualTo(attempts - EXPENSES);
+        for (Long id : expenseIds) {
+            assertThat(decisions.get(id)).as("decisions for expense %d", id).hasSize(1);
+            Map<String, Object> row = jdbc.queryForMap("SELECT status, version, approved_by FROM expenses WHERE id = ?", id);
+            assertThat(row.get("status")).isEqualTo(decisions.get(id).get(0).name());
+            assertThat(((Number) row.get("version")).longValue()).isEqualTo(1L);
+            assertThat(managers).contains(((Number) row.get("approved_by")).longValue());
+        }
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM approval_inbox WHERE expense_id IN (" +
+                String.join(",", expenseIds.stream().map(String::valueOf).toList()) + ")", Long.class)).isZero();
+        
+        long approved = decisions.values().stream().filter(d -> d.get(0) == Expense.Status.APPROVED).count();
+        long approvedCounted = 0;
+        long rejectedCounted = 0;
+        for (Long employeeId : employees) {
+            Map<Expense.Status, Long> counts = expenseCounterService.getCounts(employeeId);
+            assertThat(counts.get(Expense.Status.PENDING)).isZero();
+            approvedCounted += counts.get(Expense.Status.APPROVED);
+            rejectedCounted += counts.get(Expense.Status.REJECTED);
+        }
+        assertThat(approvedCounted).isEqualTo(approved);
+        assertThat(rejectedCounted).isEqualTo(EXPENSES - approved);
+    }
+}
@@ -0,0 +1,84 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.TestFixtures;
+import com.expense.reimbursement.dto.ExpenseExportFilter;
+import com.expense.reimbursement.model.Expense;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A history export merges archived expenses into the hot ones, newest first; a plain
+ * export leaves them out.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExpenseExportServiceTest {
+    
+    @Autowired
+    private ExpenseExportService expenseExportService;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private ApprovalWorkflowService approvalWorkflowService;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Test
+    void historyExportIncludesTheArchiveInOrder() throws Exception {
+        TestFixtures fixtures = new TestFixtures(jdbc, approvalWorkflowService);
+        Long employeeId = fixtures.employees(1).get(0);
+        long older = expenseService.submitExpense(expense("Taxi"), employeeId).getId();
+        long newer = expenseService.submitExpense(expense("Hotel"), employeeId).getId();
+        long archivedNewest = archive(employeeId, LocalDateTime.now().plusHours(1));
+        long archivedOldest = archive(employeeId, LocalDateTime.now().minusYears(2));
+        
+        assertThat(exportedIds(new ExpenseExportFilter(null, null, null, null, fixtures.department(), false)))
+                .containsExactly(newer, older);
+        assertThat(exportedIds(new ExpenseExportFilter(null, null, null, null, fixtures.department(), true)))
+                .containsExactly(archivedNewest, newer, older, archivedOldest);
+    }
+    
+    private List<Long> exportedIds(ExpenseExportFilter filter) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        expenseExportService.exportCsv(filter, out);
+        return Arrays.stream(out.toString(StandardCharsets.UTF_8).split("\r\n"))
+                .skip(1)
+                .map(line -> Long.valueOf(line.substring(0, line.indexOf(','))))
+                .toList();
+    }
+    
+    // Well above anything the expense sequence hands out during the tests
+    private long archive(Long employeeId, LocalDateTime submittedAt) {
+        long id = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM expenses_archive", Long.class)
+                + 1_000_000_000L;
+        jdbc.update("INSERT INTO expenses_archive (id, description, amount, expense_date, category, status, " +
+                "submitted_at, approved_at, employee_id, version, thumbnail_status, approval_level, approval_levels) " +
+                "VALUES (?, 'Archived', 12.00, ?, 'TRAVEL', 'APPROVED', ?, ?, ?, 0, 'NONE', 1, 1)",
+                id, Date.valueOf(submittedAt.toLocalDate()), Timestamp.valueOf(submittedAt),
+                Timestamp.valueOf(submittedAt.plusHours(1)), employeeId);
+        return id;
+    }
+    
+    private static Expense expense(String description) {
+        return new Expense(description, new BigDecimal("42.00"), LocalDate.now(),
+                Expense.Category.TRAVEL, null);
+    }
+}
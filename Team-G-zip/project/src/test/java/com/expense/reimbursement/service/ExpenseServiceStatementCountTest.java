@@ -0,0 +1,145 @@
+package com.expense.reimbursement.service;
+
+import com.expense.reimbursement.TestFixtures;
+import com.expense.reimbursement.dto.ExpensePage;
+import com.expense.reimbursement.model.Expense;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The list pages load submitter and approver with the expenses, so the number of
+ * statements per page must not grow with the page size.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExpenseServiceStatementCountTest {
+    
+    private static final int[] PAGE_SIZES = {5, 20, 50};
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private ApprovalWorkflowService approvalWorkflowService;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    private Long employeeId;
+    private Long managerId;
+    private int defaultPageSize;
+    
+    @BeforeEach
+    void seed() {
+        TestFixtures fixtures = new TestFixtures(jdbc, approvalWorkflowService);
+        List<Long> employees = fixtures.employees(5);
+        employeeId = employees.get(0);
+        managerId = fixtures.managers(1).get(0);
+        for (int i = 0; i < 120; i++) {
+            Expense expense = new Expense("Lunch " + i, BigDecimal.valueOf(1000 + i, 2), LocalDate.now(),
+                    Expense.Category.FOOD, null);
+            Expense saved = expenseService.submitExpense(expense, i < 60 ? employeeId : employees.get(1 + i % 4));
+            // Every other expense decided, so pages mix rows with and without an approver
+            if (i % 2 == 0) {
+                expenseService.approveExpense(saved.getId(), managerId);
+            }
+        }
+        defaultPageSize = (int) ReflectionTestUtils.getField(target(), "pageSize");
+    }
+    
+    @AfterEach
+    void restorePageSize() {
+        ReflectionTestUtils.setField(target(), "pageSize", defaultPageSize);
+    }
+    
+    @Test
+    void allExpensesPage() {
+        assertConstantStatements(() -> expenseService.getExpensesPage(null, null).content());
+    }
+    
+    @Test
+    void pendingExpensesPage() {
+        assertConstantStatements(() -> expenseService.getPendingExpensesPage(null, null).content());
+    }
+    
+    @Test
+    void approvedExpensesPage() {
+        assertConstantStatements(() ->
+                expenseService.getExpensesPageByStatus(Expense.Status.APPROVED, null, null).content());
+    }
+    
+    @Test
+    void inboxPage() {
+        assertConstantStatements(() -> expenseService.getInboxPage(managerId, null, null).content());
+    }
+    
+    @Test
+    void secondPage() {
+        assertConstantStatements(() -> {
+            ExpensePage<Expense> first = expenseService.getExpensesPage(null, null);
+            return expenseService.getExpensesPage(first.nextCursor(), null).content();
+        });
+    }
+    
+    @Test
+    void employeeDashboard() {
+        // Not paged: the whole list is one statement however long it is
+        Statistics statistics = statistics();
+        statistics.clear();
+        render(expenseService.getExpensesByEmployee(employeeId));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+    
+    private void assertConstantStatements(Supplier<List<Expense>> page) {
+        Statistics statistics = statistics();
+        long[] counts = new long[PAGE_SIZES.length];
+        for (int i = 0; i < PAGE_SIZES.length; i++) {
+            ReflectionTestUtils.setField(target(), "pageSize", PAGE_SIZES[i]);
+            statistics.clear();
+            List<Expense> rows = page.get();
+            render(rows);
+            counts[i] = statistics.getPrepareStatementCount();
+            assertThat(rows).hasSizeLessThanOrEqualTo(PAGE_SIZES[i]).isNotEmpty();
+        }
+        assertThat(counts).containsOnly(counts[0]);
+    }
+    
+    // What the list templates read from each row
+    private static void render(List<Expense> rows) {
+        for (Expense expense : rows) {
+            expense.getEmployee().getName();
+            expense.getEmployee().getDepartment();
+            if (expense.getApprovedBy() != null) {
+                expense.getApprovedBy().getName();
+            }
+        }
+    }
+    
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    private ExpenseService target() {
+        return AopTestUtils.getUltimateTargetObject(expenseService);
+    }
+}